@@ -0,0 +1,32 @@
+package com.czu.workflow.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流程部署：解析 BPMN、写入 ACT_RE_DEPLOYMENT / ACT_GE_BYTEARRAY / ACT_RE_PROCDEF
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeployBenchmark {
+
+    @Benchmark
+    public String deployCandidateUserFlow(EngineState engine) {
+        return engine.deploy(EngineState.CANDIDATE_USER_FLOW, null);
+    }
+
+    @Benchmark
+    public String deployTenantFlow(EngineState engine) {
+        return engine.deploy(EngineState.TENANT_FLOW, EngineState.TENANT_ID);
+    }
+}
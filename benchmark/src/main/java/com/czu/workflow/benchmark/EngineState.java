@@ -0,0 +1,159 @@
+package com.czu.workflow.benchmark;
+
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.identity.Group;
+import org.camunda.bpm.engine.identity.Tenant;
+import org.camunda.bpm.engine.identity.User;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 基准测试共享的内存引擎：H2 内存库 + 全量历史，部署 static/processResource/flow 下的全部流程并预置数据
+ */
+@State(Scope.Benchmark)
+public class EngineState {
+
+    public static final String FLOW_PATH = "static/processResource/flow/";
+
+    public static final String CANDIDATE_USER_FLOW = "候选人分配任务.bpmn";
+    public static final String CANDIDATE_GROUP_FLOW = "候选组分配任务.bpmn";
+    public static final String TENANT_FLOW = "租户管理.bpmn";
+
+    public static final String CANDIDATE_USER_KEY = "Process_1c6zsko";
+    public static final String CANDIDATE_GROUP_KEY = "Process_0cs766a";
+    public static final String TENANT_KEY = "Process_0a0q123";
+
+    public static final String TENANT_ID = "tenant01";
+    public static final String GROUP_ID = "jxGroup";
+
+    private static final String[] FLOWS = {
+            "任务分配-Assignee.bpmn",
+            "任务分配-bean.bpmn",
+            "任务分配-listener.bpmn",
+            "任务分配-值表达式.bpmn",
+            CANDIDATE_USER_FLOW,
+            CANDIDATE_GROUP_FLOW,
+            TENANT_FLOW
+    };
+
+    /**
+     * 每个流程预先发起的实例数，决定任务查询时 ACT_RU_TASK 的数据量
+     */
+    @Param({"500"})
+    public int seedInstances;
+
+    public ProcessEngine processEngine;
+    public RepositoryService repositoryService;
+    public RuntimeService runtimeService;
+    public TaskService taskService;
+    public IdentityService identityService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<Object, Object> beans = new HashMap<>();
+        // 任务分配-bean.bpmn 中的 ${BeanTestService.getAssignee()}
+        beans.put("BeanTestService", new AssigneeBean());
+
+        StandaloneInMemProcessEngineConfiguration configuration = new StandaloneInMemProcessEngineConfiguration();
+        configuration.setBeans(beans);
+        // 候选组分配任务.bpmn 未设置 historyTimeToLive，与其他流程保持一致使用 30 天
+        configuration.setHistoryTimeToLive("30");
+        processEngine = configuration
+                .setJdbcUrl("jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP)
+                .setHistory(ProcessEngineConfiguration.HISTORY_FULL)
+                .setJobExecutorActivate(false)
+                .buildProcessEngine();
+        repositoryService = processEngine.getRepositoryService();
+        runtimeService = processEngine.getRuntimeService();
+        taskService = processEngine.getTaskService();
+        identityService = processEngine.getIdentityService();
+
+        seedIdentity();
+        for (String flow : FLOWS) {
+            deploy(flow, null);
+        }
+        deploy(TENANT_FLOW, TENANT_ID);
+        seedInstances();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    public String deploy(String flow, String tenantId) {
+        return repositoryService.createDeployment()
+                .addClasspathResource(FLOW_PATH + flow)
+                .name(flow)
+                .tenantId(tenantId)
+                .deploy()
+                .getId();
+    }
+
+    /**
+     * 发起一个候选人流程实例，返回其第一个任务ID
+     */
+    public String startCandidateUserTask() {
+        String processInstanceId = runtimeService.startProcessInstanceByKey(CANDIDATE_USER_KEY).getId();
+        return taskService.createTaskQuery()
+                .processInstanceId(processInstanceId)
+                .singleResult()
+                .getId();
+    }
+
+    private void seedIdentity() {
+        for (String userId : new String[]{"demo", "wowo", "yuanj14", "guodd"}) {
+            User user = identityService.newUser(userId);
+            user.setPassword(userId);
+            identityService.saveUser(user);
+        }
+        Group group = identityService.newGroup(GROUP_ID);
+        group.setName("Activity教学组");
+        identityService.saveGroup(group);
+        identityService.createMembership("wowo", GROUP_ID);
+        identityService.createMembership("guodd", GROUP_ID);
+
+        Tenant tenant = identityService.newTenant(TENANT_ID);
+        tenant.setName("深圳分公司");
+        identityService.saveTenant(tenant);
+        identityService.createTenantUserMembership(TENANT_ID, "guodd");
+        identityService.createTenantUserMembership(TENANT_ID, "wowo");
+    }
+
+    private void seedInstances() {
+        Map<String, Object> groupVariables = Map.of("group1", GROUP_ID);
+        Map<String, Object> tenantVariables = Map.of("user1", "wowo", "user2", 23, "user3", false);
+        for (int i = 0; i < seedInstances; i++) {
+            runtimeService.startProcessInstanceByKey(CANDIDATE_USER_KEY);
+            runtimeService.startProcessInstanceByKey(CANDIDATE_GROUP_KEY, groupVariables);
+            runtimeService.createProcessInstanceByKey(TENANT_KEY)
+                    .processDefinitionTenantId(TENANT_ID)
+                    .setVariables(tenantVariables)
+                    .execute();
+        }
+    }
+
+    /**
+     * 代替 Spring 中的 BeanTestService
+     */
+    public static class AssigneeBean {
+        public String getAssignee() {
+            return "demo";
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.czu.workflow.benchmark;
+
+import com.czu.workflow.jobexecutor.VirtualThreadJobExecutor;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步作业吞吐：starter 默认线程池执行器（core 3 / max 10 / queue 3）对比虚拟线程执行器。
+ * 每次调用发起 jobs 个带 asyncBefore 的实例，等待全部作业执行完；作业内 sleep blockMillis 模拟阻塞在 JDBC 上。
+ * 两种执行器使用同一个 Hikari 连接池配置，虚拟线程执行器的并发上限与应用中相同：连接池大小减去预留连接
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, batchSize = 1)
+@Measurement(iterations = 5, batchSize = 1)
+@Fork(1)
+@Slf4j
+public class JobExecutorBenchmark {
+
+    private static final String PROCESS_KEY = "asyncJobs";
+
+    private static final int POOL_SIZE = 50;
+
+    @State(Scope.Benchmark)
+    public static class JobEngine {
+        @Param({"default", "virtual"})
+        public String executor;
+
+        @Param({"200"})
+        public int blockMillis;
+
+        @Param({"200"})
+        public int jobs;
+
+        public ProcessEngine processEngine;
+        public RuntimeService runtimeService;
+        public ManagementService managementService;
+        private JobExecutor jobExecutor;
+        private HikariDataSource dataSource;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            BlockingDelegate.blockMillis = blockMillis;
+            jobExecutor = "virtual".equals(executor)
+                    ? new VirtualThreadJobExecutor(POOL_SIZE - 2, POOL_SIZE - 2, POOL_SIZE)
+                    : new DefaultJobExecutor();
+
+            dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:jobs-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            dataSource.setMaximumPoolSize(POOL_SIZE);
+
+            StandaloneInMemProcessEngineConfiguration configuration = new StandaloneInMemProcessEngineConfiguration();
+            configuration.setJobExecutor(jobExecutor);
+            configuration.setHistoryTimeToLive("30");
+            processEngine = configuration
+                    .setDataSource(dataSource)
+                    .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP)
+                    .setJobExecutorActivate(true)
+                    .buildProcessEngine();
+            runtimeService = processEngine.getRuntimeService();
+            managementService = processEngine.getManagementService();
+
+            processEngine.getRepositoryService().createDeployment()
+                    .addModelInstance("asyncJobs.bpmn", Bpmn.createExecutableProcess(PROCESS_KEY)
+                            .startEvent()
+                            .serviceTask().camundaAsyncBefore().camundaClass(BlockingDelegate.class)
+                            .endEvent()
+                            .done())
+                    .deploy();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (jobExecutor instanceof VirtualThreadJobExecutor virtual) {
+                log.info("虚拟线程执行器指标: {}", virtual.getMetrics());
+            }
+            processEngine.close();
+            dataSource.close();
+        }
+    }
+
+    @Benchmark
+    public long runJobs(JobEngine engine) throws InterruptedException {
+        for (int i = 0; i < engine.jobs; i++) {
+            engine.runtimeService.startProcessInstanceByKey(PROCESS_KEY);
+        }
+        long remaining;
+        while ((remaining = engine.managementService.createJobQuery().count()) > 0) {
+            Thread.sleep(20);
+        }
+        return remaining;
+    }
+
+    public static class BlockingDelegate implements JavaDelegate {
+        static volatile int blockMillis;
+
+        @Override
+        public void execute(DelegateExecution execution) throws Exception {
+            Thread.sleep(blockMillis);
+        }
+    }
+}
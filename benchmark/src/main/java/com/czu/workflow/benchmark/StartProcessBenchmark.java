@@ -0,0 +1,43 @@
+package com.czu.workflow.benchmark;
+
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发起流程实例
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StartProcessBenchmark {
+
+    @Benchmark
+    public ProcessInstance startCandidateUserFlow(EngineState engine) {
+        return engine.runtimeService.startProcessInstanceByKey(EngineState.CANDIDATE_USER_KEY);
+    }
+
+    @Benchmark
+    public ProcessInstance startCandidateGroupFlow(EngineState engine) {
+        return engine.runtimeService.startProcessInstanceByKey(EngineState.CANDIDATE_GROUP_KEY,
+                Map.of("group1", EngineState.GROUP_ID));
+    }
+
+    @Benchmark
+    public ProcessInstance startTenantFlow(EngineState engine) {
+        return engine.runtimeService.createProcessInstanceByKey(EngineState.TENANT_KEY)
+                .processDefinitionTenantId(EngineState.TENANT_ID)
+                .setVariables(Map.of("user1", "wowo", "user2", 23, "user3", false))
+                .execute();
+    }
+}
@@ -0,0 +1,53 @@
+package com.czu.workflow.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务拾取与完成
+ * 每次调用前新发起一个实例准备任务；单次操作在毫秒级，Level.Invocation 的额外开销可以忽略
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskLifecycleBenchmark {
+
+    /**
+     * 财务审批完成后，部门审核节点的候选人来自 ${user1},${user2},${user3}
+     */
+    private static final Map<String, Object> NEXT_CANDIDATES = Map.of("user1", "demo", "user2", "wowo", "user3", "yuanj14");
+
+    @State(Scope.Thread)
+    public static class PendingTask {
+        public String taskId;
+
+        @Setup(Level.Invocation)
+        public void prepare(EngineState engine) {
+            taskId = engine.startCandidateUserTask();
+        }
+    }
+
+    @Benchmark
+    public void claim(EngineState engine, PendingTask task) {
+        engine.taskService.claim(task.taskId, "demo");
+    }
+
+    @Benchmark
+    public void complete(EngineState engine, PendingTask task) {
+        engine.taskService.complete(task.taskId, NEXT_CANDIDATES);
+    }
+}
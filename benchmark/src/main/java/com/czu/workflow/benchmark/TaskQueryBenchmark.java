@@ -0,0 +1,54 @@
+package com.czu.workflow.benchmark;
+
+import org.camunda.bpm.engine.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务查询：按办理人 / 候选人 / 候选组 / 租户，每次取第一页
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskQueryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Benchmark
+    public List<Task> byAssignee(EngineState engine) {
+        return engine.taskService.createTaskQuery()
+                .taskAssignee("wowo")
+                .listPage(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Task> byCandidateUser(EngineState engine) {
+        return engine.taskService.createTaskQuery()
+                .taskCandidateUser("demo")
+                .listPage(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Task> byCandidateGroup(EngineState engine) {
+        return engine.taskService.createTaskQuery()
+                .taskCandidateGroup(EngineState.GROUP_ID)
+                .listPage(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Task> byTenant(EngineState engine) {
+        return engine.taskService.createTaskQuery()
+                .tenantIdIn(EngineState.TENANT_ID)
+                .listPage(0, PAGE_SIZE);
+    }
+}
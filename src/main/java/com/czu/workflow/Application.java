@@ -1,13 +1,69 @@
 package com.czu.workflow;
 
+import com.czu.workflow.assignee.AssigneeResolver;
+import com.czu.workflow.assignee.AssigneeResolvers;
+import com.czu.workflow.assignee.LoadBalancedAssigneeResolver;
+import com.czu.workflow.assignee.OpenTaskCounter;
+import com.czu.workflow.claim.TaskClaimer;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.deployment.FirstRequestFilter;
+import com.czu.workflow.deployment.StartupDeployer;
+import com.czu.workflow.history.AsyncHistoryWriter;
+import com.czu.workflow.history.HistoryPartitionManager;
+import com.czu.workflow.history.HistoryWriteMetrics;
+import com.czu.workflow.history.MappedHistoryStore;
+import com.czu.workflow.identity.MembershipCache;
+import com.czu.workflow.inbox.InboxProjection;
+import com.czu.workflow.identity.TenantAuthenticationFilter;
+import com.czu.workflow.metrics.EngineMetrics;
+import com.czu.workflow.metrics.JobExecutorMeterBinder;
+import com.czu.workflow.notification.TaskNotificationBroadcaster;
+import com.czu.workflow.pagination.KeysetQueries;
+import com.czu.workflow.plugin.AssigneeResolverPlugin;
+import com.czu.workflow.plugin.BufferedHistoryPlugin;
+import com.czu.workflow.plugin.DefinitionCachePlugin;
+import com.czu.workflow.plugin.EngineMetricsPlugin;
+import com.czu.workflow.plugin.HistoryPartitionPlugin;
+import com.czu.workflow.plugin.InboxProjectionPlugin;
+import com.czu.workflow.plugin.KeysetPaginationPlugin;
+import com.czu.workflow.plugin.LoggingContextPlugin;
+import com.czu.workflow.plugin.MembershipCachePlugin;
+import com.czu.workflow.plugin.OpenTaskCounterPlugin;
+import com.czu.workflow.plugin.ReadReplicaPlugin;
+import com.czu.workflow.plugin.SqlProfilerPlugin;
+import com.czu.workflow.plugin.TaskClaimPlugin;
+import com.czu.workflow.plugin.TaskNotificationPlugin;
+import com.czu.workflow.plugin.TenantScopePlugin;
+import com.czu.workflow.plugin.VirtualThreadJobExecutorPlugin;
+import com.czu.workflow.replica.ReplicaDataSourcePostProcessor;
+import com.czu.workflow.replica.ReplicaLagMonitor;
+import com.czu.workflow.replica.ReplicaRoutingDataSource;
+import com.czu.workflow.replica.ReplicaRoutingInterceptor;
+import com.czu.workflow.sqlprofile.SqlProfileEndpoint;
+import com.czu.workflow.sqlprofile.SqlProfileFilter;
+import com.czu.workflow.sqlprofile.SqlProfiler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RepositoryService;
 import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.ProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Map;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class Application {
 
     public static void main(String... args) {
@@ -25,4 +81,247 @@ public class Application {
         };
     }
 
+    @Bean
+    public MembershipCache membershipCache(WorkflowProperties workflowProperties, MeterRegistry meterRegistry) {
+        MembershipCache membershipCache = new MembershipCache(workflowProperties.getIdentityCache());
+        membershipCache.bindMetrics(meterRegistry);
+        return membershipCache;
+    }
+
+    @Bean
+    public ProcessEnginePlugin membershipCachePlugin(MembershipCache membershipCache) {
+        return new MembershipCachePlugin(membershipCache);
+    }
+
+    /**
+     * 所有 {@link AssigneeResolver} Bean，按 Bean 名称供处理人表达式引用
+     */
+    @Bean
+    public AssigneeResolvers assigneeResolvers(Map<String, AssigneeResolver> resolvers,
+                                               WorkflowProperties workflowProperties) {
+        return new AssigneeResolvers(resolvers, workflowProperties.getAssigneeResolver());
+    }
+
+    @Bean
+    public ProcessEnginePlugin assigneeResolverPlugin(AssigneeResolvers assigneeResolvers) {
+        return new AssigneeResolverPlugin(assigneeResolvers);
+    }
+
+    @Bean
+    public OpenTaskCounterPlugin openTaskCounterPlugin(WorkflowProperties workflowProperties, MeterRegistry meterRegistry) {
+        return new OpenTaskCounterPlugin(workflowProperties.getAssignment(), meterRegistry);
+    }
+
+    /**
+     * 依赖引擎，引擎构建完成后从数据库加载计数
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public OpenTaskCounter openTaskCounter(OpenTaskCounterPlugin openTaskCounterPlugin, ProcessEngine processEngine) {
+        return openTaskCounterPlugin.getCounter();
+    }
+
+    /**
+     * 处理人表达式 {@code ${loadBalancedAssignee.resolve()}}；只依赖插件中的计数，不依赖引擎
+     */
+    @Bean
+    public LoadBalancedAssigneeResolver loadBalancedAssignee(OpenTaskCounterPlugin openTaskCounterPlugin,
+                                                             WorkflowProperties workflowProperties,
+                                                             MeterRegistry meterRegistry) {
+        return new LoadBalancedAssigneeResolver(openTaskCounterPlugin.getCounter(), workflowProperties.getAssignment(),
+                meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.tenant-scope", name = "enabled", matchIfMissing = true)
+    public ProcessEnginePlugin tenantScopePlugin() {
+        return new TenantScopePlugin();
+    }
+
+    /**
+     * 请求头中的用户ID未经校验，只在网关完成认证并覆盖该请求头时显式开启
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.tenant-scope", name = "header-authentication")
+    public TenantAuthenticationFilter tenantAuthenticationFilter(IdentityService identityService,
+                                                                 WorkflowProperties workflowProperties) {
+        return new TenantAuthenticationFilter(identityService, workflowProperties.getTenantScope().getUserHeader());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.job-executor", name = "virtual-threads", matchIfMissing = true)
+    public VirtualThreadJobExecutorPlugin virtualThreadJobExecutorPlugin(WorkflowProperties workflowProperties,
+                                                                         DataSource dataSource) {
+        return new VirtualThreadJobExecutorPlugin(workflowProperties.getJobExecutor(), dataSource);
+    }
+
+    @Bean
+    public ProcessEnginePlugin engineMetricsPlugin(MeterRegistry meterRegistry) {
+        return new EngineMetricsPlugin(new EngineMetrics(meterRegistry));
+    }
+
+    @Bean
+    public ProcessEnginePlugin loggingContextPlugin() {
+        return new LoggingContextPlugin();
+    }
+
+    @Bean
+    public JobExecutorMeterBinder jobExecutorMeterBinder(JobExecutor jobExecutor) {
+        return new JobExecutorMeterBinder(jobExecutor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.sql-profiler", name = "enabled", matchIfMissing = true)
+    public SqlProfiler sqlProfiler(WorkflowProperties workflowProperties) {
+        return new SqlProfiler(workflowProperties.getSqlProfiler());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.sql-profiler", name = "enabled", matchIfMissing = true)
+    public ProcessEnginePlugin sqlProfilerPlugin(SqlProfiler sqlProfiler) {
+        return new SqlProfilerPlugin(sqlProfiler);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.sql-profiler", name = "enabled", matchIfMissing = true)
+    public SqlProfileFilter sqlProfileFilter(SqlProfiler sqlProfiler) {
+        return new SqlProfileFilter(sqlProfiler);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.sql-profiler", name = "enabled", matchIfMissing = true)
+    public SqlProfileEndpoint sqlProfileEndpoint(SqlProfiler sqlProfiler) {
+        return new SqlProfileEndpoint(sqlProfiler);
+    }
+
+    @Bean
+    public BufferedHistoryPlugin bufferedHistoryPlugin(WorkflowProperties workflowProperties, MeterRegistry meterRegistry) {
+        return new BufferedHistoryPlugin(workflowProperties.getHistory(), new HistoryWriteMetrics(meterRegistry));
+    }
+
+    /**
+     * 依赖引擎，使停机时先于引擎关闭，等待已入队的历史写完
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "workflow.history", name = "async")
+    public AsyncHistoryWriter asyncHistoryWriter(BufferedHistoryPlugin bufferedHistoryPlugin, ProcessEngine processEngine) {
+        return bufferedHistoryPlugin.getWriter();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "workflow.history", name = "variable-store", havingValue = "mapped")
+    public MappedHistoryStore mappedHistoryStore(BufferedHistoryPlugin bufferedHistoryPlugin, ProcessEngine processEngine) {
+        return bufferedHistoryPlugin.getStore();
+    }
+
+    @Bean
+    public ProcessEnginePlugin historyPartitionPlugin(WorkflowProperties workflowProperties) {
+        return new HistoryPartitionPlugin(workflowProperties.getHistoryPartition());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "workflow.history-partition", name = "enabled")
+    public HistoryPartitionManager historyPartitionManager(DataSource dataSource, WorkflowProperties workflowProperties) {
+        return new HistoryPartitionManager(dataSource, workflowProperties.getHistoryPartition());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.deployer", name = "enabled", matchIfMissing = true)
+    public StartupDeployer startupDeployer(RepositoryService repositoryService, ManagementService managementService,
+                                           WorkflowProperties workflowProperties, MeterRegistry meterRegistry) {
+        return new StartupDeployer(repositoryService, managementService, workflowProperties.getDeployer(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.definition-cache", name = "enabled", matchIfMissing = true)
+    public DefinitionCachePlugin definitionCachePlugin(WorkflowProperties workflowProperties, MeterRegistry meterRegistry) {
+        return new DefinitionCachePlugin(workflowProperties.getDefinitionCache(), meterRegistry);
+    }
+
+    /**
+     * 静态方法，使后处理器先于 dataSource 创建；此时 WorkflowProperties 尚未绑定，直接从 Environment 读取配置
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.read-replica", name = "enabled")
+    public static ReplicaDataSourcePostProcessor replicaDataSourcePostProcessor(Environment environment) {
+        return new ReplicaDataSourcePostProcessor(Binder.get(environment)
+                .bindOrCreate("workflow.read-replica", WorkflowProperties.ReadReplica.class));
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "workflow.read-replica", name = "enabled")
+    public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource, WorkflowProperties workflowProperties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor((ReplicaRoutingDataSource) dataSource, workflowProperties.getReadReplica(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.read-replica", name = "enabled")
+    public ProcessEnginePlugin readReplicaPlugin(ReplicaLagMonitor replicaLagMonitor, WorkflowProperties workflowProperties,
+                                                 MeterRegistry meterRegistry) {
+        return new ReadReplicaPlugin(new ReplicaRoutingInterceptor(
+                workflowProperties.getReadReplica().getQueries(), replicaLagMonitor, meterRegistry));
+    }
+
+    @Bean
+    public KeysetQueries keysetQueries() {
+        return new KeysetQueries();
+    }
+
+    @Bean
+    public ProcessEnginePlugin keysetPaginationPlugin(KeysetQueries keysetQueries) {
+        return new KeysetPaginationPlugin(keysetQueries);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.inbox", name = "projection", matchIfMissing = true)
+    public InboxProjectionPlugin inboxProjectionPlugin(WorkflowProperties workflowProperties, MeterRegistry meterRegistry) {
+        return new InboxProjectionPlugin(workflowProperties.getInbox(), meterRegistry);
+    }
+
+    /**
+     * 依赖引擎，引擎构建完成后从数据库加载投影
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "workflow.inbox", name = "projection", matchIfMissing = true)
+    public InboxProjection inboxProjection(InboxProjectionPlugin inboxProjectionPlugin, ProcessEngine processEngine) {
+        return inboxProjectionPlugin.getProjection();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "workflow.notifications", name = "enabled", matchIfMissing = true)
+    public TaskNotificationBroadcaster taskNotificationBroadcaster(WorkflowProperties workflowProperties,
+                                                                  MeterRegistry meterRegistry) {
+        return new TaskNotificationBroadcaster(workflowProperties.getNotifications(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.notifications", name = "enabled", matchIfMissing = true)
+    public ProcessEnginePlugin taskNotificationPlugin(TaskNotificationBroadcaster taskNotificationBroadcaster) {
+        return new TaskNotificationPlugin(taskNotificationBroadcaster);
+    }
+
+    @Bean
+    public TaskClaimer taskClaimer(WorkflowProperties workflowProperties, MeterRegistry meterRegistry) {
+        return new TaskClaimer(workflowProperties.getClaim(), meterRegistry);
+    }
+
+    @Bean
+    public ProcessEnginePlugin taskClaimPlugin(TaskClaimer taskClaimer) {
+        return new TaskClaimPlugin(taskClaimer);
+    }
+
+    @Bean
+    public FirstRequestFilter firstRequestFilter(MeterRegistry meterRegistry) {
+        return new FirstRequestFilter(meterRegistry);
+    }
+
+    /**
+     * 覆盖 starter 的默认 jobExecutor Bean，使其启动监听器和健康检查指向插件设置的执行器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "workflow.job-executor", name = "virtual-threads", matchIfMissing = true)
+    public JobExecutor virtualThreadJobExecutor(VirtualThreadJobExecutorPlugin virtualThreadJobExecutorPlugin) {
+        return virtualThreadJobExecutorPlugin.getJobExecutor();
+    }
+
 }
\ No newline at end of file
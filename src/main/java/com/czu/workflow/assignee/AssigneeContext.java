@@ -0,0 +1,15 @@
+package com.czu.workflow.assignee;
+
+import org.camunda.bpm.engine.delegate.DelegateTask;
+
+/**
+ * 解析处理人时可用的上下文
+ *
+ * @param task 正在创建的任务；可缓存的解析器不应依赖其中的变量
+ */
+public record AssigneeContext(String processDefinitionId,
+                              String processDefinitionKey,
+                              String activityId,
+                              String tenantId,
+                              DelegateTask task) {
+}
@@ -0,0 +1,12 @@
+package com.czu.workflow.assignee;
+
+import lombok.Data;
+
+/**
+ * mapping/assignment.xml 中 selectOpenTaskCounts 的一行：处理人及其未完成任务数
+ */
+@Data
+public class AssigneeCount {
+    private String assignee;
+    private int openTasks;
+}
@@ -0,0 +1,22 @@
+package com.czu.workflow.assignee;
+
+/**
+ * 任务处理人解析 SPI。以 Bean 名称注册，用户任务的 camunda:assignee 写作 {@code ${beanName.resolve()}}
+ * 或 {@code ${beanName.getAssignee()}} 时，
+ * 部署解析阶段会改为在任务创建时直接调用 {@link #resolve}，不再经过 JUEL 表达式和 Bean 查找
+ */
+public interface AssigneeResolver {
+
+    /**
+     * @return 处理人ID，返回 null 时任务不设置处理人
+     */
+    String resolve(AssigneeContext context);
+
+    /**
+     * 结果只取决于流程定义和节点时可以缓存，缓存时间见 workflow.assignee-resolver.ttl；
+     * 依赖流程变量或实时负载的解析器返回 false
+     */
+    default boolean cacheable() {
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.czu.workflow.assignee;
+
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.delegate.Expression;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.bpmn.behavior.UserTaskActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.task.TaskDefinition;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 把 {@code camunda:assignee="${beanName.resolve()}"} 或 {@code ${beanName.getAssignee()}} 中指向 {@link AssigneeResolver}
+ * 的表达式替换为直接调用 {@link AssigneeResolver#resolve}；其他方法和表达式保持原样，仍由 JUEL 求值
+ */
+@Slf4j
+public class AssigneeResolverParseListener extends AbstractBpmnParseListener {
+    private static final Pattern RESOLVER_CALL = Pattern.compile("^\\$\\{\\s*(\\w+)\\.(getAssignee|resolve)\\(\\s*\\)\\s*}$");
+
+    private final AssigneeResolvers resolvers;
+
+    public AssigneeResolverParseListener(AssigneeResolvers resolvers) {
+        this.resolvers = resolvers;
+    }
+
+    @Override
+    public void parseUserTask(Element userTaskElement, ScopeImpl scope, ActivityImpl activity) {
+        if (!(activity.getActivityBehavior() instanceof UserTaskActivityBehavior behavior)) {
+            return;
+        }
+        TaskDefinition taskDefinition = behavior.getTaskDefinition();
+        Expression assigneeExpression = taskDefinition.getAssigneeExpression();
+        if (assigneeExpression == null) {
+            return;
+        }
+        Matcher matcher = RESOLVER_CALL.matcher(assigneeExpression.getExpressionText().trim());
+        if (!matcher.matches()) {
+            return;
+        }
+        AssigneeResolver resolver = resolvers.get(matcher.group(1));
+        if (resolver == null) {
+            return;
+        }
+        String processDefinitionKey = ((ProcessDefinitionEntity) activity.getProcessDefinition()).getKey();
+        taskDefinition.setAssigneeExpression(null);
+        taskDefinition.addBuiltInTaskListener(TaskListener.EVENTNAME_CREATE,
+                new ResolveAssigneeListener(resolvers, resolver, processDefinitionKey, activity.getId()));
+        log.debug("节点 {}:{} 的处理人改由 {} 直接解析", processDefinitionKey, activity.getId(), matcher.group(1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.czu.workflow.assignee;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.Map;
+
+/**
+ * 按 Bean 名称注册的解析器，以及按 流程定义 + 节点 缓存的解析结果
+ */
+public class AssigneeResolvers {
+    private final Map<String, AssigneeResolver> resolvers;
+    private final Cache<Key, Result> results;
+
+    public AssigneeResolvers(Map<String, AssigneeResolver> resolvers, WorkflowProperties.AssigneeResolver properties) {
+        this.resolvers = Map.copyOf(resolvers);
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public AssigneeResolver get(String name) {
+        return resolvers.get(name);
+    }
+
+    String resolve(AssigneeResolver resolver, AssigneeContext context) {
+        if (!resolver.cacheable()) {
+            return resolver.resolve(context);
+        }
+        // 解析器可能返回 null，包一层以便缓存空结果
+        return results.get(new Key(context.processDefinitionId(), context.activityId()),
+                key -> new Result(resolver.resolve(context))).assignee();
+    }
+
+    /**
+     * 处理人配置变更后清空缓存
+     */
+    public void invalidateAll() {
+        results.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return results.stats();
+    }
+
+    private record Key(String processDefinitionId, String activityId) {
+    }
+
+    private record Result(String assignee) {
+    }
+}
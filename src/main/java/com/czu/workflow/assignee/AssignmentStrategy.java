@@ -0,0 +1,16 @@
+package com.czu.workflow.assignee;
+
+import java.util.List;
+
+/**
+ * 在候选组成员中选择处理人的策略，由 {@link LoadBalancedAssigneeResolver} 按分组调用，可能被多个线程同时调用
+ */
+public interface AssignmentStrategy {
+
+    /**
+     * @param members 分组成员，按用户ID排序，非空
+     * @param counter 成员当前的未完成任务数
+     * @return 选中的成员，返回 null 时尝试下一个候选组
+     */
+    String choose(String groupId, List<String> members, OpenTaskCounter counter);
+}
@@ -0,0 +1,45 @@
+package com.czu.workflow.assignee;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 选分配后 (未完成任务数 + 1) / 权重 最小的成员。权重都为 1 时即未完成任务最少的成员（least-open），
+ * 按分组配置权重时工作量与权重成正比（weighted）；权重为 0 的成员不分配。
+ * 负载相同的成员之间从轮转的起点开始比较，避免总是选中排在前面的成员
+ */
+public class LeastOpenTasksStrategy implements AssignmentStrategy {
+    private final Map<String, Map<String, Integer>> weights;
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    /**
+     * @param weights 分组ID -> 用户ID -> 权重，未配置的成员为 1
+     */
+    public LeastOpenTasksStrategy(Map<String, Map<String, Integer>> weights) {
+        this.weights = Map.copyOf(weights);
+    }
+
+    @Override
+    public String choose(String groupId, List<String> members, OpenTaskCounter counter) {
+        Map<String, Integer> groupWeights = weights.getOrDefault(groupId, Map.of());
+        int start = Math.floorMod(cursors.computeIfAbsent(groupId, id -> new AtomicInteger()).getAndIncrement(),
+                members.size());
+        String chosen = null;
+        double lowest = Double.MAX_VALUE;
+        for (int i = 0; i < members.size(); i++) {
+            String member = members.get((start + i) % members.size());
+            int weight = groupWeights.getOrDefault(member, 1);
+            if (weight <= 0) {
+                continue;
+            }
+            double load = (counter.get(member) + 1) / (double) weight;
+            if (load < lowest) {
+                lowest = load;
+                chosen = member;
+            }
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,129 @@
+package com.czu.workflow.assignee;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.identity.User;
+import org.camunda.bpm.engine.task.IdentityLink;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 按负载分配处理人。用户任务写作 {@code camunda:assignee="${loadBalancedAssignee.resolve()}"} 并配置候选组时，
+ * 任务创建时在第一个（按分组ID排序）有成员的候选组中按该组的策略选出处理人，策略见 workflow.assignment：
+ * <ul>
+ *     <li>round-robin：按成员顺序轮流分配</li>
+ *     <li>least-open：分给未完成任务最少的成员</li>
+ *     <li>weighted：按 groups.&lt;分组&gt;.weights 的权重比例分配未完成任务</li>
+ * </ul>
+ * 负载取自 {@link OpenTaskCounter} 的内存计数，分组成员按 member-ttl 缓存，分配时不查询 ACT_RU_TASK。
+ * 没有候选组或候选组都没有成员时不设置处理人，任务仍可由候选组成员拾取
+ */
+@Slf4j
+public class LoadBalancedAssigneeResolver implements AssigneeResolver {
+    static final String ROUND_ROBIN = "round-robin";
+    static final String LEAST_OPEN = "least-open";
+    static final String WEIGHTED = "weighted";
+
+    private final OpenTaskCounter counter;
+    private final WorkflowProperties.Assignment properties;
+    private final Map<String, AssignmentStrategy> strategies;
+    private final Map<String, Counter> assigned = new HashMap<>();
+    private final Cache<String, List<String>> members;
+
+    public LoadBalancedAssigneeResolver(OpenTaskCounter counter, WorkflowProperties.Assignment properties,
+                                        MeterRegistry meterRegistry) {
+        this.counter = counter;
+        this.properties = properties;
+        Map<String, Map<String, Integer>> weights = new HashMap<>();
+        properties.getGroups().forEach((groupId, group) -> weights.put(groupId, group.getWeights()));
+        this.strategies = Map.of(
+                ROUND_ROBIN, new RoundRobinStrategy(),
+                LEAST_OPEN, new LeastOpenTasksStrategy(Map.of()),
+                WEIGHTED, new LeastOpenTasksStrategy(weights));
+        strategies.keySet().forEach(name -> assigned.put(name, Counter.builder("workflow.assignment.assigned")
+                .description("按负载自动分配的任务数")
+                .tag("strategy", name)
+                .register(meterRegistry)));
+        strategyName(null);
+        properties.getGroups().keySet().forEach(this::strategyName);
+        this.members = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(properties.getMemberTtl())
+                .build();
+    }
+
+    @Override
+    public String resolve(AssigneeContext context) {
+        DelegateTask task = context.task();
+        List<String> groupIds = task.getCandidates().stream()
+                .map(IdentityLink::getGroupId)
+                .filter(Objects::nonNull)
+                .sorted()
+                .distinct()
+                .toList();
+        IdentityService identityService = task.getProcessEngineServices().getIdentityService();
+        for (String groupId : groupIds) {
+            List<String> groupMembers = members.get(groupId, id -> identityService.createUserQuery()
+                    .memberOfGroup(id)
+                    .orderByUserId().asc()
+                    .list().stream()
+                    .map(User::getId)
+                    .toList());
+            if (groupMembers.isEmpty()) {
+                continue;
+            }
+            String strategy = strategyName(groupId);
+            String assignee = strategies.get(strategy).choose(groupId, groupMembers, counter);
+            if (assignee != null) {
+                assigned.get(strategy).increment();
+                log.debug("任务 {} 分配给 '{}': 分组={}, 策略={}, 未完成任务数={}", task.getId(), assignee, groupId,
+                        strategy, counter.get(assignee));
+                return assignee;
+            }
+        }
+        log.debug("任务 {} 的候选组 {} 没有可分配的成员，不设置处理人", task.getId(), groupIds);
+        return null;
+    }
+
+    /**
+     * 未启用 AssigneeResolverPlugin 时表达式由 JUEL 直接调用此方法。此时任务的候选组尚未设置，无法按负载选择，
+     * 不设置处理人，任务仍可由候选组成员拾取
+     */
+    public String resolve() {
+        log.warn("${loadBalancedAssignee.resolve()} 未在部署时绑定到任务，不设置处理人；请启用 AssigneeResolverPlugin");
+        return null;
+    }
+
+    /**
+     * 依赖实时负载，每次都要重新解析
+     */
+    @Override
+    public boolean cacheable() {
+        return false;
+    }
+
+    /**
+     * 分组成员变更后立即生效
+     */
+    public void invalidateMembers() {
+        members.invalidateAll();
+    }
+
+    private String strategyName(String groupId) {
+        WorkflowProperties.Assignment.Group group = groupId == null ? null : properties.getGroups().get(groupId);
+        String name = group != null && group.getStrategy() != null ? group.getStrategy() : properties.getDefaultStrategy();
+        if (!strategies.containsKey(name)) {
+            throw new IllegalArgumentException("workflow.assignment 的策略只能是 round-robin、least-open 或 weighted: " + name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,150 @@
+package com.czu.workflow.assignee;
+
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 每个用户的未完成任务数，供 {@link LoadBalancedAssigneeResolver} 分配时读取，分配时不再统计 ACT_RU_TASK。
+ * 计数为 AtomicInteger，读写都不加锁；由 {@link OpenTaskCounterListener} 在任务事件发生时更新（同一事务中后续的分配立即可见），
+ * 事务回滚时撤销。启动时从数据库加载，之后定期对账，修正不触发任务监听器的变更（独立任务、集群中其他节点的分配）；
+ * 对账读取期间计数有变化的用户留到下次对账
+ */
+@Slf4j
+public class OpenTaskCounter implements AutoCloseable {
+    static final String SELECT_OPEN_TASK_COUNTS = "com.czu.workflow.assignee.selectOpenTaskCounts";
+
+    private final WorkflowProperties.Assignment properties;
+    private final Map<String, AtomicInteger> openTasks = new ConcurrentHashMap<>();
+    private final Counter drift;
+    private volatile CommandExecutor commandExecutor;
+    private ScheduledExecutorService scheduler;
+
+    public OpenTaskCounter(WorkflowProperties.Assignment properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.drift = Counter.builder("workflow.assignment.open-tasks.drift")
+                .description("对账时修正的未完成任务数")
+                .register(meterRegistry);
+        Gauge.builder("workflow.assignment.open-tasks", this, OpenTaskCounter::total)
+                .description("已分配处理人的未完成任务数")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 引擎初始化后由 OpenTaskCounterPlugin 调用
+     */
+    public void bind(CommandExecutor commandExecutor) {
+        this.commandExecutor = commandExecutor;
+    }
+
+    /**
+     * 从数据库加载后开始定期对账
+     */
+    public void start() {
+        reconcile();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("open-task-reconcile").daemon().unstarted(runnable));
+        long interval = properties.getReconcileInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("未完成任务计数已加载: 处理人数={}, 任务数={}, 对账间隔={}", openTasks.size(), total(),
+                properties.getReconcileInterval());
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 用户当前的未完成任务数
+     */
+    public int get(String userId) {
+        AtomicInteger count = openTasks.get(userId);
+        return count == null ? 0 : count.get();
+    }
+
+    public int total() {
+        int total = 0;
+        for (AtomicInteger count : openTasks.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    void add(String userId, int delta) {
+        if (userId != null) {
+            openTasks.computeIfAbsent(userId, id -> new AtomicInteger()).addAndGet(delta);
+        }
+    }
+
+    /**
+     * 按数据库中的统计修正计数
+     *
+     * @return 修正的任务数
+     */
+    public int reconcile() {
+        if (commandExecutor == null) {
+            throw new IllegalStateException("OpenTaskCounterPlugin 未注册到引擎");
+        }
+        Map<String, Integer> before = snapshot();
+        List<AssigneeCount> rows = commandExecutor.execute(commandContext ->
+                commandContext.getDbSqlSession().getSqlSession().selectList(SELECT_OPEN_TASK_COUNTS));
+        Map<String, Integer> after = snapshot();
+        Map<String, Integer> database = new HashMap<>();
+        rows.forEach(row -> database.put(row.getAssignee(), row.getOpenTasks()));
+
+        Set<String> userIds = new HashSet<>(database.keySet());
+        userIds.addAll(after.keySet());
+        int corrected = 0;
+        for (String userId : userIds) {
+            int current = after.getOrDefault(userId, 0);
+            if (current != before.getOrDefault(userId, 0)) {
+                continue;
+            }
+            int expected = database.getOrDefault(userId, 0);
+            if (current != expected) {
+                // 只在计数仍为读取时的值时修正，期间被事件改过的留到下次对账
+                AtomicInteger count = openTasks.computeIfAbsent(userId, id -> new AtomicInteger());
+                if (count.compareAndSet(current, expected)) {
+                    corrected += Math.abs(expected - current);
+                }
+            }
+        }
+        if (corrected > 0 && scheduler != null) {
+            log.warn("未完成任务计数与数据库不一致，已修正 {} 个任务", corrected);
+        }
+        drift.increment(scheduler != null ? corrected : 0);
+        return corrected;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("未完成任务计数对账失败", e);
+        }
+    }
+
+    private Map<String, Integer> snapshot() {
+        Map<String, Integer> snapshot = new HashMap<>();
+        openTasks.forEach((userId, count) -> snapshot.put(userId, count.get()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,53 @@
+package com.czu.workflow.assignee;
+
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyChange;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+
+import java.util.List;
+
+/**
+ * 引擎级任务监听器，由 OpenTaskCounterPlugin 挂到每个用户任务上，更新 {@link OpenTaskCounter}。
+ * assignment：原处理人 -1、新处理人 +1（带处理人创建的任务在 create 之后也会触发 assignment）；complete / delete：处理人 -1。
+ * 事件发生时立即生效，使同一事务中随后创建的任务（如多实例）按更新后的负载分配；事务回滚时撤销
+ */
+public class OpenTaskCounterListener implements TaskListener {
+    public static final List<String> EVENTS = List.of(EVENTNAME_ASSIGNMENT, EVENTNAME_COMPLETE, EVENTNAME_DELETE);
+
+    private final OpenTaskCounter counter;
+
+    public OpenTaskCounterListener(OpenTaskCounter counter) {
+        this.counter = counter;
+    }
+
+    @Override
+    public void notify(DelegateTask delegateTask) {
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null || !(delegateTask instanceof TaskEntity task)) {
+            return;
+        }
+        String removed;
+        String added;
+        if (EVENTNAME_ASSIGNMENT.equals(delegateTask.getEventName())) {
+            PropertyChange change = task.getPropertyChanges().get(TaskEntity.ASSIGNEE);
+            removed = change == null ? null : (String) change.getOrgValue();
+            added = task.getAssignee();
+        } else {
+            removed = task.getAssignee();
+            added = null;
+        }
+        if (removed == null && added == null || removed != null && removed.equals(added)) {
+            return;
+        }
+        counter.add(removed, -1);
+        counter.add(added, 1);
+        commandContext.getTransactionContext().addTransactionListener(TransactionState.ROLLED_BACK, context -> {
+            counter.add(removed, 1);
+            counter.add(added, -1);
+        });
+    }
+}
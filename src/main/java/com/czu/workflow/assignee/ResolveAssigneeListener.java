@@ -0,0 +1,32 @@
+package com.czu.workflow.assignee;
+
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.TaskListener;
+
+/**
+ * 作为内置 create 监听器注册，先于 BPMN 中声明的监听器执行，与原先由 assignee 表达式设置处理人的时机一致
+ */
+public class ResolveAssigneeListener implements TaskListener {
+    private final AssigneeResolvers resolvers;
+    private final AssigneeResolver resolver;
+    private final String processDefinitionKey;
+    private final String activityId;
+
+    public ResolveAssigneeListener(AssigneeResolvers resolvers, AssigneeResolver resolver,
+                                   String processDefinitionKey, String activityId) {
+        this.resolvers = resolvers;
+        this.resolver = resolver;
+        this.processDefinitionKey = processDefinitionKey;
+        this.activityId = activityId;
+    }
+
+    @Override
+    public void notify(DelegateTask delegateTask) {
+        AssigneeContext context = new AssigneeContext(delegateTask.getProcessDefinitionId(), processDefinitionKey,
+                activityId, delegateTask.getTenantId(), delegateTask);
+        String assignee = resolvers.resolve(resolver, context);
+        if (assignee != null) {
+            delegateTask.setAssignee(assignee);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.czu.workflow.assignee;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按成员顺序轮流分配，不考虑负载；每个分组一个游标
+ */
+public class RoundRobinStrategy implements AssignmentStrategy {
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    @Override
+    public String choose(String groupId, List<String> members, OpenTaskCounter counter) {
+        int next = cursors.computeIfAbsent(groupId, id -> new AtomicInteger()).getAndIncrement();
+        return members.get(Math.floorMod(next, members.size()));
+    }
+}
@@ -0,0 +1,236 @@
+package com.czu.workflow.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.repository.ResourceDefinitionEntity;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.instance.FlowElement;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 引擎部署缓存（流程定义、BPMN 模型等）的 Caffeine 实现，按 W-TinyLFU 淘汰，可按条数或按权重（流程元素数）限制容量。
+ * 固定 Key 的定义只有最新版本（按 Key 和租户）放在不淘汰的独立 Map 中，不占用容量；被新版本取代的旧版本移回有界缓存。
+ * 模型实例的缓存值不带租户，同一 Key 的各租户共用一个固定位置。
+ * 固定的和刚按需加载的定义命中时同样计入 Caffeine 统计（cache.gets）。
+ * 引擎的用法是 get 未命中后自行加载再 put，加载耗时按同一 ID 的 get 未命中到 put 之间的时间统计。
+ * 引擎加载时会重新放入整个部署的定义后再 get，容量小于部署中的定义数或单个定义超过权重上限时，刚放入的定义可能已被淘汰，
+ * 因此按需加载的定义另外保留一小段时间，保证这次读取能命中
+ */
+public class DefinitionCache<T> implements org.camunda.commons.utils.cache.Cache<String, T> {
+    private final Cache<String, T> cache;
+    private final Set<String> pinnedKeys;
+    private final Map<String, T> pinned = new ConcurrentHashMap<>();
+    /**
+     * Key + 租户 -> 固定的最新版本
+     */
+    private final Map<String, PinnedVersion> pinnedVersions = new ConcurrentHashMap<>();
+    private final StatsCounter stats = new ConcurrentStatsCounter();
+    /**
+     * 定义 ID -> get 未命中的时间，未加载成功的条目过期丢弃
+     */
+    private final Cache<String, Long> pendingLoads = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+    /**
+     * 刚按需加载的定义
+     */
+    private final Cache<String, T> loaded = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .build();
+    private volatile Timer loadTimer;
+
+    DefinitionCache(long maximumSize, long maximumWeight, Set<String> pinnedKeys) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats(() -> stats);
+        this.cache = maximumWeight > 0
+                ? builder.maximumWeight(maximumWeight).weigher((String id, T value) -> weigh(value)).build()
+                : builder.maximumSize(maximumSize).build();
+        this.pinnedKeys = pinnedKeys;
+    }
+
+    /**
+     * 引擎初始化完成、确定缓存用途后绑定指标：cache.gets / cache.evictions 等（Caffeine 统计）、
+     * workflow.definition.cache.load 加载耗时、workflow.definition.cache.pinned 固定条数
+     */
+    public void bindMetrics(MeterRegistry registry, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        loadTimer = Timer.builder("workflow.definition.cache.load").tag("cache", name).register(registry);
+        Gauge.builder("workflow.definition.cache.pinned", pinned, Map::size)
+                .tag("cache", name)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * 固定的和刚加载的定义先于有界缓存查找并手动记为命中，有界缓存的查找由 Caffeine 记录命中或未命中
+     */
+    @Override
+    public T get(String id) {
+        T value = pinned.get(id);
+        if (value == null) {
+            value = loaded.getIfPresent(id);
+        }
+        if (value != null) {
+            stats.recordHits(1);
+            return value;
+        }
+        value = cache.getIfPresent(id);
+        if (value == null) {
+            pendingLoads.put(id, System.nanoTime());
+        }
+        return value;
+    }
+
+    @Override
+    public void put(String id, T value) {
+        if (pinnedKeys.contains(key(id, value))) {
+            pin(id, value);
+        } else {
+            cache.put(id, value);
+        }
+        Long start = pendingLoads.asMap().remove(id);
+        if (start == null) {
+            return;
+        }
+        loaded.put(id, value);
+        Timer timer = loadTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 只固定同一 Key 和租户的最新版本，被取代的版本移回有界缓存；旧版本后放入时直接进入有界缓存
+     */
+    private synchronized void pin(String id, T value) {
+        String slot = key(id, value) + "/" + tenant(value);
+        int version = version(id, value);
+        PinnedVersion current = pinnedVersions.get(slot);
+        if (current != null && !current.id().equals(id)) {
+            if (current.version() > version) {
+                cache.put(id, value);
+                return;
+            }
+            T superseded = pinned.remove(current.id());
+            if (superseded != null) {
+                cache.put(current.id(), superseded);
+            }
+        }
+        pinned.put(id, value);
+        pinnedVersions.put(slot, new PinnedVersion(id, version));
+    }
+
+    @Override
+    public synchronized void clear() {
+        pinned.clear();
+        pinnedVersions.clear();
+        cache.invalidateAll();
+        loaded.invalidateAll();
+    }
+
+    @Override
+    public synchronized void remove(String id) {
+        if (pinned.remove(id) != null) {
+            pinnedVersions.values().removeIf(pinnedVersion -> pinnedVersion.id().equals(id));
+        }
+        cache.invalidate(id);
+        loaded.invalidate(id);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        Set<String> keys = new HashSet<>(pinned.keySet());
+        keys.addAll(cache.asMap().keySet());
+        return keys;
+    }
+
+    @Override
+    public int size() {
+        return pinned.size() + (int) cache.estimatedSize();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    Cache<String, T> getCache() {
+        return cache;
+    }
+
+    int pinnedSize() {
+        return pinned.size();
+    }
+
+    boolean isPinned(String id) {
+        return pinned.containsKey(id);
+    }
+
+    /**
+     * 定义实体直接取 Key；模型实例的缓存键为定义 ID，形如 key:version:uuid
+     */
+    private static String key(String id, Object value) {
+        if (value instanceof ResourceDefinitionEntity<?> definition) {
+            return definition.getKey();
+        }
+        int separator = id.indexOf(':');
+        return separator > 0 ? id.substring(0, separator) : id;
+    }
+
+    private static String tenant(Object value) {
+        return value instanceof ResourceDefinitionEntity<?> definition ? definition.getTenantId() : null;
+    }
+
+    /**
+     * 定义实体直接取版本；模型实例从定义 ID 的第二段解析，无法解析时为 0
+     */
+    private static int version(String id, Object value) {
+        if (value instanceof ResourceDefinitionEntity<?> definition) {
+            return definition.getVersion();
+        }
+        String[] parts = id.split(":");
+        try {
+            return parts.length > 2 ? Integer.parseInt(parts[1]) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 按流程元素数估算占用，其他类型计 1
+     */
+    private static int weigh(Object value) {
+        if (value instanceof ScopeImpl scope) {
+            return 1 + countActivities(scope);
+        }
+        if (value instanceof BpmnModelInstance model) {
+            return 1 + model.getModelElementsByType(FlowElement.class).size();
+        }
+        return 1;
+    }
+
+    private static int countActivities(ScopeImpl scope) {
+        int count = scope.getActivities().size();
+        for (ScopeImpl activity : scope.getActivities()) {
+            count += countActivities(activity);
+        }
+        return count;
+    }
+
+    private record PinnedVersion(String id, int version) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.czu.workflow.cache;
+
+import com.czu.workflow.config.WorkflowProperties;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
+import org.camunda.commons.utils.cache.Cache;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 为引擎的各部署缓存创建 {@link DefinitionCache}，忽略引擎传入的容量，统一使用 workflow.definition-cache 的配置
+ */
+public class DefinitionCacheFactory implements CacheFactory {
+    private final WorkflowProperties.DefinitionCache properties;
+    private final List<DefinitionCache<?>> caches = new CopyOnWriteArrayList<>();
+
+    public DefinitionCacheFactory(WorkflowProperties.DefinitionCache properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public <T> Cache<String, T> createCache(int maxNumberOfElementsInCache) {
+        DefinitionCache<T> cache = new DefinitionCache<>(properties.getMaximumSize(), properties.getMaximumWeight(),
+                new HashSet<>(properties.getPinnedKeys()));
+        caches.add(cache);
+        return cache;
+    }
+
+    public List<DefinitionCache<?>> getCaches() {
+        return caches;
+    }
+}
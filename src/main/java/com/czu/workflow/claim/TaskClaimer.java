@@ -0,0 +1,210 @@
+package com.czu.workflow.claim;
+
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.TaskAlreadyClaimedException;
+import org.camunda.bpm.engine.exception.NullValueException;
+import org.camunda.bpm.engine.impl.cmd.ClaimTaskCmd;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.task.Task;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 领取下一个任务：选出用户可领取的最早创建的候选任务并拾取，替代"先查列表再 claim"。
+ * 后者在多人同时领取同一分组的任务时都会选中列表中的第一个，除一人外都因乐观锁失败。两种方式：
+ * <ul>
+ *     <li>skip-locked：同一事务中用 select ... for update skip locked 锁定一个任务后拾取，并发的领取各自跳过已被锁定的任务，
+ *     集群多节点之间同样有效，冲突只来自不经过本类、直接修改任务的写入。支持 MySQL 8、PostgreSQL；
+ *     H2 排序查询加 skip locked 时只要有一行被锁定就返回空结果，不能使用</li>
+ *     <li>reservation：读取最早的若干个候选任务（排除本节点已预留的），逐个在本节点的 ConcurrentHashMap（按桶分段加锁）中预留，
+ *     预留成功才拾取，同一节点的并发领取错开到不同任务上；其他节点的拾取仍会冲突，冲突后换下一个</li>
+ * </ul>
+ * 数据库不支持 skip locked 时退回 reservation。选取语句见 mapping/claim.xml
+ */
+@Slf4j
+public class TaskClaimer {
+    public static final String MAPPING_RESOURCE = "mapping/claim.xml";
+    static final String SELECT_CLAIMABLE_TASK_IDS = "com.czu.workflow.claim.selectClaimableTaskIds";
+    static final String SKIP_LOCKED = "skip-locked";
+    static final String RESERVATION = "reservation";
+    private static final Set<String> SKIP_LOCKED_DATABASES = Set.of("mysql", "postgres");
+
+    /**
+     * 一轮选取的结果，empty 表示没有可领取的任务；task 为 null 且不是 empty 表示选中的任务都发生了冲突
+     */
+    private record Attempt(Task task, boolean empty) {
+        static final Attempt EMPTY = new Attempt(null, true);
+        static final Attempt CONTENDED = new Attempt(null, false);
+
+        static Attempt claimed(Task task) {
+            return new Attempt(task, false);
+        }
+    }
+
+    private final WorkflowProperties.Claim properties;
+    private final MeterRegistry meterRegistry;
+    /**
+     * reservation 方式下本节点正在拾取的任务ID
+     */
+    private final Set<String> reserved = ConcurrentHashMap.newKeySet();
+    private final Map<String, Counter> conflicts = new ConcurrentHashMap<>();
+    private volatile CommandExecutor commandExecutor;
+    private volatile String strategy;
+
+    public TaskClaimer(WorkflowProperties.Claim properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("workflow.claim.reservations", reserved, Set::size)
+                .description("reservation 方式下正在拾取的任务数")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 引擎初始化后由 TaskClaimPlugin 调用，按数据库类型确定实际使用的方式
+     */
+    public void bind(CommandExecutor commandExecutor, String databaseType) {
+        this.commandExecutor = commandExecutor;
+        if (SKIP_LOCKED.equals(properties.getStrategy()) && !SKIP_LOCKED_DATABASES.contains(databaseType)) {
+            log.warn("数据库 {} 不支持 for update skip locked，领取任务改用 reservation 方式", databaseType);
+            strategy = RESERVATION;
+        } else if (SKIP_LOCKED.equals(properties.getStrategy()) || RESERVATION.equals(properties.getStrategy())) {
+            strategy = properties.getStrategy();
+        } else {
+            throw new IllegalArgumentException("workflow.claim.strategy 只能是 skip-locked 或 reservation: "
+                    + properties.getStrategy());
+        }
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * 拾取最早创建的、用户作为候选人或所在分组为候选组的未分配任务。
+     * tenantIds 非空时只领取这些租户的任务，否则只领取无租户的任务
+     *
+     * @return 已拾取的任务；没有可领取的任务，或重试 maxAttempts 轮后仍然冲突时返回 null
+     */
+    public Task claimNext(String userId, Collection<String> groupIds, Collection<String> tenantIds) {
+        if (commandExecutor == null) {
+            throw new IllegalStateException("TaskClaimPlugin 未注册到引擎");
+        }
+        long start = System.nanoTime();
+        Task task = null;
+        String outcome = "empty";
+        try {
+            for (int attempt = 0; attempt < properties.getMaxAttempts() && task == null; attempt++) {
+                Attempt result = SKIP_LOCKED.equals(strategy)
+                        ? claimLocked(userId, groupIds, tenantIds)
+                        : claimReserved(userId, groupIds, tenantIds);
+                if (result.empty()) {
+                    break;
+                }
+                task = result.task();
+                outcome = task != null ? "claimed" : "contended";
+            }
+        } finally {
+            Timer.builder("workflow.claim.next")
+                    .description("领取下一个任务的耗时，outcome: claimed / empty（没有可领取的任务）/ contended（重试后仍冲突）")
+                    .tag("strategy", strategy)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        log.debug("用户 '{}' 领取任务: {}, 方式={}", userId, task != null ? task.getId() : outcome, strategy);
+        return task;
+    }
+
+    private Attempt claimLocked(String userId, Collection<String> groupIds, Collection<String> tenantIds) {
+        try {
+            return commandExecutor.execute(commandContext -> {
+                List<String> taskIds = selectClaimable(commandContext, userId, groupIds, tenantIds,
+                        List.of(), 1, true);
+                return taskIds.isEmpty() ? Attempt.EMPTY : Attempt.claimed(claim(commandContext, taskIds.get(0), userId));
+            });
+        } catch (OptimisticLockingException | TaskAlreadyClaimedException e) {
+            conflict(e);
+            return Attempt.CONTENDED;
+        }
+    }
+
+    private Attempt claimReserved(String userId, Collection<String> groupIds, Collection<String> tenantIds) {
+        List<String> excludedIds = List.copyOf(reserved);
+        List<String> taskIds = commandExecutor.execute(commandContext -> selectClaimable(commandContext, userId, groupIds,
+                tenantIds, excludedIds, properties.getCandidates(), false));
+        if (taskIds.isEmpty()) {
+            return Attempt.EMPTY;
+        }
+        for (String taskId : taskIds) {
+            if (!reserved.add(taskId)) {
+                conflict("reserved");
+                continue;
+            }
+            try {
+                return Attempt.claimed(commandExecutor.execute(commandContext -> claim(commandContext, taskId, userId)));
+            } catch (OptimisticLockingException | TaskAlreadyClaimedException | NullValueException e) {
+                // NullValueException：读取候选之后任务已被其他节点完成或删除
+                conflict(e);
+            } finally {
+                reserved.remove(taskId);
+            }
+        }
+        return Attempt.CONTENDED;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> selectClaimable(CommandContext commandContext, String userId, Collection<String> groupIds,
+                                                Collection<String> tenantIds, Collection<String> excludedIds,
+                                                int limit, boolean skipLocked) {
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("userId", userId);
+        parameter.put("groupIds", groupIds);
+        parameter.put("tenantIds", tenantIds);
+        parameter.put("excludedIds", excludedIds);
+        parameter.put("skipLocked", skipLocked);
+        return (List<String>) commandContext.getDbEntityManager()
+                .selectList(SELECT_CLAIMABLE_TASK_IDS, new ListQueryParameterObject(parameter, 0, limit));
+    }
+
+    /**
+     * 与 TaskService.claim 相同的校验和事件（任务监听器、待办投影、推送），任务已被他人拾取时抛出 TaskAlreadyClaimedException
+     */
+    private static Task claim(CommandContext commandContext, String taskId, String userId) {
+        new ClaimTaskCmd(taskId, userId).execute(commandContext);
+        return commandContext.getTaskManager().findTaskById(taskId);
+    }
+
+    private void conflict(RuntimeException e) {
+        if (e instanceof TaskAlreadyClaimedException) {
+            conflict("claimed");
+        } else if (e instanceof NullValueException) {
+            conflict("deleted");
+        } else {
+            conflict("optimistic-lock");
+        }
+    }
+
+    private void conflict(String reason) {
+        conflicts.computeIfAbsent(reason, key -> Counter.builder("workflow.claim.conflicts")
+                        .description("领取时因并发放弃的候选任务数，reason: reserved（本节点已预留）/ claimed / deleted / optimistic-lock")
+                        .tag("strategy", strategy)
+                        .tag("reason", key)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
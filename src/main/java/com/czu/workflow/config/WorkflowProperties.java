@@ -0,0 +1,399 @@
+package com.czu.workflow.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 项目自定义配置，对应 application.yaml 中的 workflow.*
+ */
+@Data
+@ConfigurationProperties(prefix = "workflow")
+public class WorkflowProperties {
+
+    private IdentityCache identityCache = new IdentityCache();
+
+    private TenantScope tenantScope = new TenantScope();
+
+    private Bulk bulk = new Bulk();
+
+    private JobExecutor jobExecutor = new JobExecutor();
+
+    private SqlProfiler sqlProfiler = new SqlProfiler();
+
+    private AssigneeResolver assigneeResolver = new AssigneeResolver();
+
+    private History history = new History();
+
+    private HistoryPartition historyPartition = new HistoryPartition();
+
+    private Deployer deployer = new Deployer();
+
+    private DefinitionCache definitionCache = new DefinitionCache();
+
+    private ReadReplica readReplica = new ReadReplica();
+
+    private Inbox inbox = new Inbox();
+
+    private Notifications notifications = new Notifications();
+
+    private Claim claim = new Claim();
+
+    private Assignment assignment = new Assignment();
+
+    /**
+     * 用户 -> 分组 / 租户 成员关系缓存
+     */
+    @Data
+    public static class IdentityCache {
+        /**
+         * 每类缓存最多保存的用户数
+         */
+        private long maximumSize = 10_000;
+        /**
+         * 写入后过期时间
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    /**
+     * 按当前登录用户自动限定租户范围
+     */
+    @Data
+    public static class TenantScope {
+        private boolean enabled = true;
+        /**
+         * 以请求头中的用户ID作为当前用户；请求头可被客户端伪造，默认关闭
+         */
+        private boolean headerAuthentication = false;
+        /**
+         * 携带当前用户ID的请求头
+         */
+        private String userHeader = "X-User-Id";
+    }
+
+    /**
+     * 批量操作
+     */
+    @Data
+    public static class Bulk {
+        /**
+         * 每个事务处理的条数
+         */
+        private int chunkSize = 50;
+        /**
+         * 单次请求允许的最大条数
+         */
+        private int maxItems = 5_000;
+    }
+
+    /**
+     * 虚拟线程作业执行器
+     */
+    @Data
+    public static class JobExecutor {
+        /**
+         * 关闭后使用 starter 默认的线程池执行器
+         */
+        private boolean virtualThreads = true;
+        /**
+         * 同时执行的作业批次上限，不超过连接池大小减去预留连接
+         */
+        private int maxConcurrentJobs = 20;
+        /**
+         * 单个流程定义同时执行的作业批次上限
+         */
+        private int maxJobsPerDefinition = 10;
+        /**
+         * 每次获取作业数的上限，实际数量随空闲并发收缩
+         */
+        private int maxJobsPerAcquisition = 20;
+    }
+
+    /**
+     * 按命令 / 请求采样的 SQL 分析
+     */
+    @Data
+    public static class SqlProfiler {
+        private boolean enabled = true;
+        /**
+         * 采样率，0~1
+         */
+        private double sampleRate = 0.01;
+        /**
+         * 同一单元内同一查询执行达到此次数即视为循环查询
+         */
+        private int repeatThreshold = 3;
+        /**
+         * 报告中的单元数
+         */
+        private int topN = 20;
+        /**
+         * 统计的不同单元数上限，超出后计入 other
+         */
+        private int maxUnits = 500;
+    }
+
+    /**
+     * 处理人解析结果缓存
+     */
+    @Data
+    public static class AssigneeResolver {
+        /**
+         * 缓存的 流程定义 + 节点 数量上限
+         */
+        private long maximumSize = 10_000;
+        /**
+         * 写入后过期时间
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    /**
+     * 历史事件写入
+     */
+    @Data
+    public static class History {
+        /**
+         * 运行时事务提交后由后台线程写入历史；关闭时与运行时数据在同一事务中批量写入
+         */
+        private boolean async = false;
+        /**
+         * 异步模式的落盘目录，未写入的批次在重启后重放
+         */
+        private String spillDirectory = "./history-spill";
+        /**
+         * 落盘日志单个段的大小
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        /**
+         * 单个写入事务合并的事件数上限
+         */
+        private int maxBatchEvents = 1_000;
+        /**
+         * 内存中待写批次上限，超出时运行时事务提交等待入队
+         */
+        private int maxPendingBatches = 10_000;
+        /**
+         * 待写批次达到上限时提交等待入队的时间，超时运行时事务提交失败
+         */
+        private Duration enqueueTimeout = Duration.ofSeconds(5);
+        /**
+         * 等待运行时事务结果的超时时间，超时后按提交标记判断：标记可见按已提交处理，不可见则继续等待
+         */
+        private Duration resolveTimeout = Duration.ofMinutes(1);
+        /**
+         * 停机时等待写完的时间
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+        /**
+         * 变量历史的存储：database 写入 ACT_HI_DETAIL / ACT_HI_VARINST；mapped 追加到本地内存映射文件，
+         * 通过 MappedHistoryStore 查询，引擎的历史查询不再返回流程实例变量
+         */
+        private String variableStore = "database";
+        /**
+         * mapped 存储的目录
+         */
+        private String variableStoreDirectory = "./history-store";
+        /**
+         * mapped 存储单个段的大小，单条记录超过此大小时仍写入数据库
+         */
+        private DataSize variableStoreSegmentSize = DataSize.ofMegabytes(256);
+        /**
+         * mapped 存储中记录的保留期限，段内记录全部超过期限后整段删除
+         */
+        private Duration variableStoreRetention = Duration.ofDays(30);
+    }
+
+    /**
+     * 历史表按删除时间分区，需先执行 db/mysql_history_partition_7.24.0.sql
+     */
+    @Data
+    public static class HistoryPartition {
+        private boolean enabled = false;
+        /**
+         * 已按 REMOVAL_TIME_ 分区的历史表
+         */
+        private List<String> tables = List.of("ACT_HI_ACTINST", "ACT_HI_VARINST", "ACT_HI_DETAIL");
+        /**
+         * 单个分区覆盖的天数
+         */
+        private int intervalDays = 7;
+        /**
+         * 预建分区覆盖到今天之后的天数
+         */
+        private int createAheadDays = 90;
+        /**
+         * 预建和删除分区的执行间隔
+         */
+        private Duration maintenanceInterval = Duration.ofHours(1);
+        /**
+         * 流程定义未设置 historyTimeToLive 时使用的天数，不受 enabled 影响；引擎已配置 history-time-to-live 时不覆盖
+         */
+        private int defaultTimeToLiveDays = 30;
+    }
+
+    /**
+     * 启动时部署流程资源并预热流程定义缓存
+     */
+    @Data
+    public static class Deployer {
+        private boolean enabled = true;
+        /**
+         * 部署的资源
+         */
+        private String resources = "classpath*:static/processResource/flow/*.bpmn";
+        /**
+         * 部署名称，重复过滤按名称比较同名部署中的资源
+         */
+        private String deploymentName = "workflow-flows";
+        /**
+         * 并行预热的线程数，每个线程占用一个连接
+         */
+        private int warmupParallelism = 4;
+    }
+
+    /**
+     * 引擎部署缓存（流程定义、BPMN 模型等），每类缓存各自按以下配置限制容量
+     */
+    @Data
+    public static class DefinitionCache {
+        private boolean enabled = true;
+        /**
+         * 每类缓存的条数上限，maximum-weight 大于 0 时不生效
+         */
+        private long maximumSize = 1_000;
+        /**
+         * 每类缓存的权重上限，流程定义和 BPMN 模型按流程元素数计权，0 表示按条数限制
+         */
+        private long maximumWeight = 0;
+        /**
+         * 常驻缓存、不参与淘汰的流程定义 Key，每个租户只固定最新版本，旧版本进入有界缓存
+         */
+        private List<String> pinnedKeys = List.of();
+    }
+
+    /**
+     * 只读副本：配置的查询命令在副本延迟不超过容忍度时读副本，写入和拾取、完成等命令始终走主库
+     */
+    @Data
+    public static class ReadReplica {
+        private boolean enabled = false;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+        /**
+         * 查询类型 -> 可容忍的副本延迟，类型名取查询实现类名去掉 QueryImpl 后转为短横线形式，未列出的查询走主库
+         */
+        private Map<String, Duration> queries = new LinkedHashMap<>(Map.of(
+                "task", Duration.ofSeconds(5),
+                "historic-detail", Duration.ofMinutes(1),
+                "tenant", Duration.ofMinutes(5)));
+        /**
+         * 心跳写入主库、从副本读回的间隔，也是估算延迟的精度
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(1);
+    }
+
+    /**
+     * 待办箱：由未完成任务的内存投影提供查询，任务事件提交后更新投影
+     */
+    @Data
+    public static class Inbox {
+        /**
+         * 关闭后待办箱每次查询数据库
+         */
+        private boolean projection = true;
+        /**
+         * 投影与数据库对账的间隔
+         */
+        private Duration reconcileInterval = Duration.ofMinutes(5);
+    }
+
+    /**
+     * 任务事件推送（SSE），替代前端轮询待办接口
+     */
+    @Data
+    public static class Notifications {
+        private boolean enabled = true;
+        /**
+         * 同时保持的订阅连接数上限，须小于 server.tomcat.max-connections
+         */
+        private int maxSubscribers = 50_000;
+        /**
+         * 每个订阅待发送事件的队列容量，队列满时断开该订阅
+         */
+        private int queueCapacity = 64;
+        /**
+         * 空闲连接发送心跳的间隔
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+        /**
+         * 单个连接的最长保持时间，到期后由客户端重连
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    /**
+     * 领取下一个任务（POST /inbox/{userId}/claim-next）
+     */
+    @Data
+    public static class Claim {
+        /**
+         * skip-locked：select ... for update skip locked 锁定并拾取，支持 MySQL 8、PostgreSQL，集群内有效；
+         * reservation：本节点内存预留后拾取，其他数据库自动使用该方式
+         */
+        private String strategy = "skip-locked";
+        /**
+         * reservation 方式每轮读取的最早候选任务数，应不小于同一分组的并发领取人数
+         */
+        private int candidates = 20;
+        /**
+         * 冲突后重新选取的轮数
+         */
+        private int maxAttempts = 3;
+    }
+
+    /**
+     * 按负载自动分配处理人：camunda:assignee="${loadBalancedAssignee.resolve()}" 的节点在候选组成员中选择处理人
+     */
+    @Data
+    public static class Assignment {
+        /**
+         * 未单独配置的分组使用的策略：round-robin / least-open / weighted
+         */
+        private String defaultStrategy = "least-open";
+        /**
+         * 分组ID -> 该组的策略和权重
+         */
+        private Map<String, Group> groups = new LinkedHashMap<>();
+        /**
+         * 分组成员缓存时间，成员变更在此时间后生效
+         */
+        private Duration memberTtl = Duration.ofMinutes(5);
+        /**
+         * 用户未完成任务数与数据库对账的间隔
+         */
+        private Duration reconcileInterval = Duration.ofMinutes(5);
+
+        @Data
+        public static class Group {
+            /**
+             * 为空时使用 defaultStrategy
+             */
+            private String strategy;
+            /**
+             * weighted 策略的 用户ID -> 权重，未配置的成员为 1，0 表示不分配
+             */
+            private Map<String, Integer> weights = new LinkedHashMap<>();
+        }
+    }
+}
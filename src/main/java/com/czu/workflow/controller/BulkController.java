@@ -0,0 +1,103 @@
+package com.czu.workflow.controller;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.dto.BulkCompleteRequest;
+import com.czu.workflow.dto.BulkResult;
+import com.czu.workflow.dto.BulkStartRow;
+import com.czu.workflow.service.BulkProcessService;
+import com.czu.workflow.service.BulkTaskService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量操作接口
+ */
+@RestController
+@RequestMapping("/bulk")
+public class BulkController {
+    @Autowired
+    private BulkTaskService bulkTaskService;
+
+    @Autowired
+    private BulkProcessService bulkProcessService;
+
+    @Autowired
+    private WorkflowProperties workflowProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * POST /bulk/tasks/complete
+     * {"chunkSize": 50, "items": [{"taskId": "...", "variables": {"approved": true}}]}
+     */
+    @PostMapping("/tasks/complete")
+    public BulkResult completeTasks(@RequestBody BulkCompleteRequest request) {
+        WorkflowProperties.Bulk properties = workflowProperties.getBulk();
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "items 不能为空");
+        }
+        if (request.getItems().size() > properties.getMaxItems()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "单次最多完成 " + properties.getMaxItems() + " 个任务");
+        }
+        int chunkSize = request.getChunkSize() != null && request.getChunkSize() > 0
+                ? request.getChunkSize()
+                : properties.getChunkSize();
+        return bulkTaskService.completeAll(request.getItems(), chunkSize);
+    }
+
+    /**
+     * POST /bulk/process-instances/{processDefinitionKey}/start
+     * Content-Type: application/x-ndjson，每行一个 {"businessKey": "...", "tenantId": "...", "variables": {...}}
+     * 请求体边读边提交，行数不受 max-items 限制；遇到无法解析的行返回 400，此前已提交的块不会回滚
+     */
+    @PostMapping(value = "/process-instances/{processDefinitionKey}/start", consumes = "application/x-ndjson")
+    public BulkResult startProcessInstances(@PathVariable("processDefinitionKey") String processDefinitionKey,
+                                            @RequestParam(value = "chunkSize", required = false) Integer chunkSize,
+                                            HttpServletRequest request) throws IOException {
+        int size = chunkSize != null && chunkSize > 0 ? chunkSize : workflowProperties.getBulk().getChunkSize();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            return bulkProcessService.startAll(processDefinitionKey, ndjsonRows(reader), size);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 逐行解析 NDJSON，跳过空行
+     */
+    private Iterator<BulkStartRow> ndjsonRows(BufferedReader reader) {
+        AtomicInteger lineNumber = new AtomicInteger();
+        return reader.lines()
+                .peek(line -> lineNumber.incrementAndGet())
+                .filter(line -> !line.isBlank())
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, BulkStartRow.class);
+                    } catch (JsonProcessingException e) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "第 " + lineNumber.get() + " 行不是合法的 JSON: " + e.getOriginalMessage());
+                    }
+                })
+                .iterator();
+    }
+}
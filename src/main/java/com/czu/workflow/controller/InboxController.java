@@ -0,0 +1,52 @@
+package com.czu.workflow.controller;
+
+import com.czu.workflow.dto.InboxPage;
+import com.czu.workflow.dto.InboxTask;
+import com.czu.workflow.service.InboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 用户待办箱接口
+ */
+@RestController
+@RequestMapping("/inbox")
+public class InboxController {
+    private static final int MAX_RESULTS = 500;
+
+    @Autowired
+    private InboxService inboxService;
+
+    /**
+     * GET /inbox/{userId}?firstResult=0&maxResults=20
+     */
+    @GetMapping("/{userId}")
+    public InboxPage getInbox(@PathVariable("userId") String userId,
+                              @RequestParam(value = "firstResult", defaultValue = "0") int firstResult,
+                              @RequestParam(value = "maxResults", defaultValue = "20") int maxResults) {
+        if (firstResult < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "firstResult 不能小于 0");
+        }
+        if (maxResults < 1 || maxResults > MAX_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxResults 取值范围为 1 ~ " + MAX_RESULTS);
+        }
+        return inboxService.getInbox(userId, firstResult, maxResults);
+    }
+
+    /**
+     * POST /inbox/{userId}/claim-next，拾取最早的可领取任务；没有可领取的任务时返回 204
+     */
+    @PostMapping("/{userId}/claim-next")
+    public ResponseEntity<InboxTask> claimNext(@PathVariable("userId") String userId) {
+        InboxTask task = inboxService.claimNext(userId);
+        return task != null ? ResponseEntity.ok(task) : ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.czu.workflow.controller;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.identity.MembershipCache;
+import com.czu.workflow.notification.SseEmitterSink;
+import com.czu.workflow.notification.TaskNotificationBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 任务事件推送接口，前端收到事件后再刷新待办箱，不再定时轮询
+ */
+@RestController
+@RequestMapping("/notifications")
+@ConditionalOnProperty(prefix = "workflow.notifications", name = "enabled", matchIfMissing = true)
+public class NotificationController {
+    @Autowired
+    private TaskNotificationBroadcaster broadcaster;
+
+    @Autowired
+    private MembershipCache membershipCache;
+
+    @Autowired
+    private WorkflowProperties workflowProperties;
+
+    /**
+     * GET /notifications/{userId}，Accept: text/event-stream
+     */
+    @GetMapping(value = "/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable("userId") String userId) {
+        SseEmitter emitter = new SseEmitter(workflowProperties.getNotifications().getTimeout().toMillis());
+        TaskNotificationBroadcaster.Subscription subscription;
+        try {
+            subscription = broadcaster.subscribe(userId, membershipCache.getGroupIds(userId),
+                    membershipCache.getTenantIds(userId), new SseEmitterSink(emitter));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+}
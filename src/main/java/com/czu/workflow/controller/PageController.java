@@ -0,0 +1,76 @@
+package com.czu.workflow.controller;
+
+import com.czu.workflow.dto.HistoricTaskItem;
+import com.czu.workflow.dto.InboxTask;
+import com.czu.workflow.dto.KeysetPage;
+import com.czu.workflow.dto.ProcessInstanceItem;
+import com.czu.workflow.service.PageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.function.Supplier;
+
+/**
+ * 游标分页查询接口：响应中的 next 为下一页的续页令牌，原样作为 next 参数传回，
+ * 翻页深度不影响查询耗时；过滤条件需与取得令牌时一致
+ */
+@RestController
+@RequestMapping("/pages")
+public class PageController {
+    private static final int MAX_LIMIT = 500;
+
+    @Autowired
+    private PageService pageService;
+
+    /**
+     * GET /pages/tasks?assignee=demo&processDefinitionKey=...&limit=20&next=...
+     */
+    @GetMapping("/tasks")
+    public KeysetPage<InboxTask> getTasks(@RequestParam(value = "assignee", required = false) String assignee,
+                                          @RequestParam(value = "processDefinitionKey", required = false) String processDefinitionKey,
+                                          @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                          @RequestParam(value = "next", required = false) String next) {
+        return query(limit, () -> pageService.getTasks(assignee, processDefinitionKey, next, limit));
+    }
+
+    /**
+     * GET /pages/process-instances?processDefinitionKey=...&finished=false&limit=20&next=...
+     */
+    @GetMapping("/process-instances")
+    public KeysetPage<ProcessInstanceItem> getProcessInstances(
+            @RequestParam(value = "processDefinitionKey", required = false) String processDefinitionKey,
+            @RequestParam(value = "finished", required = false) Boolean finished,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "next", required = false) String next) {
+        return query(limit, () -> pageService.getProcessInstances(processDefinitionKey, finished, next, limit));
+    }
+
+    /**
+     * GET /pages/history/tasks?assignee=demo&processDefinitionKey=...&finished=true&limit=20&next=...
+     */
+    @GetMapping("/history/tasks")
+    public KeysetPage<HistoricTaskItem> getHistoricTasks(
+            @RequestParam(value = "assignee", required = false) String assignee,
+            @RequestParam(value = "processDefinitionKey", required = false) String processDefinitionKey,
+            @RequestParam(value = "finished", required = false) Boolean finished,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "next", required = false) String next) {
+        return query(limit, () -> pageService.getHistoricTasks(assignee, processDefinitionKey, finished, next, limit));
+    }
+
+    private static <T> KeysetPage<T> query(int limit, Supplier<KeysetPage<T>> query) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit 取值范围为 1 ~ " + MAX_LIMIT);
+        }
+        try {
+            return query.get();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.czu.workflow.deployment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 记录启动后第一个业务请求的耗时 workflow.startup.first-request，用于观察缓存预热的效果；忽略 /actuator 下的探针请求
+ */
+@Slf4j
+public class FirstRequestFilter extends OncePerRequestFilter {
+    private final Timer timer;
+    private final AtomicBoolean first = new AtomicBoolean(true);
+
+    public FirstRequestFilter(MeterRegistry meterRegistry) {
+        this.timer = Timer.builder("workflow.startup.first-request").register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!first.get() || request.getRequestURI().startsWith("/actuator") || !first.compareAndSet(true, false)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            log.info("启动后首个请求 {} {} 耗时 {} ms", request.getMethod(), request.getRequestURI(), TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.czu.workflow.deployment;
+
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.repository.DeploymentBuilder;
+import org.camunda.bpm.engine.repository.DeploymentWithDefinitions;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 启动时部署 static/processResource/flow 下的流程并预热流程定义缓存：
+ * 资源的 SHA-256 与上次部署时记录在 ACT_GE_PROPERTY 中的值相同则跳过部署，否则按重复过滤部署，只有变化的资源产生新版本；
+ * 随后并行解析每个租户下每个 Key 的最新版本，装入流程定义缓存和 BPMN 模型缓存。
+ * 作为 ApplicationRunner 执行，完成之前应用不会进入 ACCEPTING_TRAFFIC 就绪状态。
+ * 各阶段耗时记为 workflow.startup{phase=deploy|warmup}，启动总耗时见 Spring Boot 的 application.ready.time
+ */
+@Slf4j
+public class StartupDeployer implements ApplicationRunner, Ordered {
+    static final String HASH_PROPERTY_PREFIX = "workflow.deployer.hash.";
+
+    private final RepositoryService repositoryService;
+    private final ManagementService managementService;
+    private final WorkflowProperties.Deployer properties;
+    private final MeterRegistry meterRegistry;
+
+    public StartupDeployer(RepositoryService repositoryService, ManagementService managementService,
+                           WorkflowProperties.Deployer properties, MeterRegistry meterRegistry) {
+        this.repositoryService = repositoryService;
+        this.managementService = managementService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.nanoTime();
+        deploy();
+        long deployed = System.nanoTime();
+        int warmed = warmUp();
+        long warmedUp = System.nanoTime();
+        record("deploy", deployed - start);
+        record("warmup", warmedUp - deployed);
+        log.info("启动部署完成: 部署 {} ms, 预热 {} 个流程定义 {} ms",
+                TimeUnit.NANOSECONDS.toMillis(deployed - start), warmed, TimeUnit.NANOSECONDS.toMillis(warmedUp - deployed));
+    }
+
+    /**
+     * 在其他 ApplicationRunner（如压测）之前执行
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    void deploy() throws IOException {
+        Resource[] resources = Arrays.stream(new PathMatchingResourcePatternResolver().getResources(properties.getResources()))
+                .filter(Resource::exists)
+                .sorted(Comparator.comparing(Resource::getFilename))
+                .toArray(Resource[]::new);
+        if (resources.length == 0) {
+            // 空部署会被引擎拒绝，不应因此阻止启动
+            log.warn("没有匹配 {} 的流程资源，跳过部署", properties.getResources());
+            return;
+        }
+        String hash = hash(resources);
+        String hashProperty = HASH_PROPERTY_PREFIX + properties.getDeploymentName();
+        if (hash.equals(managementService.getProperties().get(hashProperty))) {
+            log.info("流程资源未变化，跳过部署: {} 个资源, hash={}", resources.length, hash);
+            return;
+        }
+        DeploymentBuilder builder = repositoryService.createDeployment()
+                .name(properties.getDeploymentName())
+                .source(StartupDeployer.class.getSimpleName())
+                .enableDuplicateFiltering(true);
+        for (Resource resource : resources) {
+            try (InputStream in = resource.getInputStream()) {
+                builder.addInputStream(resource.getFilename(), in);
+            }
+        }
+        DeploymentWithDefinitions deployment = builder.deployWithResult();
+        managementService.setProperty(hashProperty, hash);
+        List<ProcessDefinition> definitions = deployment.getDeployedProcessDefinitions();
+        log.info("流程资源已部署: {} 个资源, 新版本 {}, hash={}", resources.length,
+                definitions == null ? List.of() : definitions.stream().map(ProcessDefinition::getId).toList(), hash);
+    }
+
+    /**
+     * 单个流程定义解析失败只记录日志，不阻止启动
+     */
+    int warmUp() throws InterruptedException {
+        List<ProcessDefinition> definitions = repositoryService.createProcessDefinitionQuery().latestVersion().list();
+        AtomicInteger warmed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getWarmupParallelism(),
+                Thread.ofPlatform().name("definition-warmup-", 0).factory());
+        try {
+            List<Future<?>> futures = definitions.stream()
+                    .<Future<?>>map(definition -> executor.submit(() -> {
+                        repositoryService.getProcessDefinition(definition.getId());
+                        repositoryService.getBpmnModelInstance(definition.getId());
+                        warmed.incrementAndGet();
+                    }))
+                    .toList();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    log.warn("流程定义预热失败: {}", definitions.get(i).getId(), e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return warmed.get();
+    }
+
+    private void record(String phase, long nanos) {
+        Timer.builder("workflow.startup")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String hash(Resource[] resources) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Resource resource : resources) {
+                digest.update(resource.getFilename().getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = resource.getInputStream()) {
+                    digest.update(in.readAllBytes());
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.czu.workflow.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 批量完成中的单个任务
+ */
+@Data
+public class BulkCompleteItem {
+    private String taskId;
+    /**
+     * 完成任务时提交的流程变量，可为空
+     */
+    private Map<String, Object> variables;
+}
@@ -0,0 +1,17 @@
+package com.czu.workflow.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量完成任务请求
+ */
+@Data
+public class BulkCompleteRequest {
+    private List<BulkCompleteItem> items;
+    /**
+     * 每个事务完成的任务数，为空时使用 workflow.bulk.chunk-size
+     */
+    private Integer chunkSize;
+}
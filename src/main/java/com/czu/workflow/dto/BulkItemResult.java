@@ -0,0 +1,26 @@
+package com.czu.workflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 批量操作中单条记录的结果
+ */
+@Data
+@AllArgsConstructor
+public class BulkItemResult {
+    /**
+     * 任务ID 或 业务Key
+     */
+    private String id;
+    private boolean success;
+    private String error;
+
+    public static BulkItemResult success(String id) {
+        return new BulkItemResult(id, true, null);
+    }
+
+    public static BulkItemResult failure(String id, Exception e) {
+        return new BulkItemResult(id, false, e.getClass().getSimpleName() + ": " + e.getMessage());
+    }
+}
@@ -0,0 +1,49 @@
+package com.czu.workflow.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量操作汇总结果
+ */
+@Data
+public class BulkResult {
+    private int total;
+    private int succeeded;
+    private int failed;
+    /**
+     * 整块提交失败、退回逐条处理的块数
+     */
+    private int chunksRetried;
+    private long elapsedMillis;
+    /**
+     * 每秒处理条数
+     */
+    private double throughputPerSecond;
+    private List<BulkItemResult> items = new ArrayList<>();
+
+    public void add(BulkItemResult item) {
+        total++;
+        if (item.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+        items.add(item);
+    }
+
+    /**
+     * 只计数不保留明细，用于大批量启动时避免结果随条数膨胀（items 中仅保留失败记录）
+     */
+    public void addSucceeded(int count) {
+        total += count;
+        succeeded += count;
+    }
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+        this.throughputPerSecond = elapsedMillis == 0 ? total : total * 1000.0 / elapsedMillis;
+    }
+}
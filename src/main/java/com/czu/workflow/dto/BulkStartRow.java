@@ -0,0 +1,19 @@
+package com.czu.workflow.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 批量启动中的一行：NDJSON 请求体中每行一个
+ * {"businessKey": "BX-2024-0001", "tenantId": "tenant1", "variables": {"amount": 300}}
+ */
+@Data
+public class BulkStartRow {
+    private String businessKey;
+    /**
+     * 为空时使用无租户的流程定义
+     */
+    private String tenantId;
+    private Map<String, Object> variables;
+}
@@ -0,0 +1,38 @@
+package com.czu.workflow.dto;
+
+import lombok.Data;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+
+import java.util.Date;
+
+/**
+ * 历史任务分页中的单条记录
+ */
+@Data
+public class HistoricTaskItem {
+    private String id;
+    private String name;
+    private String taskDefinitionKey;
+    private String assignee;
+    private String processInstanceId;
+    private String processDefinitionKey;
+    private String tenantId;
+    private Date startTime;
+    private Date endTime;
+    private String deleteReason;
+
+    public static HistoricTaskItem of(HistoricTaskInstance task) {
+        HistoricTaskItem item = new HistoricTaskItem();
+        item.setId(task.getId());
+        item.setName(task.getName());
+        item.setTaskDefinitionKey(task.getTaskDefinitionKey());
+        item.setAssignee(task.getAssignee());
+        item.setProcessInstanceId(task.getProcessInstanceId());
+        item.setProcessDefinitionKey(task.getProcessDefinitionKey());
+        item.setTenantId(task.getTenantId());
+        item.setStartTime(task.getStartTime());
+        item.setEndTime(task.getEndTime());
+        item.setDeleteReason(task.getDeleteReason());
+        return item;
+    }
+}
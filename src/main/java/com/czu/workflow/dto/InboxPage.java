@@ -0,0 +1,22 @@
+package com.czu.workflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 待办箱分页结果
+ */
+@Data
+@AllArgsConstructor
+public class InboxPage {
+    private String userId;
+    private int firstResult;
+    private int maxResults;
+    /**
+     * 是否还有下一页（多取一条判断，避免额外的 count 查询）
+     */
+    private boolean hasMore;
+    private List<InboxTask> tasks;
+}
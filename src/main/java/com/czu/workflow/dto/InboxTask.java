@@ -0,0 +1,54 @@
+package com.czu.workflow.dto;
+
+import com.czu.workflow.inbox.InboxEntry;
+import lombok.Data;
+import org.camunda.bpm.engine.task.Task;
+
+import java.util.Date;
+
+/**
+ * 待办箱中的单条任务视图
+ */
+@Data
+public class InboxTask {
+    private String id;
+    private String name;
+    private String taskDefinitionKey;
+    private String assignee;
+    private String processInstanceId;
+    private String processDefinitionId;
+    private String tenantId;
+    private Date createTime;
+    /**
+     * 未分配执行人，可由当前用户拾取
+     */
+    private boolean claimable;
+
+    public static InboxTask of(Task task) {
+        InboxTask inboxTask = new InboxTask();
+        inboxTask.setId(task.getId());
+        inboxTask.setName(task.getName());
+        inboxTask.setTaskDefinitionKey(task.getTaskDefinitionKey());
+        inboxTask.setAssignee(task.getAssignee());
+        inboxTask.setProcessInstanceId(task.getProcessInstanceId());
+        inboxTask.setProcessDefinitionId(task.getProcessDefinitionId());
+        inboxTask.setTenantId(task.getTenantId());
+        inboxTask.setCreateTime(task.getCreateTime());
+        inboxTask.setClaimable(task.getAssignee() == null);
+        return inboxTask;
+    }
+
+    public static InboxTask of(InboxEntry entry) {
+        InboxTask inboxTask = new InboxTask();
+        inboxTask.setId(entry.id());
+        inboxTask.setName(entry.name());
+        inboxTask.setTaskDefinitionKey(entry.taskDefinitionKey());
+        inboxTask.setAssignee(entry.assignee());
+        inboxTask.setProcessInstanceId(entry.processInstanceId());
+        inboxTask.setProcessDefinitionId(entry.processDefinitionId());
+        inboxTask.setTenantId(entry.tenantId());
+        inboxTask.setCreateTime(entry.createTime());
+        inboxTask.setClaimable(entry.assignee() == null);
+        return inboxTask;
+    }
+}
@@ -0,0 +1,20 @@
+package com.czu.workflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private int limit;
+    /**
+     * 下一页的续页令牌，原样作为 next 参数传回；没有下一页时为 null（多取一条判断）
+     */
+    private String next;
+    private List<T> items;
+}
@@ -0,0 +1,36 @@
+package com.czu.workflow.dto;
+
+import lombok.Data;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+
+import java.util.Date;
+
+/**
+ * 流程实例分页中的单条记录
+ */
+@Data
+public class ProcessInstanceItem {
+    private String id;
+    private String businessKey;
+    private String processDefinitionKey;
+    private String processDefinitionId;
+    private String state;
+    private String startUserId;
+    private String tenantId;
+    private Date startTime;
+    private Date endTime;
+
+    public static ProcessInstanceItem of(HistoricProcessInstance processInstance) {
+        ProcessInstanceItem item = new ProcessInstanceItem();
+        item.setId(processInstance.getId());
+        item.setBusinessKey(processInstance.getBusinessKey());
+        item.setProcessDefinitionKey(processInstance.getProcessDefinitionKey());
+        item.setProcessDefinitionId(processInstance.getProcessDefinitionId());
+        item.setState(processInstance.getState());
+        item.setStartUserId(processInstance.getStartUserId());
+        item.setTenantId(processInstance.getTenantId());
+        item.setStartTime(processInstance.getStartTime());
+        item.setEndTime(processInstance.getEndTime());
+        return item;
+    }
+}
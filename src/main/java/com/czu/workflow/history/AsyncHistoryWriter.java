@@ -0,0 +1,417 @@
+package com.czu.workflow.history;
+
+import com.czu.workflow.config.WorkflowProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.TransactionContext;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 运行时事务提交后写入历史。
+ * 运行时事务提交前（COMMITTING）把批次落盘并按此顺序入队，单个写入线程按队列顺序逐批等待事务结果：
+ * 已提交的合并到一个 REQUIRES_NEW 事务中批量写入，已回滚的丢弃。入队顺序与提交的因果顺序一致，
+ * 同一流程实例后一事务的更新事件不会先于前一事务的插入事件写入。
+ * 合并写入失败时逐条写入；全部失败视为数据库不可用，退避后重试。
+ * 队列满时提交等待入队，超过 enqueueTimeout 仍未入队则运行时事务提交失败，不在持有行锁时无限阻塞。
+ * <p>
+ * 每个批次在运行时事务中向 ACT_GE_PROPERTY 插入一行提交标记（history.async.*），写入历史的事务中删除。
+ * 落盘日志中的结果标记不 fsync，重启时结果未知的批次按提交标记判断：标记在，说明运行时事务已提交而历史未写入，重放；
+ * 标记不在，说明事务已回滚（或未到提交），或历史已写入，丢弃。重放的批次不经过内存队列，在新批次之前写完。
+ * 逐条写入时标记在最后单独删除，其间中断会重放已写入的事件，由历史表的唯一键跳过
+ */
+@Slf4j
+public class AsyncHistoryWriter implements AutoCloseable {
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    public static final String MAPPING_RESOURCE = "mapping/history.xml";
+    static final String MARKER_PREFIX = "history.async.";
+    static final String SELECT_MARKERS = "com.czu.workflow.history.selectAsyncHistoryMarkers";
+    static final String DELETE_MARKERS = "com.czu.workflow.history.deleteAsyncHistoryMarkers";
+
+    private final HistorySpillJournal journal;
+    private final HistoryEventHandler delegate;
+    private final HistoryWriteMetrics metrics;
+    private final WorkflowProperties.History properties;
+    private final BlockingQueue<Batch> queue;
+    /**
+     * 上次未写完的批次，由写入线程最先处理
+     */
+    private final Deque<Batch> recovered = new ConcurrentLinkedDeque<>();
+    private final ReentrantLock prepareLock = new ReentrantLock();
+    /**
+     * 等待事务结果超时、提交标记仍不可见的队首批次，只由写入线程访问
+     */
+    private Batch head;
+    private CommandExecutor commandExecutor;
+    private Thread thread;
+    private volatile boolean running;
+
+    public AsyncHistoryWriter(HistoryEventHandler delegate, HistoryWriteMetrics metrics, WorkflowProperties.History properties) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.properties = properties;
+        this.queue = new LinkedBlockingQueue<>(properties.getMaxPendingBatches());
+        this.journal = new HistorySpillJournal(Path.of(properties.getSpillDirectory()), properties.getSegmentSize().toBytes());
+        for (HistorySpillJournal.RecoveredBatch spilled : journal.recover()) {
+            SpilledBatch payload = deserialize(spilled.payload());
+            Batch batch = new Batch(payload.marker(), payload.events(), true);
+            batch.batchId = spilled.batchId();
+            recovered.add(batch);
+        }
+        metrics.bindBacklog(() -> queue.size() + recovered.size());
+    }
+
+    /**
+     * 引擎初始化后绑定写入用的命令执行器
+     */
+    public void bind(CommandExecutor commandExecutorTxRequiresNew) {
+        this.commandExecutor = commandExecutorTxRequiresNew;
+    }
+
+    public void start() {
+        resolveRecovered();
+        running = true;
+        thread = Thread.ofPlatform().name("history-writer").daemon().start(this::run);
+        log.info("异步历史写入已启动: 落盘目录={}, 待写批次={}", properties.getSpillDirectory(), queue.size() + recovered.size());
+    }
+
+    /**
+     * 按提交标记确定上次未写完的批次的结果，丢弃未提交或已写入的批次
+     */
+    private void resolveRecovered() {
+        if (recovered.isEmpty()) {
+            return;
+        }
+        Set<String> markers = new HashSet<>(selectMarkers(MARKER_PREFIX + "%"));
+        int discarded = 0;
+        for (Iterator<Batch> iterator = recovered.iterator(); iterator.hasNext(); ) {
+            Batch batch = iterator.next();
+            if (markers.contains(batch.marker)) {
+                batch.resolve(true);
+            } else {
+                journal.rolledBack(batch.batchId);
+                iterator.remove();
+                discarded++;
+            }
+        }
+        log.warn("历史落盘日志: 重放 {} 批，丢弃未提交或已写入的 {} 批", recovered.size(), discarded);
+    }
+
+    /**
+     * 在运行时事务上注册回调
+     *
+     * @return false 表示事件无法序列化，调用方改为同步写入
+     */
+    boolean submit(CommandContext commandContext, List<HistoryEvent> events) {
+        String marker = MARKER_PREFIX + UUID.randomUUID().toString().replace("-", "");
+        byte[] payload;
+        try {
+            payload = serialize(new SpilledBatch(marker, new ArrayList<>(events)));
+        } catch (NotSerializableException e) {
+            log.warn("历史事件无法序列化，改为同步写入: {}", e.getMessage());
+            return false;
+        }
+        // 缓冲在 DbEntityManager 之前 flush，标记与运行时数据在同一事务中写入
+        commandContext.getDbEntityManager().insert(new PropertyEntity(marker, String.valueOf(System.currentTimeMillis())));
+        Batch batch = new Batch(marker, events, false);
+        TransactionContext transactionContext = commandContext.getTransactionContext();
+        transactionContext.addTransactionListener(TransactionState.COMMITTING, context -> prepare(batch, payload));
+        transactionContext.addTransactionListener(TransactionState.COMMITTED, context -> {
+            batch.resolve(true);
+            journal.committed(batch.batchId);
+        });
+        transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, context -> {
+            // 提交前就失败的事务没有落盘
+            if (batch.batchId > 0) {
+                batch.resolve(false);
+                journal.rolledBack(batch.batchId);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 落盘和入队在同一把锁内，保证队列顺序与批次号一致；队列满时等待入队形成背压，
+     * 超时抛出异常使运行时事务回滚，已落盘的批次由 ROLLED_BACK 回调标记回滚
+     */
+    private void prepare(Batch batch, byte[] payload) {
+        prepareLock.lock();
+        try {
+            long start = System.nanoTime();
+            batch.batchId = journal.prepare(payload);
+            metrics.recordSpill(System.nanoTime() - start);
+            if (!queue.offer(batch, properties.getEnqueueTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ProcessEngineException("异步历史写入积压 " + queue.size() + " 批，"
+                        + properties.getEnqueueTimeout() + " 内未能入队，事务提交失败");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("历史批次入队被中断", e);
+        } finally {
+            prepareLock.unlock();
+        }
+    }
+
+    private void run() {
+        long backoff = 0;
+        List<Batch> retry = new ArrayList<>();
+        while (running || head != null || !recovered.isEmpty() || !queue.isEmpty() || !retry.isEmpty()) {
+            try {
+                if (backoff > 0) {
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                }
+                List<Batch> batches = !retry.isEmpty() ? retry : !recovered.isEmpty() ? nextRecovered() : nextBatches();
+                if (batches.isEmpty()) {
+                    continue;
+                }
+                if (apply(batches)) {
+                    retry = new ArrayList<>();
+                    backoff = 0;
+                } else {
+                    retry = batches;
+                    backoff = Math.min(Math.max(backoff * 2, 500), MAX_BACKOFF_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("异步历史写入异常", e);
+            }
+        }
+    }
+
+    /**
+     * 按落盘顺序取出重放的批次，合计不超过 maxBatchEvents 个事件
+     */
+    private List<Batch> nextRecovered() {
+        List<Batch> batches = new ArrayList<>();
+        int events = 0;
+        for (Batch next = recovered.peek(); next != null
+                && (batches.isEmpty() || events + next.events.size() <= properties.getMaxBatchEvents()); next = recovered.peek()) {
+            batches.add(recovered.poll());
+            events += next.events.size();
+        }
+        return batches;
+    }
+
+    /**
+     * 等待队首批次的事务结果，再取出其后已有结果的批次，合计不超过 maxBatchEvents 个事件。
+     * 超时未回调时按提交标记判断：标记可见说明事务已提交；不可见时事务可能仍在提交中，
+     * 批次留在队首继续等待，只有 ROLLED_BACK 回调才按回滚丢弃
+     */
+    private List<Batch> nextBatches() throws InterruptedException {
+        if (head == null) {
+            head = queue.poll(200, TimeUnit.MILLISECONDS);
+            if (head == null) {
+                return List.of();
+            }
+        }
+        if (!head.await(properties.getResolveTimeout().toMillis())) {
+            if (selectMarkers(head.marker).isEmpty()) {
+                log.warn("历史批次 {} 等待事务结果超时，提交标记尚不可见，继续等待", head.batchId);
+                return List.of();
+            }
+            log.warn("历史批次 {} 等待事务结果超时，提交标记已可见，按已提交处理", head.batchId);
+            head.resolve(true);
+        }
+        List<Batch> batches = new ArrayList<>();
+        batches.add(head);
+        int events = head.events.size();
+        head = null;
+        for (Batch next = queue.peek(); next != null && next.isResolved()
+                && events + next.events.size() <= properties.getMaxBatchEvents(); next = queue.peek()) {
+            batches.add(queue.poll());
+            events += next.events.size();
+        }
+        return batches;
+    }
+
+    /**
+     * @return false 表示需要退避重试整组
+     */
+    private boolean apply(List<Batch> batches) {
+        List<HistoryEvent> events = new ArrayList<>();
+        for (Batch batch : batches) {
+            if (batch.committed) {
+                events.addAll(batch.events);
+            }
+        }
+        if (!events.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                commandExecutor.execute(commandContext -> {
+                    delegate.handleEvents(events);
+                    deleteMarkers(commandContext, batches);
+                    return null;
+                });
+                metrics.recordWrite("async", "success", events.size(), System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                log.warn("历史批量写入失败，改为逐条写入: events={}", events.size(), e);
+                if (!applyOneByOne(batches)) {
+                    metrics.recordWrite("async", "retry", events.size(), System.nanoTime() - start);
+                    return false;
+                }
+                try {
+                    commandExecutor.execute(commandContext -> {
+                        deleteMarkers(commandContext, batches);
+                        return null;
+                    });
+                } catch (RuntimeException markerFailure) {
+                    log.warn("删除历史批次的提交标记失败，重启时可能重放已写入的事件", markerFailure);
+                }
+                metrics.recordWrite("async", "fallback", events.size(), System.nanoTime() - start);
+            }
+        }
+        for (Batch batch : batches) {
+            if (batch.committed) {
+                journal.applied(batch.batchId);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 逐条写入并跳过失败的事件（通常是重放时已存在的记录）；非重放批次全部失败时返回 false
+     */
+    private boolean applyOneByOne(List<Batch> batches) {
+        int succeeded = 0;
+        int failed = 0;
+        boolean recovered = true;
+        for (Batch batch : batches) {
+            if (!batch.committed) {
+                continue;
+            }
+            recovered &= batch.recovered;
+            for (HistoryEvent event : batch.events) {
+                try {
+                    commandExecutor.execute(commandContext -> {
+                        delegate.handleEvent(event);
+                        return null;
+                    });
+                    succeeded++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    metrics.recordFailed();
+                    log.error("历史事件写入失败，已跳过: {} {}", event.getClass().getSimpleName(), event.getId(), e);
+                }
+            }
+        }
+        if (succeeded == 0 && failed > 0 && !recovered) {
+            log.warn("历史事件全部写入失败，稍后重试: events={}", failed);
+            return false;
+        }
+        return true;
+    }
+
+    private List<String> selectMarkers(String namePattern) {
+        return commandExecutor.execute(commandContext ->
+                commandContext.getDbSqlSession().getSqlSession().selectList(SELECT_MARKERS, namePattern));
+    }
+
+    private static void deleteMarkers(CommandContext commandContext, List<Batch> batches) {
+        List<String> markers = batches.stream().filter(batch -> batch.committed).map(batch -> batch.marker).toList();
+        if (!markers.isEmpty()) {
+            // 经 DbEntityManager 在 flush 时执行：引擎使用 JDBC 批处理，直接调用 SqlSession 会打乱批次结果
+            commandContext.getDbEntityManager().delete(PropertyEntity.class, DELETE_MARKERS, markers);
+        }
+    }
+
+    /**
+     * 等待已入队的批次写完，超时未写完的留在落盘日志中，下次启动时重放
+     */
+    @Override
+    public void close() throws Exception {
+        running = false;
+        if (thread != null) {
+            thread.join(properties.getShutdownTimeout().toMillis());
+            if (thread.isAlive()) {
+                log.warn("异步历史写入未在 {} 内完成，剩余 {} 批将在下次启动时重放", properties.getShutdownTimeout(), queue.size());
+                thread.interrupt();
+            }
+        }
+        journal.close();
+    }
+
+    private static byte[] serialize(SpilledBatch batch) throws NotSerializableException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(batch);
+        } catch (NotSerializableException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static SpilledBatch deserialize(byte[] payload) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (SpilledBatch) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("无法读取历史落盘日志中的批次", e);
+        }
+    }
+
+    /**
+     * 落盘的批次内容
+     *
+     * @param marker 运行时事务中插入的提交标记
+     */
+    record SpilledBatch(String marker, ArrayList<HistoryEvent> events) implements Serializable {
+    }
+
+    private static class Batch {
+        private final String marker;
+        private final List<HistoryEvent> events;
+        private final boolean recovered;
+        private final CountDownLatch resolved = new CountDownLatch(1);
+        private volatile long batchId;
+        private volatile boolean committed;
+
+        Batch(String marker, List<HistoryEvent> events, boolean recovered) {
+            this.marker = marker;
+            this.events = events;
+            this.recovered = recovered;
+        }
+
+        void resolve(boolean committed) {
+            this.committed = committed;
+            resolved.countDown();
+        }
+
+        boolean isResolved() {
+            return resolved.getCount() == 0;
+        }
+
+        boolean await(long timeoutMillis) throws InterruptedException {
+            return resolved.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
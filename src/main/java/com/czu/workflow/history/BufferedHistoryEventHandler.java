@@ -0,0 +1,120 @@
+package com.czu.workflow.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按事务缓冲历史事件，命令结束时一次交出：
+ * 同步模式下在 flush 前交给默认的 DbHistoryEventHandler，与运行时数据在同一事务中按 JDBC 批量写入；
+ * 异步模式下交给 {@link AsyncHistoryWriter}，运行时事务提交后再写入。
+ * 配置了 {@link MappedHistoryStore} 时，流程实例的变量更新事件改为在运行时事务提交后追加到映射存储，不再写入数据库
+ */
+@Slf4j
+public class BufferedHistoryEventHandler implements HistoryEventHandler {
+    private final HistoryEventHandler delegate;
+    private final HistoryWriteMetrics metrics;
+    private final AsyncHistoryWriter writer;
+    private final MappedHistoryStore store;
+
+    /**
+     * @param writer 为 null 时使用同步模式
+     * @param store  为 null 时变量历史写入数据库
+     */
+    public BufferedHistoryEventHandler(HistoryEventHandler delegate, HistoryWriteMetrics metrics,
+                                       AsyncHistoryWriter writer, MappedHistoryStore store) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.writer = writer;
+        this.store = store;
+    }
+
+    @Override
+    public void handleEvent(HistoryEvent historyEvent) {
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null) {
+            writeNow(null, List.of(historyEvent));
+            return;
+        }
+        // 先确保 DbEntityManager 已创建，缓冲会话才会排在它前面 flush，见 HistoryEventBuffer
+        commandContext.getDbEntityManager();
+        if (!commandContext.getSession(HistoryEventBuffer.class).add(historyEvent)) {
+            // 缓冲已交出后才产生的事件，直接写入当前事务
+            writeNow(commandContext, List.of(historyEvent));
+        }
+    }
+
+    @Override
+    public void handleEvents(List<HistoryEvent> historyEvents) {
+        historyEvents.forEach(this::handleEvent);
+    }
+
+    void write(CommandContext commandContext, List<HistoryEvent> events) {
+        events = divert(commandContext, events);
+        if (!events.isEmpty() && (writer == null || !writer.submit(commandContext, events))) {
+            delegate(events);
+        }
+    }
+
+    private void writeNow(CommandContext commandContext, List<HistoryEvent> events) {
+        events = divert(commandContext, events);
+        if (!events.isEmpty()) {
+            delegate(events);
+        }
+    }
+
+    /**
+     * 取出交给映射存储的变量事件，返回其余事件。无命令上下文时直接追加
+     */
+    private List<HistoryEvent> divert(CommandContext commandContext, List<HistoryEvent> events) {
+        if (store == null) {
+            return events;
+        }
+        List<HistoryEvent> remaining = new ArrayList<>(events.size());
+        List<byte[]> records = new ArrayList<>();
+        for (HistoryEvent event : events) {
+            byte[] record = event instanceof HistoricVariableUpdateEventEntity variableEvent
+                    && variableEvent.getProcessInstanceId() != null ? store.encode(variableEvent) : null;
+            if (record == null) {
+                remaining.add(event);
+            } else {
+                records.add(record);
+            }
+        }
+        if (records.isEmpty()) {
+            return remaining;
+        }
+        if (commandContext == null) {
+            append(records);
+        } else {
+            commandContext.getTransactionContext()
+                    .addTransactionListener(TransactionState.COMMITTED, context -> append(records));
+        }
+        return remaining;
+    }
+
+    private void append(List<byte[]> records) {
+        long start = System.nanoTime();
+        try {
+            store.append(records);
+            metrics.recordWrite("mapped", "success", records.size(), System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            metrics.recordWrite("mapped", "failure", records.size(), System.nanoTime() - start);
+            metrics.recordFailed();
+            log.error("变量历史写入映射存储失败，丢弃 {} 条记录", records.size(), e);
+        }
+    }
+
+    private void delegate(List<HistoryEvent> events) {
+        long start = System.nanoTime();
+        delegate.handleEvents(events);
+        metrics.recordWrite("sync", "success", events.size(), System.nanoTime() - start);
+    }
+}
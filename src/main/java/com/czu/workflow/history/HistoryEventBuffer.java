@@ -0,0 +1,51 @@
+package com.czu.workflow.history;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.interceptor.Session;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 命令上下文内的历史事件缓冲，在会话 flush 时整体交给 {@link BufferedHistoryEventHandler}。
+ * 后创建的会话排在会话列表前面、先 flush，因此本缓冲在 DbEntityManager 之后创建，
+ * 它的 flush 发生在命令上下文关闭回调之后（任务更新等事件已产生）、DbEntityManager flush 之前。
+ * 命令失败时不会 flush，缓冲随上下文丢弃
+ */
+public class HistoryEventBuffer implements Session {
+    private final BufferedHistoryEventHandler handler;
+    private final List<HistoryEvent> events = new ArrayList<>();
+    private boolean flushed;
+
+    HistoryEventBuffer(BufferedHistoryEventHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * @return false 表示缓冲已交出，调用方需直接写入
+     */
+    boolean add(HistoryEvent event) {
+        if (flushed) {
+            return false;
+        }
+        events.add(event);
+        return true;
+    }
+
+    /**
+     * 之后创建的会话会插到列表最前，使本会话被再次 flush，此时缓冲已为空
+     */
+    @Override
+    public void flush() {
+        flushed = true;
+        if (!events.isEmpty()) {
+            handler.write(Context.getCommandContext(), List.copyOf(events));
+            events.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.czu.workflow.history;
+
+import org.camunda.bpm.engine.impl.interceptor.Session;
+import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
+
+public class HistoryEventBufferFactory implements SessionFactory {
+    private final BufferedHistoryEventHandler handler;
+
+    public HistoryEventBufferFactory(BufferedHistoryEventHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public Class<?> getSessionType() {
+        return HistoryEventBuffer.class;
+    }
+
+    @Override
+    public Session openSession() {
+        return new HistoryEventBuffer(handler);
+    }
+}
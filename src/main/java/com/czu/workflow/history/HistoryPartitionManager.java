@@ -0,0 +1,123 @@
+package com.czu.workflow.history;
+
+import com.czu.workflow.config.WorkflowProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 维护按删除时间分区的历史表（分区列与初始分区见 db/mysql_history_partition_7.24.0.sql）：
+ * 定期从 p_max 中拆出未来的分区，删除上界不晚于今天的分区。删除分区只修改元数据，不产生逐行删除的锁等待和复制延迟。
+ * p_none 保存删除时间为空的记录，不会被删除
+ */
+@Slf4j
+public class HistoryPartitionManager implements AutoCloseable {
+    private static final String MAX_PARTITION = "p_max";
+    private static final String LIST_PARTITIONS = "select PARTITION_NAME, PARTITION_DESCRIPTION from information_schema.PARTITIONS"
+            + " where TABLE_SCHEMA = database() and TABLE_NAME = ? order by PARTITION_ORDINAL_POSITION";
+
+    private final DataSource dataSource;
+    private final WorkflowProperties.HistoryPartition properties;
+    private ScheduledExecutorService scheduler;
+
+    public HistoryPartitionManager(DataSource dataSource, WorkflowProperties.HistoryPartition properties) {
+        for (String table : properties.getTables()) {
+            if (!table.matches("\\w+")) {
+                throw new IllegalArgumentException("非法的历史表名: " + table);
+            }
+        }
+        this.dataSource = dataSource;
+        this.properties = properties;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("history-partition").daemon().unstarted(runnable));
+        scheduler.scheduleWithFixedDelay(this::maintain, 0, properties.getMaintenanceInterval().toMillis(), TimeUnit.MILLISECONDS);
+        log.info("历史表分区维护已启动: 表={}, 分区天数={}, 预建天数={}",
+                properties.getTables(), properties.getIntervalDays(), properties.getCreateAheadDays());
+    }
+
+    /**
+     * 逐表执行，一张表失败不影响其他表
+     */
+    public void maintain() {
+        LocalDate today = LocalDate.now();
+        for (String table : properties.getTables()) {
+            try (Connection connection = dataSource.getConnection()) {
+                maintain(connection, table, today);
+            } catch (SQLException | RuntimeException e) {
+                log.error("历史表分区维护失败: {}", table, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void maintain(Connection connection, String table, LocalDate today) throws SQLException {
+        List<HistoryPartitionPlan.Partition> existing = new ArrayList<>();
+        boolean partitioned = false;
+        try (PreparedStatement statement = connection.prepareStatement(LIST_PARTITIONS)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String name = resultSet.getString(1);
+                    partitioned |= MAX_PARTITION.equals(name);
+                    if (name != null && HistoryPartitionPlan.Partition.isDated(name)) {
+                        existing.add(new HistoryPartitionPlan.Partition(name, upperBound(resultSet.getString(2))));
+                    }
+                }
+            }
+        }
+        if (!partitioned) {
+            log.warn("历史表 {} 没有 {} 分区，跳过；请先执行 db/mysql_history_partition_7.24.0.sql", table, MAX_PARTITION);
+            return;
+        }
+        if (existing.isEmpty()) {
+            // 此时 p_max 保存着整张表，拆分会复制全部记录并阻塞写入，只能在维护窗口由脚本完成
+            log.warn("历史表 {} 没有按日期划分的分区，跳过；请在维护窗口执行 db/mysql_history_partition_7.24.0.sql 建立初始分区", table);
+            return;
+        }
+        HistoryPartitionPlan plan = HistoryPartitionPlan.of(existing, today,
+                properties.getIntervalDays(), properties.getCreateAheadDays());
+        try (Statement statement = connection.createStatement()) {
+            if (!plan.create().isEmpty()) {
+                // 预建范围之外的记录才会进入 p_max，拆分时随之移动，通常为空
+                statement.execute("alter table " + table + " reorganize partition " + MAX_PARTITION + " into ("
+                        + plan.create().stream()
+                        .map(partition -> "partition " + partition.name() + " values less than ('" + partition.upperBound() + "')")
+                        .collect(Collectors.joining(", "))
+                        + ", partition " + MAX_PARTITION + " values less than (MAXVALUE))");
+                log.info("历史表 {} 新建分区 {}", table, plan.create().stream().map(HistoryPartitionPlan.Partition::name).toList());
+            }
+            if (!plan.drop().isEmpty()) {
+                statement.execute("alter table " + table + " drop partition " + String.join(", ", plan.drop()));
+                log.info("历史表 {} 删除过期分区 {}", table, plan.drop());
+            }
+        }
+    }
+
+    /**
+     * RANGE COLUMNS 的分区描述形如 '2026-10-24 00:00:00'
+     */
+    private static LocalDate upperBound(String description) {
+        return LocalDate.parse(description.replace("'", "").substring(0, 10));
+    }
+}
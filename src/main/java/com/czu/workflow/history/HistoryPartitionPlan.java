@@ -0,0 +1,49 @@
+package com.czu.workflow.history;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单张历史表的分区调整：从 p_max 中拆出的新分区，以及上界不晚于今天、可整体删除的分区
+ */
+record HistoryPartitionPlan(List<Partition> create, List<String> drop) {
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    /**
+     * 按日期划分的分区，名称取下界日期，包含 [lowerBound, upperBound) 内的删除时间
+     */
+    record Partition(String name, LocalDate upperBound) {
+        static Partition of(LocalDate lowerBound, LocalDate upperBound) {
+            return new Partition(NAME_FORMAT.format(lowerBound), upperBound);
+        }
+
+        static boolean isDated(String name) {
+            return name.matches("p\\d{8}");
+        }
+    }
+
+    /**
+     * @param existing 已有的按日期划分的分区，按上界升序
+     */
+    static HistoryPartitionPlan of(List<Partition> existing, LocalDate today, int intervalDays, int createAheadDays) {
+        List<String> drop = new ArrayList<>();
+        for (Partition partition : existing) {
+            if (!partition.upperBound().isAfter(today)) {
+                drop.add(partition.name());
+            }
+        }
+        LocalDate lowerBound = existing.isEmpty()
+                ? LocalDate.ofEpochDay(Math.floorDiv(today.toEpochDay(), intervalDays) * intervalDays)
+                : existing.get(existing.size() - 1).upperBound();
+        LocalDate horizon = today.plusDays(createAheadDays);
+        List<Partition> create = new ArrayList<>();
+        while (!lowerBound.isAfter(horizon)) {
+            LocalDate upperBound = lowerBound.plusDays(intervalDays);
+            create.add(Partition.of(lowerBound, upperBound));
+            lowerBound = upperBound;
+        }
+        return new HistoryPartitionPlan(create, drop);
+    }
+}
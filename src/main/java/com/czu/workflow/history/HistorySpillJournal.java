@@ -0,0 +1,243 @@
+package com.czu.workflow.history;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 异步历史写入的本地落盘日志，按段追加：
+ * PREPARED（运行时事务提交前写入并 fsync，带事件内容）、COMMITTED / ROLLED_BACK（运行时事务结果）、
+ * APPLIED（已写入历史表）。最旧的段中所有批次都已写入或回滚后删除该段。
+ * 重启时返回既未写入也未回滚的批次，其中结果未知的批次由 {@link AsyncHistoryWriter} 按数据库中的提交标记判断是否重放
+ */
+@Slf4j
+public class HistorySpillJournal implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "history-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final byte PREPARED = 1;
+    private static final byte COMMITTED = 2;
+    private static final byte ROLLED_BACK = 3;
+    private static final byte APPLIED = 4;
+    private static final int HEADER_BYTES = 1 + Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * 段序号 -> 未完成的批次数，按序号从小到大删除
+     */
+    private final TreeMap<Long, Integer> pendingBySegment = new TreeMap<>();
+    private final Map<Long, Long> segmentByBatch = new HashMap<>();
+    private FileChannel channel;
+    private long segment;
+    private long nextBatchId = 1;
+
+    public HistorySpillJournal(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * 读取已有的段，返回需要重放的批次（按批次号排序），然后打开新段
+     */
+    public List<RecoveredBatch> recover() {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            Map<Long, RecoveredBatch> batches = new TreeMap<>();
+            Set<Long> committed = new HashSet<>();
+            Set<Long> completed = new HashSet<>();
+            List<Long> segments = listSegments();
+            for (long existing : segments) {
+                readSegment(existing, batches, committed, completed);
+                segment = Math.max(segment, existing);
+            }
+            List<RecoveredBatch> pending = new ArrayList<>();
+            for (RecoveredBatch batch : batches.values()) {
+                nextBatchId = Math.max(nextBatchId, batch.batchId() + 1);
+                if (!completed.contains(batch.batchId())) {
+                    pending.add(batch);
+                    track(batch.batchId(), batch.segment());
+                }
+            }
+            long unresolved = pending.stream().filter(batch -> !committed.contains(batch.batchId())).count();
+            if (!pending.isEmpty()) {
+                log.warn("历史落盘日志: 待重放 {} 批（其中运行时事务结果未知 {} 批）", pending.size(), unresolved);
+            }
+            for (long existing : segments) {
+                pendingBySegment.putIfAbsent(existing, 0);
+            }
+            segment++;
+            openSegment();
+            deleteCompletedSegments();
+            return pending;
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法读取历史落盘日志 " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 写入批次内容并 fsync，返回批次号
+     */
+    public long prepare(byte[] payload) {
+        lock.lock();
+        try {
+            if (channel.size() >= segmentSize) {
+                channel.close();
+                segment++;
+                openSegment();
+            }
+            long batchId = nextBatchId++;
+            append(PREPARED, batchId, payload);
+            channel.force(false);
+            track(batchId, segment);
+            return batchId;
+        } catch (IOException e) {
+            throw new UncheckedIOException("历史落盘失败", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void committed(long batchId) {
+        mark(COMMITTED, batchId, false);
+    }
+
+    public void rolledBack(long batchId) {
+        mark(ROLLED_BACK, batchId, true);
+    }
+
+    public void applied(long batchId) {
+        mark(APPLIED, batchId, true);
+    }
+
+    /**
+     * 结果标记不单独 fsync：丢失时重启后按结果未知处理，由提交标记决定重放还是丢弃
+     */
+    private void mark(byte type, long batchId, boolean completed) {
+        lock.lock();
+        try {
+            append(type, batchId, null);
+            if (completed) {
+                Long batchSegment = segmentByBatch.remove(batchId);
+                if (batchSegment != null) {
+                    pendingBySegment.merge(batchSegment, -1, Integer::sum);
+                    deleteCompletedSegments();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("历史落盘日志写入标记失败: batch={}", batchId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void track(long batchId, long batchSegment) {
+        segmentByBatch.put(batchId, batchSegment);
+        pendingBySegment.merge(batchSegment, 1, Integer::sum);
+    }
+
+    private void deleteCompletedSegments() throws IOException {
+        while (!pendingBySegment.isEmpty()) {
+            Map.Entry<Long, Integer> oldest = pendingBySegment.firstEntry();
+            if (oldest.getKey() == segment || oldest.getValue() > 0) {
+                return;
+            }
+            pendingBySegment.pollFirstEntry();
+            Files.deleteIfExists(segmentPath(oldest.getKey()));
+        }
+    }
+
+    private void append(byte type, long batchId, byte[] payload) throws IOException {
+        int length = payload == null ? 0 : payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + length);
+        buffer.put(type).putLong(batchId).putInt(length);
+        if (payload != null) {
+            buffer.put(payload);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        pendingBySegment.putIfAbsent(segment, 0);
+    }
+
+    /**
+     * 读到不完整的记录（写入中途崩溃）即停止
+     */
+    private void readSegment(long segmentIndex, Map<Long, RecoveredBatch> batches,
+                             Set<Long> committed, Set<Long> completed) throws IOException {
+        try (InputStream file = Files.newInputStream(segmentPath(segmentIndex));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            while (true) {
+                byte type = in.readByte();
+                long batchId = in.readLong();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                switch (type) {
+                    case PREPARED -> batches.put(batchId, new RecoveredBatch(batchId, segmentIndex, payload));
+                    case COMMITTED -> committed.add(batchId);
+                    default -> completed.add(batchId);
+                }
+            }
+        } catch (EOFException e) {
+            // 段尾
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segmentIndex) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%010d", segmentIndex) + SEGMENT_SUFFIX);
+    }
+
+    public record RecoveredBatch(long batchId, long segment, byte[] payload) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.czu.workflow.history;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 历史写入指标：workflow.history.write 计时（同步模式为事务内交给 DbEntityManager 的耗时，异步模式为写入事务耗时），
+ * workflow.history.events 事件数，workflow.history.spill 落盘耗时，workflow.history.backlog 待写批次
+ */
+public class HistoryWriteMetrics {
+    private final MeterRegistry registry;
+    private final Timer spill;
+    private final Counter failed;
+
+    public HistoryWriteMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.spill = Timer.builder("workflow.history.spill").register(registry);
+        this.failed = Counter.builder("workflow.history.failed").register(registry);
+    }
+
+    void recordWrite(String mode, String outcome, int events, long nanos) {
+        Timer.builder("workflow.history.write")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder("workflow.history.events")
+                .tag("mode", mode)
+                .register(registry)
+                .increment(events);
+    }
+
+    void recordSpill(long nanos) {
+        spill.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordFailed() {
+        failed.increment();
+    }
+
+    void bindBacklog(Supplier<Number> backlog) {
+        Gauge.builder("workflow.history.backlog", backlog)
+                .strongReference(true)
+                .register(registry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.czu.workflow.history;
+
+import java.util.List;
+
+/**
+ * {@link MappedHistoryStore} 的变量更新查询，用法与 {@code createHistoricDetailQuery().variableUpdates()} 一致，
+ * 结果按写入顺序排列
+ */
+public class MappedDetailQuery {
+    private final MappedHistoryStore store;
+    private String processInstanceId;
+    private String variableName;
+
+    MappedDetailQuery(MappedHistoryStore store) {
+        this.store = store;
+    }
+
+    public MappedDetailQuery processInstanceId(String processInstanceId) {
+        this.processInstanceId = processInstanceId;
+        return this;
+    }
+
+    public MappedDetailQuery variableName(String variableName) {
+        this.variableName = variableName;
+        return this;
+    }
+
+    public List<MappedVariableUpdate> list() {
+        return store.find(processInstanceId, variableName, 0, Integer.MAX_VALUE);
+    }
+
+    public List<MappedVariableUpdate> listPage(int firstResult, int maxResults) {
+        return store.find(processInstanceId, variableName, firstResult, maxResults);
+    }
+
+    public long count() {
+        return store.count(processInstanceId, variableName);
+    }
+}
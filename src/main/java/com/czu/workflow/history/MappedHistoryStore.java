@@ -0,0 +1,418 @@
+package com.czu.workflow.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 变量历史的内存映射存储，替代 ACT_HI_DETAIL / ACT_HI_VARINST：变量更新事件在运行时事务提交后追加到本地按段映射的文件中。
+ * 每条记录以长度开头，长度在记录内容之后写入，进程崩溃时写了一半的记录不可见；
+ * 写入只进入页缓存，换段和关闭时才 force，操作系统崩溃时可能丢失当前段中的记录。
+ * 打开时顺序扫描各段重建内存索引（流程实例 -> 变量名 -> 记录位置），查询按索引直接读取映射区，不复制段内容。
+ * 段中所有记录都早于保留期限时整段删除，在打开和换段时检查，段数和重建索引的时间因此有上限
+ */
+@Slf4j
+public class MappedHistoryStore implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "variables-";
+    private static final String SEGMENT_SUFFIX = ".segment";
+    static final int EVENT_TYPE = Integer.BYTES;
+    static final int FLAGS = EVENT_TYPE + 1;
+    static final int TIMESTAMP = FLAGS + 1;
+    static final int SEQUENCE_COUNTER = TIMESTAMP + Long.BYTES;
+    static final int REVISION = SEQUENCE_COUNTER + Long.BYTES;
+    static final int LONG_VALUE = REVISION + Integer.BYTES;
+    static final int DOUBLE_VALUE = LONG_VALUE + Long.BYTES;
+    static final int FIELDS = DOUBLE_VALUE + Double.BYTES;
+    static final byte HAS_LONG = 1;
+    static final byte HAS_DOUBLE = 2;
+    /**
+     * 变长字段的顺序，最后一个字段为字节值
+     */
+    static final int PROCESS_INSTANCE_ID = 0;
+    static final int PROCESS_DEFINITION_KEY = 1;
+    static final int EXECUTION_ID = 2;
+    static final int ACTIVITY_INSTANCE_ID = 3;
+    static final int TASK_ID = 4;
+    static final int VARIABLE_INSTANCE_ID = 5;
+    static final int VARIABLE_NAME = 6;
+    static final int SERIALIZER_NAME = 7;
+    static final int TEXT_VALUE = 8;
+    static final int TEXT_VALUE2 = 9;
+    static final int TENANT_ID = 10;
+    static final int BYTE_VALUE = 11;
+    static final String[] EVENT_TYPES = {
+            HistoryEventTypes.VARIABLE_INSTANCE_CREATE.getEventName(),
+            HistoryEventTypes.VARIABLE_INSTANCE_UPDATE.getEventName(),
+            HistoryEventTypes.VARIABLE_INSTANCE_DELETE.getEventName(),
+            HistoryEventTypes.VARIABLE_INSTANCE_MIGRATE.getEventName()
+    };
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration retention;
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * 段序号 -> 只读视图，查询共享，只使用绝对位置读取
+     */
+    private final Map<Integer, ByteBuffer> segments = new HashMap<>();
+    private final Map<String, Map<String, PointerList>> index = new HashMap<>();
+    /**
+     * 段序号 -> 段内最新记录的时间
+     */
+    private final Map<Integer, Long> newest = new HashMap<>();
+    private MappedByteBuffer current;
+    private int segment;
+    private int position;
+    private long records;
+
+    /**
+     * @param retention 记录的保留期限，按变量更新的时间计算
+     */
+    public MappedHistoryStore(Path directory, long segmentSize, Duration retention) {
+        if (segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("映射段大小不能超过 2GB: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize;
+        this.retention = retention;
+    }
+
+    /**
+     * 映射已有的段并重建索引，之后追加到最后一段
+     */
+    public void open() {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            List<Integer> existing = listSegments();
+            if (existing.isEmpty()) {
+                map(0);
+                return;
+            }
+            for (int number : existing) {
+                map(number);
+                position = scan(number, current);
+            }
+            purgeExpired();
+            log.info("变量历史存储: 从 {} 个段重建索引，{} 个流程实例，{} 条记录", segments.size(), index.size(), records);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法打开变量历史存储 " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在运行时事务内编码，提交后再 {@link #append}；超过单段大小的记录返回 null，由调用方写入数据库
+     */
+    public byte[] encode(HistoricVariableUpdateEventEntity event) {
+        byte[][] fields = {
+                utf8(event.getProcessInstanceId()),
+                utf8(event.getProcessDefinitionKey()),
+                utf8(event.getExecutionId()),
+                utf8(event.getActivityInstanceId()),
+                utf8(event.getTaskId()),
+                utf8(event.getVariableInstanceId()),
+                utf8(event.getVariableName()),
+                utf8(event.getSerializerName()),
+                utf8(event.getTextValue()),
+                utf8(event.getTextValue2()),
+                utf8(event.getTenantId()),
+                event.getByteValue()
+        };
+        long length = FIELDS;
+        for (byte[] field : fields) {
+            length += Integer.BYTES + (field == null ? 0 : field.length);
+        }
+        if (length > segmentSize) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        buffer.putInt((int) length)
+                .put(eventType(event.getEventType()))
+                .put((byte) ((event.getLongValue() != null ? HAS_LONG : 0) | (event.getDoubleValue() != null ? HAS_DOUBLE : 0)))
+                .putLong(event.getTimestamp() == null ? System.currentTimeMillis() : event.getTimestamp().getTime())
+                .putLong(event.getSequenceCounter())
+                .putInt(event.getRevision())
+                .putLong(event.getLongValue() == null ? 0 : event.getLongValue())
+                .putDouble(event.getDoubleValue() == null ? 0 : event.getDoubleValue());
+        for (byte[] field : fields) {
+            buffer.putInt(field == null ? -1 : field.length);
+            if (field != null) {
+                buffer.put(field);
+            }
+        }
+        return buffer.array();
+    }
+
+    public void append(List<byte[]> encoded) {
+        lock.lock();
+        try {
+            for (byte[] record : encoded) {
+                if (segmentSize - position < record.length) {
+                    current.force();
+                    map(segment + 1);
+                    position = 0;
+                    purgeExpired();
+                }
+                current.put(position + Integer.BYTES, record, Integer.BYTES, record.length - Integer.BYTES);
+                current.putInt(position, record.length);
+                index(segment, position, current);
+                position += record.length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("变量历史写入失败", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 与 {@code historyService.createHistoricDetailQuery()} 对应的变量更新查询
+     */
+    public MappedDetailQuery createDetailQuery() {
+        return new MappedDetailQuery(this);
+    }
+
+    /**
+     * 流程实例下每个变量的最新值，不含已删除的变量，与 {@code createHistoricVariableInstanceQuery()} 对应
+     */
+    public List<MappedVariableUpdate> variables(String processInstanceId) {
+        // 同名变量可能分属不同作用域，按变量实例取最后一条
+        Map<String, MappedVariableUpdate> latest = new LinkedHashMap<>();
+        for (MappedVariableUpdate update : find(processInstanceId, null, 0, Integer.MAX_VALUE)) {
+            latest.put(update.getVariableInstanceId(), update);
+        }
+        List<MappedVariableUpdate> variables = new ArrayList<>(latest.values());
+        variables.removeIf(MappedVariableUpdate::isDeleted);
+        return variables;
+    }
+
+    /**
+     * 按写入顺序返回；未指定流程实例时遍历整个索引
+     */
+    List<MappedVariableUpdate> find(String processInstanceId, String variableName, int firstResult, int maxResults) {
+        lock.lock();
+        try {
+            long[] pointers = pointers(processInstanceId, variableName);
+            Arrays.sort(pointers);
+            int from = Math.min(firstResult, pointers.length);
+            int to = (int) Math.min((long) from + maxResults, pointers.length);
+            List<MappedVariableUpdate> result = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                result.add(view(pointers[i]));
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long count(String processInstanceId, String variableName) {
+        lock.lock();
+        try {
+            long count = 0;
+            for (Map<String, PointerList> byName : byProcessInstance(processInstanceId)) {
+                for (Map.Entry<String, PointerList> entry : byName.entrySet()) {
+                    if (variableName == null || variableName.equals(entry.getKey())) {
+                        count += entry.getValue().size;
+                    }
+                }
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (current != null) {
+                current.force();
+                current = null;
+            }
+            segments.clear();
+            index.clear();
+            newest.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 删除除当前段之外、最新记录早于保留期限的段，并从索引中移除其中的记录
+     */
+    private void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        List<Integer> expired = segments.keySet().stream()
+                .filter(number -> number != segment && newest.getOrDefault(number, Long.MIN_VALUE) < cutoff)
+                .sorted()
+                .toList();
+        if (expired.isEmpty()) {
+            return;
+        }
+        // 段按序号递增写入，各列表中过期段的记录位于开头
+        long bound = (long) (expired.get(expired.size() - 1) + 1) << 32;
+        index.values().removeIf(byName -> {
+            byName.values().removeIf(pointers -> {
+                records -= pointers.removeBefore(bound);
+                return pointers.size == 0;
+            });
+            return byName.isEmpty();
+        });
+        for (int number : expired) {
+            segments.remove(number);
+            newest.remove(number);
+            try {
+                Files.deleteIfExists(segmentPath(number));
+            } catch (IOException e) {
+                // 映射未释放时部分平台不允许删除，下次打开时重试
+                log.warn("变量历史存储: 无法删除过期段 {}", segmentPath(number), e);
+            }
+        }
+        log.info("变量历史存储: 删除 {} 个过期段，剩余 {} 条记录", expired.size(), records);
+    }
+
+    private long[] pointers(String processInstanceId, String variableName) {
+        PointerList matched = new PointerList();
+        for (Map<String, PointerList> byName : byProcessInstance(processInstanceId)) {
+            if (variableName == null) {
+                byName.values().forEach(matched::addAll);
+            } else if (byName.containsKey(variableName)) {
+                matched.addAll(byName.get(variableName));
+            }
+        }
+        return Arrays.copyOf(matched.values, matched.size);
+    }
+
+    private Iterable<Map<String, PointerList>> byProcessInstance(String processInstanceId) {
+        if (processInstanceId == null) {
+            return index.values();
+        }
+        Map<String, PointerList> byName = index.get(processInstanceId);
+        return byName == null ? List.of() : List.of(byName);
+    }
+
+    private MappedVariableUpdate view(long pointer) {
+        return new MappedVariableUpdate(segments.get((int) (pointer >>> 32)), (int) pointer, pointer);
+    }
+
+    /**
+     * 扫描到长度为 0 或越界的位置为止，返回该段的写入位置
+     */
+    private int scan(int number, ByteBuffer buffer) {
+        int offset = 0;
+        while (segmentSize - offset >= Integer.BYTES) {
+            int length = buffer.getInt(offset);
+            if (length < FIELDS || length > segmentSize - offset) {
+                break;
+            }
+            index(number, offset, buffer);
+            offset += length;
+        }
+        return offset;
+    }
+
+    private void index(int number, int offset, ByteBuffer buffer) {
+        String processInstanceId = MappedVariableUpdate.readString(buffer, offset, PROCESS_INSTANCE_ID);
+        String variableName = MappedVariableUpdate.readString(buffer, offset, VARIABLE_NAME);
+        index.computeIfAbsent(processInstanceId, key -> new LinkedHashMap<>())
+                .computeIfAbsent(variableName, key -> new PointerList())
+                .add((long) number << 32 | offset);
+        newest.merge(number, buffer.getLong(offset + TIMESTAMP), Math::max);
+        records++;
+    }
+
+    private void map(int number) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment = number;
+        segments.put(number, current.asReadOnlyBuffer());
+    }
+
+    private List<Integer> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%010d", number) + SEGMENT_SUFFIX);
+    }
+
+    private static byte eventType(String eventType) {
+        for (byte i = 0; i < EVENT_TYPES.length; i++) {
+            if (EVENT_TYPES[i].equals(eventType)) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 不装箱的记录位置列表：高 32 位为段序号，低 32 位为段内偏移
+     */
+    private static final class PointerList {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long pointer) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = pointer;
+        }
+
+        /**
+         * 删除开头小于 bound 的位置，返回删除的个数
+         */
+        int removeBefore(long bound) {
+            int removed = 0;
+            while (removed < size && values[removed] < bound) {
+                removed++;
+            }
+            System.arraycopy(values, removed, values, 0, size - removed);
+            size -= removed;
+            return removed;
+        }
+
+        void addAll(PointerList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+    }
+}
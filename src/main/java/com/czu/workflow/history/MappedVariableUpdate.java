@@ -0,0 +1,212 @@
+package com.czu.workflow.history;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static com.czu.workflow.history.MappedHistoryStore.ACTIVITY_INSTANCE_ID;
+import static com.czu.workflow.history.MappedHistoryStore.BYTE_VALUE;
+import static com.czu.workflow.history.MappedHistoryStore.DOUBLE_VALUE;
+import static com.czu.workflow.history.MappedHistoryStore.EVENT_TYPE;
+import static com.czu.workflow.history.MappedHistoryStore.EVENT_TYPES;
+import static com.czu.workflow.history.MappedHistoryStore.EXECUTION_ID;
+import static com.czu.workflow.history.MappedHistoryStore.FIELDS;
+import static com.czu.workflow.history.MappedHistoryStore.FLAGS;
+import static com.czu.workflow.history.MappedHistoryStore.HAS_DOUBLE;
+import static com.czu.workflow.history.MappedHistoryStore.HAS_LONG;
+import static com.czu.workflow.history.MappedHistoryStore.LONG_VALUE;
+import static com.czu.workflow.history.MappedHistoryStore.PROCESS_DEFINITION_KEY;
+import static com.czu.workflow.history.MappedHistoryStore.PROCESS_INSTANCE_ID;
+import static com.czu.workflow.history.MappedHistoryStore.REVISION;
+import static com.czu.workflow.history.MappedHistoryStore.SEQUENCE_COUNTER;
+import static com.czu.workflow.history.MappedHistoryStore.SERIALIZER_NAME;
+import static com.czu.workflow.history.MappedHistoryStore.TASK_ID;
+import static com.czu.workflow.history.MappedHistoryStore.TENANT_ID;
+import static com.czu.workflow.history.MappedHistoryStore.TEXT_VALUE;
+import static com.czu.workflow.history.MappedHistoryStore.TEXT_VALUE2;
+import static com.czu.workflow.history.MappedHistoryStore.TIMESTAMP;
+import static com.czu.workflow.history.MappedHistoryStore.VARIABLE_INSTANCE_ID;
+import static com.czu.workflow.history.MappedHistoryStore.VARIABLE_NAME;
+
+/**
+ * {@link MappedHistoryStore} 中一条变量更新记录的视图，字段在访问时才从映射区解码，
+ * 字节值以只读切片返回，不复制。属性与 {@code HistoricVariableUpdate} 对应
+ */
+public class MappedVariableUpdate {
+    private final ByteBuffer segment;
+    private final int offset;
+    private final long pointer;
+    private int[] fieldOffsets;
+
+    MappedVariableUpdate(ByteBuffer segment, int offset, long pointer) {
+        this.segment = segment;
+        this.offset = offset;
+        this.pointer = pointer;
+    }
+
+    /**
+     * 记录在存储中的位置，段序号-段内偏移
+     */
+    public String getId() {
+        return (pointer >>> 32) + "-" + offset;
+    }
+
+    public String getEventType() {
+        return EVENT_TYPES[segment.get(offset + EVENT_TYPE)];
+    }
+
+    public boolean isDeleted() {
+        return segment.get(offset + EVENT_TYPE) == 2;
+    }
+
+    public Date getTime() {
+        return new Date(segment.getLong(offset + TIMESTAMP));
+    }
+
+    public long getSequenceCounter() {
+        return segment.getLong(offset + SEQUENCE_COUNTER);
+    }
+
+    public int getRevision() {
+        return segment.getInt(offset + REVISION);
+    }
+
+    public String getProcessInstanceId() {
+        return string(PROCESS_INSTANCE_ID);
+    }
+
+    public String getProcessDefinitionKey() {
+        return string(PROCESS_DEFINITION_KEY);
+    }
+
+    public String getExecutionId() {
+        return string(EXECUTION_ID);
+    }
+
+    public String getActivityInstanceId() {
+        return string(ACTIVITY_INSTANCE_ID);
+    }
+
+    public String getTaskId() {
+        return string(TASK_ID);
+    }
+
+    public String getVariableInstanceId() {
+        return string(VARIABLE_INSTANCE_ID);
+    }
+
+    public String getVariableName() {
+        return string(VARIABLE_NAME);
+    }
+
+    /**
+     * 变量序列化器名称，即 {@code HistoricVariableUpdate#getTypeName()}
+     */
+    public String getTypeName() {
+        return string(SERIALIZER_NAME);
+    }
+
+    public String getTextValue() {
+        return string(TEXT_VALUE);
+    }
+
+    public String getTextValue2() {
+        return string(TEXT_VALUE2);
+    }
+
+    public String getTenantId() {
+        return string(TENANT_ID);
+    }
+
+    public Long getLongValue() {
+        return (segment.get(offset + FLAGS) & HAS_LONG) != 0 ? segment.getLong(offset + LONG_VALUE) : null;
+    }
+
+    public Double getDoubleValue() {
+        return (segment.get(offset + FLAGS) & HAS_DOUBLE) != 0 ? segment.getDouble(offset + DOUBLE_VALUE) : null;
+    }
+
+    /**
+     * 映射区的只读切片，无字节值时为 null
+     */
+    public ByteBuffer getByteValue() {
+        int position = fieldOffset(BYTE_VALUE);
+        int length = segment.getInt(position);
+        return length < 0 ? null : segment.slice(position + Integer.BYTES, length);
+    }
+
+    /**
+     * 按序列化器还原基本类型的值；对象、JSON 等序列化值返回 null，需自行读取文本值或字节值
+     */
+    public Object getValue() {
+        String typeName = getTypeName();
+        if (typeName == null) {
+            return null;
+        }
+        return switch (typeName) {
+            case "string" -> getTextValue();
+            case "boolean" -> getLongValue() == null ? null : getLongValue() == 1;
+            case "integer" -> getLongValue() == null ? null : getLongValue().intValue();
+            case "short" -> getLongValue() == null ? null : getLongValue().shortValue();
+            case "long" -> getLongValue();
+            case "double" -> getDoubleValue();
+            case "date" -> getLongValue() == null ? null : new Date(getLongValue());
+            case "bytes" -> bytes();
+            default -> null;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "MappedVariableUpdate[" + getVariableName() + "=" + getValue() + ", processInstanceId="
+                + getProcessInstanceId() + ", eventType=" + getEventType() + "]";
+    }
+
+    private byte[] bytes() {
+        ByteBuffer value = getByteValue();
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = new byte[value.remaining()];
+        value.get(bytes);
+        return bytes;
+    }
+
+    private String string(int field) {
+        return readString(segment, fieldOffset(field));
+    }
+
+    private int fieldOffset(int field) {
+        if (fieldOffsets == null) {
+            int[] offsets = new int[BYTE_VALUE + 1];
+            int position = offset + FIELDS;
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = position;
+                position += Integer.BYTES + Math.max(segment.getInt(position), 0);
+            }
+            fieldOffsets = offsets;
+        }
+        return fieldOffsets[field];
+    }
+
+    /**
+     * 建索引时使用，不缓存字段位置
+     */
+    static String readString(ByteBuffer segment, int record, int field) {
+        int position = record + FIELDS;
+        for (int i = 0; i < field; i++) {
+            position += Integer.BYTES + Math.max(segment.getInt(position), 0);
+        }
+        return readString(segment, position);
+    }
+
+    private static String readString(ByteBuffer segment, int position) {
+        int length = segment.getInt(position);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        segment.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
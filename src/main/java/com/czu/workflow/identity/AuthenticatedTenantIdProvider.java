@@ -0,0 +1,49 @@
+package com.czu.workflow.identity;
+
+import org.camunda.bpm.engine.impl.cfg.multitenancy.TenantIdProvider;
+import org.camunda.bpm.engine.impl.cfg.multitenancy.TenantIdProviderCaseInstanceContext;
+import org.camunda.bpm.engine.impl.cfg.multitenancy.TenantIdProviderHistoricDecisionInstanceContext;
+import org.camunda.bpm.engine.impl.cfg.multitenancy.TenantIdProviderProcessInstanceContext;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.identity.Authentication;
+
+import java.util.List;
+
+/**
+ * 为公共流程定义（无租户）发起的实例打上当前用户的租户
+ * 租户来自已设置的 Authentication，不再额外查询 ACT_ID_TENANT_MEMBER；
+ * 用户属于多个租户时无法确定归属，保持公共实例
+ */
+public class AuthenticatedTenantIdProvider implements TenantIdProvider {
+
+    @Override
+    public String provideTenantIdForProcessInstance(TenantIdProviderProcessInstanceContext ctx) {
+        if (ctx.getSuperExecution() != null) {
+            // 子流程沿用父流程实例的租户
+            return ctx.getSuperExecution().getTenantId();
+        }
+        return currentTenantId();
+    }
+
+    @Override
+    public String provideTenantIdForCaseInstance(TenantIdProviderCaseInstanceContext ctx) {
+        return currentTenantId();
+    }
+
+    @Override
+    public String provideTenantIdForHistoricDecisionInstance(TenantIdProviderHistoricDecisionInstanceContext ctx) {
+        if (ctx.getExecution() != null) {
+            return ctx.getExecution().getTenantId();
+        }
+        return currentTenantId();
+    }
+
+    private String currentTenantId() {
+        Authentication authentication = Context.getCommandContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        List<String> tenantIds = authentication.getTenantIds();
+        return tenantIds != null && tenantIds.size() == 1 ? tenantIds.get(0) : null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.czu.workflow.identity;
+
+import org.camunda.bpm.engine.impl.IdentityServiceImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 在成员关系写操作后精确失效 {@link MembershipCache}，并在设置当前用户时从缓存补全分组和租户
+ * 命令执行完成后立即失效一次；若处于外部 Spring 事务中，事务结束后再失效一次，
+ * 防止事务提交前被其他线程以旧数据回填
+ */
+public class CachingIdentityService extends IdentityServiceImpl {
+
+    private final MembershipCache membershipCache;
+
+    public CachingIdentityService(MembershipCache membershipCache) {
+        this.membershipCache = membershipCache;
+        membershipCache.bind(this);
+    }
+
+    /**
+     * 默认实现只记录 userId，租户校验时该用户不属于任何租户；
+     * 这里从缓存一次性带上分组和租户，后续 TaskQuery / ProcessInstanceQuery / ProcessDefinitionQuery 自动按租户过滤
+     */
+    @Override
+    public void setAuthenticatedUserId(String authenticatedUserId) {
+        if (authenticatedUserId == null) {
+            clearAuthentication();
+            return;
+        }
+        setAuthentication(authenticatedUserId,
+                membershipCache.getGroupIds(authenticatedUserId),
+                membershipCache.getTenantIds(authenticatedUserId));
+    }
+
+    @Override
+    public void createMembership(String userId, String groupId) {
+        super.createMembership(userId, groupId);
+        afterWrite(() -> membershipCache.invalidateUser(userId));
+    }
+
+    @Override
+    public void deleteMembership(String userId, String groupId) {
+        super.deleteMembership(userId, groupId);
+        afterWrite(() -> membershipCache.invalidateUser(userId));
+    }
+
+    @Override
+    public void deleteUser(String userId) {
+        super.deleteUser(userId);
+        afterWrite(() -> membershipCache.invalidateUser(userId));
+    }
+
+    @Override
+    public void deleteGroup(String groupId) {
+        super.deleteGroup(groupId);
+        afterWrite(membershipCache::invalidateAll);
+    }
+
+    @Override
+    public void createTenantUserMembership(String tenantId, String userId) {
+        super.createTenantUserMembership(tenantId, userId);
+        afterWrite(() -> membershipCache.invalidateTenantsOfUser(userId));
+    }
+
+    @Override
+    public void deleteTenantUserMembership(String tenantId, String userId) {
+        super.deleteTenantUserMembership(tenantId, userId);
+        afterWrite(() -> membershipCache.invalidateTenantsOfUser(userId));
+    }
+
+    @Override
+    public void createTenantGroupMembership(String tenantId, String groupId) {
+        super.createTenantGroupMembership(tenantId, groupId);
+        afterWrite(membershipCache::invalidateAllTenants);
+    }
+
+    @Override
+    public void deleteTenantGroupMembership(String tenantId, String groupId) {
+        super.deleteTenantGroupMembership(tenantId, groupId);
+        afterWrite(membershipCache::invalidateAllTenants);
+    }
+
+    @Override
+    public void deleteTenant(String tenantId) {
+        super.deleteTenant(tenantId);
+        afterWrite(membershipCache::invalidateAllTenants);
+    }
+
+    private void afterWrite(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
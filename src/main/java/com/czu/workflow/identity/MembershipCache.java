@@ -0,0 +1,128 @@
+package com.czu.workflow.identity;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.identity.Group;
+import org.camunda.bpm.engine.identity.Tenant;
+
+import java.util.List;
+
+/**
+ * 用户 -> 分组、用户 -> 租户 的成员关系缓存
+ * 数据来源于 ACT_ID_MEMBERSHIP / ACT_ID_TENANT_MEMBER，由 {@link CachingIdentityService} 在成员关系变更时精确失效
+ */
+@Slf4j
+public class MembershipCache {
+
+    private final Cache<String, List<String>> userGroups;
+    private final Cache<String, List<String>> userTenants;
+
+    private IdentityService identityService;
+
+    public MembershipCache(WorkflowProperties.IdentityCache properties) {
+        this.userGroups = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.userTenants = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 绑定 Caffeine 统计指标 cache.gets / cache.evictions 等，tag cache=user-groups / user-tenants
+     */
+    public void bindMetrics(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, userGroups, "user-groups");
+        CaffeineCacheMetrics.monitor(registry, userTenants, "user-tenants");
+    }
+
+    /**
+     * 由 {@link CachingIdentityService} 在引擎初始化时绑定，缓存未命中时通过它回源查询
+     */
+    void bind(IdentityService identityService) {
+        this.identityService = identityService;
+    }
+
+    /**
+     * 用户所属的分组ID
+     */
+    public List<String> getGroupIds(String userId) {
+        return userGroups.get(userId, id -> identityService().createGroupQuery()
+                .groupMember(id)
+                .list()
+                .stream()
+                .map(Group::getId)
+                .toList());
+    }
+
+    /**
+     * 用户所属的租户ID，包含通过分组间接加入的租户
+     */
+    public List<String> getTenantIds(String userId) {
+        return userTenants.get(userId, id -> identityService().createTenantQuery()
+                .userMember(id)
+                .includingGroupsOfUser(true)
+                .list()
+                .stream()
+                .map(Tenant::getId)
+                .toList());
+    }
+
+    public void invalidateUser(String userId) {
+        userGroups.invalidate(userId);
+        userTenants.invalidate(userId);
+        log.debug("成员关系缓存失效: 用户={}", userId);
+    }
+
+    public void invalidateTenantsOfUser(String userId) {
+        userTenants.invalidate(userId);
+        log.debug("租户缓存失效: 用户={}", userId);
+    }
+
+    /**
+     * 分组级别的变更（删除分组、分组加入/移出租户）会影响该组所有成员，直接全部失效
+     */
+    public void invalidateAll() {
+        userGroups.invalidateAll();
+        userTenants.invalidateAll();
+        log.debug("成员关系缓存全部失效");
+    }
+
+    public void invalidateAllTenants() {
+        userTenants.invalidateAll();
+        log.debug("租户缓存全部失效");
+    }
+
+    public CacheStats getGroupStats() {
+        return userGroups.stats();
+    }
+
+    public CacheStats getTenantStats() {
+        return userTenants.stats();
+    }
+
+    public long getHitCount() {
+        return userGroups.stats().hitCount() + userTenants.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return userGroups.stats().missCount() + userTenants.stats().missCount();
+    }
+
+    private IdentityService identityService() {
+        if (identityService == null) {
+            throw new IllegalStateException("MembershipCache 未绑定 IdentityService，请检查 MembershipCachePlugin 是否已注册");
+        }
+        return identityService;
+    }
+}
@@ -0,0 +1,42 @@
+package com.czu.workflow.identity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.camunda.bpm.engine.IdentityService;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 每个请求设置一次当前用户，分组和租户由 {@link CachingIdentityService} 从缓存补全，
+ * 请求内的所有引擎查询自动带上租户过滤
+ */
+public class TenantAuthenticationFilter extends OncePerRequestFilter {
+
+    private final IdentityService identityService;
+    private final String userHeader;
+
+    public TenantAuthenticationFilter(IdentityService identityService, String userHeader) {
+        this.identityService = identityService;
+        this.userHeader = userHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(userHeader);
+        if (!StringUtils.hasText(userId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        identityService.setAuthenticatedUserId(userId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            identityService.clearAuthentication();
+        }
+    }
+}
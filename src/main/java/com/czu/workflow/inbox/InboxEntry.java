@@ -0,0 +1,55 @@
+package com.czu.workflow.inbox;
+
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.task.IdentityLink;
+import org.camunda.bpm.engine.task.IdentityLinkType;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 待办投影中的一条未完成任务
+ */
+public record InboxEntry(String id, String name, String taskDefinitionKey, String assignee, String processInstanceId,
+                         String processDefinitionId, String tenantId, Date createTime,
+                         Set<String> candidateUsers, Set<String> candidateGroups) {
+
+    public InboxEntry {
+        candidateUsers = Set.copyOf(candidateUsers);
+        candidateGroups = Set.copyOf(candidateGroups);
+    }
+
+    /**
+     * 需在命令上下文中调用，候选人未加载时会查询 ACT_RU_IDENTITYLINK
+     */
+    static InboxEntry of(TaskEntity task) {
+        Set<String> candidateUsers = new HashSet<>();
+        Set<String> candidateGroups = new HashSet<>();
+        for (IdentityLink link : task.getCandidates()) {
+            if (!IdentityLinkType.CANDIDATE.equals(link.getType())) {
+                continue;
+            }
+            if (link.getUserId() != null) {
+                candidateUsers.add(link.getUserId());
+            }
+            if (link.getGroupId() != null) {
+                candidateGroups.add(link.getGroupId());
+            }
+        }
+        return new InboxEntry(task.getId(), task.getName(), task.getTaskDefinitionKey(), task.getAssignee(),
+                task.getProcessInstanceId(), task.getProcessDefinitionId(), task.getTenantId(), task.getCreateTime(),
+                candidateUsers, candidateGroups);
+    }
+
+    /**
+     * 除创建时间外内容相同；MySQL 的 DATETIME 只精确到秒，与内存中的创建时间比较没有意义
+     */
+    boolean sameAs(InboxEntry other) {
+        return Objects.equals(name, other.name) && Objects.equals(taskDefinitionKey, other.taskDefinitionKey)
+                && Objects.equals(assignee, other.assignee) && Objects.equals(processInstanceId, other.processInstanceId)
+                && Objects.equals(processDefinitionId, other.processDefinitionId) && Objects.equals(tenantId, other.tenantId)
+                && candidateUsers.equals(other.candidateUsers) && candidateGroups.equals(other.candidateGroups);
+    }
+}
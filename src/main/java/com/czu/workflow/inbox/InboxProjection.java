@@ -0,0 +1,287 @@
+package com.czu.workflow.inbox;
+
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 未完成任务的内存投影，按处理人、候选人、候选组、租户建索引，待办箱查询不再联表 ACT_RU_TASK 和 ACT_RU_IDENTITYLINK。
+ * 由 {@link InboxProjectionListener} 在事务提交后更新，启动时从数据库全量重建，之后定期与数据库对账修正偏差
+ * （如独立任务没有 BPMN 监听器、集群中其他节点处理的任务不经过本节点的监听器）。
+ * 每次修改带递增的版本号，对账期间被事件更新过的任务以事件为准，不会被对账开始时读到的旧数据覆盖
+ */
+@Slf4j
+public class InboxProjection implements AutoCloseable {
+    static final String SELECT_OPEN_TASKS = "com.czu.workflow.inbox.selectOpenTasks";
+    private static final Comparator<InboxEntry> NEWEST_FIRST = Comparator.comparing(InboxEntry::createTime)
+            .thenComparing(InboxEntry::id).reversed();
+
+    private record Slot(InboxEntry entry, long version) {
+    }
+
+    private final WorkflowProperties.Inbox properties;
+    private final Counter drift;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Slot> tasks = new HashMap<>();
+    /**
+     * 已移除任务的版本号，对账时据此判断数据库中仍存在的任务是否在读取之后才被移除
+     */
+    private final Map<String, Long> removed = new HashMap<>();
+    private final Map<String, Set<String>> byAssignee = new HashMap<>();
+    private final Map<String, Set<String>> byCandidateUser = new HashMap<>();
+    private final Map<String, Set<String>> byCandidateGroup = new HashMap<>();
+    private final Map<String, Set<String>> byTenant = new HashMap<>();
+    private long version;
+    private volatile boolean ready;
+    private volatile CommandExecutor commandExecutor;
+    private ScheduledExecutorService scheduler;
+
+    public InboxProjection(WorkflowProperties.Inbox properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.drift = Counter.builder("workflow.inbox.projection.drift")
+                .description("对账时修正的任务数")
+                .register(meterRegistry);
+        Gauge.builder("workflow.inbox.projection.tasks", this, InboxProjection::size)
+                .description("投影中的未完成任务数")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 引擎初始化后由 InboxProjectionPlugin 调用
+     */
+    public void bind(CommandExecutor commandExecutor) {
+        this.commandExecutor = commandExecutor;
+    }
+
+    /**
+     * 全量重建后开始定期对账；重建完成前 {@link #isReady()} 为 false，待办箱查询数据库
+     */
+    public void start() {
+        reconcile();
+        ready = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("inbox-reconcile").daemon().unstarted(runnable));
+        long interval = properties.getReconcileInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("待办投影已加载: 任务数={}, 对账间隔={}", size(), properties.getReconcileInterval());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 与 InboxServiceImpl 的数据库查询语义一致：本人办理的任务，加上未分配且候选人或候选组包含该用户的任务；
+     * tenantIds 非空时只返回这些租户的任务，否则只返回无租户的任务。按创建时间倒序
+     */
+    public List<InboxEntry> inbox(String userId, Collection<String> groupIds, Collection<String> tenantIds,
+                                  int firstResult, int maxResults) {
+        List<InboxEntry> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<String> candidates = new HashSet<>(byAssignee.getOrDefault(userId, Set.of()));
+            candidates.addAll(byCandidateUser.getOrDefault(userId, Set.of()));
+            for (String groupId : groupIds) {
+                candidates.addAll(byCandidateGroup.getOrDefault(groupId, Set.of()));
+            }
+            for (String taskId : candidates) {
+                InboxEntry entry = tasks.get(taskId).entry();
+                boolean visible = userId.equals(entry.assignee()) || entry.assignee() == null;
+                boolean inTenant = tenantIds.isEmpty()
+                        ? entry.tenantId() == null
+                        : entry.tenantId() != null && tenantIds.contains(entry.tenantId());
+                if (visible && inTenant) {
+                    result.add(entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(NEWEST_FIRST);
+        int from = Math.min(firstResult, result.size());
+        return result.subList(from, (int) Math.min((long) from + maxResults, result.size()));
+    }
+
+    /**
+     * 租户下的未完成任务数，tenantId 为 null 表示无租户的任务
+     */
+    public int countByTenant(String tenantId) {
+        lock.readLock().lock();
+        try {
+            return byTenant.getOrDefault(tenantId, Set.of()).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 应用一个已提交事务中的变更，removals 为已完成或删除的任务ID
+     */
+    void apply(Collection<InboxEntry> updates, Collection<String> removals) {
+        lock.writeLock().lock();
+        try {
+            long current = ++version;
+            updates.forEach(entry -> put(entry, current));
+            removals.forEach(taskId -> remove(taskId, current));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 读取数据库中的全部未完成任务，修正投影中缺失、多余或内容不同的任务
+     *
+     * @return 修正的任务数
+     */
+    public int reconcile() {
+        if (commandExecutor == null) {
+            throw new IllegalStateException("InboxProjectionPlugin 未注册到引擎");
+        }
+        long startVersion;
+        lock.readLock().lock();
+        try {
+            startVersion = version;
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, InboxEntry> database = load();
+        int corrected = 0;
+        lock.writeLock().lock();
+        try {
+            long current = ++version;
+            for (InboxEntry entry : database.values()) {
+                Slot slot = tasks.get(entry.id());
+                boolean changedSince = slot != null
+                        ? slot.version() > startVersion
+                        : removed.getOrDefault(entry.id(), 0L) > startVersion;
+                if (!changedSince && (slot == null || !slot.entry().sameAs(entry))) {
+                    put(entry, current);
+                    corrected++;
+                }
+            }
+            for (Slot slot : List.copyOf(tasks.values())) {
+                if (slot.version() <= startVersion && !database.containsKey(slot.entry().id())) {
+                    remove(slot.entry().id(), current);
+                    corrected++;
+                }
+            }
+            removed.values().removeIf(removedVersion -> removedVersion <= startVersion);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (corrected > 0 && ready) {
+            log.warn("待办投影与数据库不一致，已修正 {} 个任务", corrected);
+        }
+        drift.increment(ready ? corrected : 0);
+        return corrected;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("待办投影对账失败", e);
+        }
+    }
+
+    private Map<String, InboxEntry> load() {
+        List<OpenTaskRow> rows = commandExecutor.execute(commandContext ->
+                commandContext.getDbSqlSession().getSqlSession().selectList(SELECT_OPEN_TASKS));
+        Map<String, OpenTaskRow> taskRows = new LinkedHashMap<>();
+        Map<String, Set<String>> candidateUsers = new HashMap<>();
+        Map<String, Set<String>> candidateGroups = new HashMap<>();
+        for (OpenTaskRow row : rows) {
+            taskRows.putIfAbsent(row.getId(), row);
+            if (row.getCandidateUser() != null) {
+                candidateUsers.computeIfAbsent(row.getId(), id -> new HashSet<>()).add(row.getCandidateUser());
+            }
+            if (row.getCandidateGroup() != null) {
+                candidateGroups.computeIfAbsent(row.getId(), id -> new HashSet<>()).add(row.getCandidateGroup());
+            }
+        }
+        Map<String, InboxEntry> entries = new HashMap<>();
+        for (OpenTaskRow row : taskRows.values()) {
+            entries.put(row.getId(), new InboxEntry(row.getId(), row.getName(), row.getTaskDefinitionKey(),
+                    row.getAssignee(), row.getProcessInstanceId(), row.getProcessDefinitionId(), row.getTenantId(),
+                    row.getCreateTime(), candidateUsers.getOrDefault(row.getId(), Set.of()),
+                    candidateGroups.getOrDefault(row.getId(), Set.of())));
+        }
+        return entries;
+    }
+
+    private void put(InboxEntry entry, long current) {
+        Slot previous = tasks.put(entry.id(), new Slot(entry, current));
+        if (previous != null) {
+            unindex(previous.entry());
+        }
+        removed.remove(entry.id());
+        index(byAssignee, entry.assignee(), entry.id());
+        entry.candidateUsers().forEach(userId -> index(byCandidateUser, userId, entry.id()));
+        entry.candidateGroups().forEach(groupId -> index(byCandidateGroup, groupId, entry.id()));
+        index(byTenant, entry.tenantId(), entry.id());
+    }
+
+    private void remove(String taskId, long current) {
+        Slot previous = tasks.remove(taskId);
+        if (previous != null) {
+            unindex(previous.entry());
+        }
+        removed.put(taskId, current);
+    }
+
+    private void unindex(InboxEntry entry) {
+        unindex(byAssignee, entry.assignee(), entry.id());
+        entry.candidateUsers().forEach(userId -> unindex(byCandidateUser, userId, entry.id()));
+        entry.candidateGroups().forEach(groupId -> unindex(byCandidateGroup, groupId, entry.id()));
+        unindex(byTenant, entry.tenantId(), entry.id());
+    }
+
+    /**
+     * 处理人、租户为空时以 null 为键
+     */
+    private static void index(Map<String, Set<String>> index, String key, String taskId) {
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(taskId);
+    }
+
+    private static void unindex(Map<String, Set<String>> index, String key, String taskId) {
+        Set<String> taskIds = index.get(key);
+        if (taskIds != null && taskIds.remove(taskId) && taskIds.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
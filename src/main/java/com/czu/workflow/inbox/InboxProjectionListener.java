@@ -0,0 +1,58 @@
+package com.czu.workflow.inbox;
+
+import com.czu.workflow.listener.CommandScopedChanges;
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 引擎级任务监听器，由 InboxProjectionPlugin 挂到每个用户任务上，监听 create / assignment / update / complete / delete。
+ * 事件发生时只记录任务，命令结束时再按任务的最终状态生成快照（create 监听器之后设置的处理人、候选人也能反映），
+ * 事务提交后一次性写入 {@link InboxProjection}，回滚的事务不影响投影
+ */
+public class InboxProjectionListener implements TaskListener {
+    public static final List<String> EVENTS = List.of(EVENTNAME_CREATE, EVENTNAME_ASSIGNMENT, EVENTNAME_UPDATE,
+            EVENTNAME_COMPLETE, EVENTNAME_DELETE);
+
+    private final InboxProjection projection;
+    /**
+     * 一个命令内涉及的任务，值为 null 表示已完成或删除
+     */
+    private final CommandScopedChanges<Map<String, TaskEntity>> changes =
+            new CommandScopedChanges<>(LinkedHashMap::new, this::publish);
+
+    public InboxProjectionListener(InboxProjection projection) {
+        this.projection = projection;
+    }
+
+    @Override
+    public void notify(DelegateTask delegateTask) {
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null || !(delegateTask instanceof TaskEntity task)) {
+            return;
+        }
+        boolean removed = EVENTNAME_COMPLETE.equals(delegateTask.getEventName())
+                || EVENTNAME_DELETE.equals(delegateTask.getEventName());
+        changes.get(commandContext).put(task.getId(), removed ? null : task);
+    }
+
+    private Runnable publish(Map<String, TaskEntity> tasks) {
+        List<InboxEntry> updates = new ArrayList<>();
+        List<String> removals = new ArrayList<>();
+        tasks.forEach((taskId, task) -> {
+            if (task == null) {
+                removals.add(taskId);
+            } else {
+                updates.add(InboxEntry.of(task));
+            }
+        });
+        return () -> projection.apply(updates, removals);
+    }
+}
@@ -0,0 +1,22 @@
+package com.czu.workflow.inbox;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * mapping/inbox.xml 中 selectOpenTasks 的一行：未完成任务与其一条候选人 / 候选组，没有候选时两者为空
+ */
+@Data
+public class OpenTaskRow {
+    private String id;
+    private String name;
+    private String taskDefinitionKey;
+    private String assignee;
+    private String processInstanceId;
+    private String processDefinitionId;
+    private String tenantId;
+    private Date createTime;
+    private String candidateUser;
+    private String candidateGroup;
+}
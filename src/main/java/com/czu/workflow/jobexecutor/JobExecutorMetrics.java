@@ -0,0 +1,92 @@
+package com.czu.workflow.jobexecutor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 作业执行器运行指标：只做无锁累加，由调用方按需读取并换算吞吐
+ */
+public class JobExecutorMetrics {
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder executedBatches = new LongAdder();
+    private final LongAdder executedJobs = new LongAdder();
+    private final LongAdder rejectedBatches = new LongAdder();
+    private final LongAdder throttledBatches = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    void batchStarted() {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    }
+
+    void batchFinished(int jobs, long nanos) {
+        inFlight.decrementAndGet();
+        executedBatches.increment();
+        executedJobs.add(jobs);
+        executionNanos.add(nanos);
+    }
+
+    /**
+     * 总并发已满，批次交还给 RejectedJobsHandler
+     */
+    void batchRejected() {
+        rejectedBatches.increment();
+    }
+
+    /**
+     * 同一流程定义的并发已满，批次推迟到下一轮获取
+     */
+    void batchThrottled() {
+        throttledBatches.increment();
+    }
+
+    public long getExecutedJobs() {
+        return executedJobs.sum();
+    }
+
+    public long getExecutedBatches() {
+        return executedBatches.sum();
+    }
+
+    public long getRejectedBatches() {
+        return rejectedBatches.sum();
+    }
+
+    public long getThrottledBatches() {
+        return throttledBatches.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * 批次平均执行耗时（毫秒），含取作业、执行、提交
+     */
+    public double getAverageBatchMillis() {
+        long batches = executedBatches.sum();
+        return batches == 0 ? 0 : executionNanos.sum() / (double) batches / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 自启动以来每秒完成的作业数
+     */
+    public double getJobsPerSecond() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed == 0 ? 0 : executedJobs.sum() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("作业数=%d, 批次数=%d, 拒绝=%d, 限流推迟=%d, 峰值并发=%d, 平均批次耗时=%.1fms, 吞吐=%.1f/s",
+                getExecutedJobs(), getExecutedBatches(), getRejectedBatches(), getThrottledBatches(),
+                getPeakInFlight(), getAverageBatchMillis(), getJobsPerSecond());
+    }
+}
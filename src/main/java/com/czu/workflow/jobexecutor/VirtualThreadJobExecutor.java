@@ -0,0 +1,181 @@
+package com.czu.workflow.jobexecutor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在虚拟线程上执行作业的 JobExecutor。
+ * 异步作业大部分时间阻塞在 JDBC 上，平台线程池的线程数就是并发上限；虚拟线程阻塞时不占用载体线程，
+ * 并发改由信号量控制：
+ * <ul>
+ *     <li>总并发 maxConcurrentJobs：没有空闲许可时批次交给 RejectedJobsHandler，由获取线程退避</li>
+ *     <li>单个流程定义并发 maxJobsPerDefinition：避免某个流程的大量作业占满数据库连接。
+ *     已满时不等待（等待期间会占着总并发许可，挤掉其他流程的作业），作业推迟到下一轮获取</li>
+ *     <li>每次获取的作业数随空闲许可收缩，不去锁定暂时执行不了的作业</li>
+ * </ul>
+ */
+@Slf4j
+public class VirtualThreadJobExecutor extends JobExecutor {
+    /**
+     * 查不到流程定义（作业已被删除等）时使用的键，不参与单定义限流
+     */
+    private static final String UNKNOWN_DEFINITION = "";
+
+    private final int maxJobsPerDefinition;
+    private final Semaphore globalPermits;
+    private final Map<String, Semaphore> definitionPermits = new ConcurrentHashMap<>();
+    private final JobExecutorMetrics metrics = new JobExecutorMetrics();
+
+    private ExecutorService executorService;
+
+    public VirtualThreadJobExecutor(int maxConcurrentJobs, int maxJobsPerDefinition, int maxJobsPerAcquisition) {
+        this.name = "VirtualThreadJobExecutor";
+        this.maxJobsPerDefinition = maxJobsPerDefinition;
+        this.globalPermits = new Semaphore(maxConcurrentJobs);
+        this.maxJobsPerAcquisition = maxJobsPerAcquisition;
+    }
+
+    @Override
+    protected void startExecutingJobs() {
+        executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("camunda-job-", 0).factory());
+        startJobAcquisitionThread();
+        log.info("虚拟线程作业执行器已启动: 总并发={}, 单流程定义并发={}, 每次最多获取={}",
+                globalPermits.availablePermits(), maxJobsPerDefinition, maxJobsPerAcquisition);
+    }
+
+    @Override
+    protected void stopExecutingJobs() {
+        stopJobAcquisitionThread();
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
+                log.warn("等待作业执行结束超时，仍有 {} 个批次在执行", metrics.getInFlight());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("虚拟线程作业执行器已停止: {}", metrics);
+    }
+
+    /**
+     * 按当前空闲许可收缩本次获取的作业数。并发已满时获取线程先等待空闲许可（最多一个轮询间隔），
+     * 而不是锁定执行不了的作业再被拒绝、立即重试，后者会让获取线程反复查询作业表
+     */
+    @Override
+    public Command<AcquiredJobs> getAcquireJobsCmd(int numJobs) {
+        return super.getAcquireJobsCmd(Math.min(numJobs, awaitCapacity()));
+    }
+
+    private int awaitCapacity() {
+        if (globalPermits.availablePermits() == 0) {
+            try {
+                if (globalPermits.tryAcquire(waitTimeInMillis, TimeUnit.MILLISECONDS)) {
+                    globalPermits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return Math.max(1, globalPermits.availablePermits());
+    }
+
+    /**
+     * 由获取线程调用，只做非阻塞的许可检查；查询流程定义、检查单定义许可、执行作业都在虚拟线程中完成
+     */
+    @Override
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+        if (!globalPermits.tryAcquire()) {
+            metrics.batchRejected();
+            logRejectedExecution(processEngine, jobIds.size());
+            rejectedJobsHandler.jobsRejected(jobIds, processEngine, this);
+            return;
+        }
+        try {
+            executorService.execute(() -> runBatch(jobIds, processEngine));
+        } catch (RuntimeException e) {
+            globalPermits.release();
+            metrics.batchRejected();
+            logRejectedExecution(processEngine, jobIds.size());
+            rejectedJobsHandler.jobsRejected(jobIds, processEngine, this);
+        }
+    }
+
+    private void runBatch(List<String> jobIds, ProcessEngineImpl processEngine) {
+        Semaphore definitionPermit = null;
+        try {
+            // 同一批次中的作业属于同一流程实例（排他作业），取第一个即可确定流程定义
+            String definitionKey = findProcessDefinitionKey(jobIds.get(0), processEngine);
+            if (!UNKNOWN_DEFINITION.equals(definitionKey)) {
+                definitionPermit = definitionPermits.computeIfAbsent(definitionKey, key -> new Semaphore(maxJobsPerDefinition));
+                // 此时已持有总并发许可，不能等待单定义许可：同一流程定义的一批作业会占满全部总许可
+                if (!definitionPermit.tryAcquire()) {
+                    definitionPermit = null;
+                    metrics.batchThrottled();
+                    log.debug("流程定义 '{}' 并发已满，{} 个作业推迟 {} ms", definitionKey, jobIds.size(), waitTimeInMillis);
+                    deferJobs(jobIds, processEngine);
+                    return;
+                }
+            }
+            long start = System.nanoTime();
+            metrics.batchStarted();
+            try {
+                getExecuteJobsRunnable(jobIds, processEngine).run();
+            } finally {
+                metrics.batchFinished(jobIds.size(), System.nanoTime() - start);
+            }
+        } finally {
+            if (definitionPermit != null) {
+                definitionPermit.release();
+            }
+            globalPermits.release();
+        }
+    }
+
+    /**
+     * 把锁的到期时间改为一个轮询间隔之后，期间获取线程可以取到其他流程定义的作业；
+     * 直接解锁的话下一轮获取会立即取回同样的作业
+     */
+    private void deferJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+        Date lockExpiration = new Date(ClockUtil.getCurrentTime().getTime() + waitTimeInMillis);
+        for (String jobId : jobIds) {
+            try {
+                processEngine.getProcessEngineConfiguration()
+                        .getCommandExecutorTxRequiresNew()
+                        .execute(commandContext -> {
+                            JobEntity job = commandContext.getJobManager().findJobById(jobId);
+                            if (job != null && lockOwner.equals(job.getLockOwner())) {
+                                job.setLockExpirationTime(lockExpiration);
+                            }
+                            return null;
+                        });
+            } catch (RuntimeException e) {
+                log.warn("推迟作业 {} 失败，等待锁过期: {}", jobId, e.getMessage());
+            }
+        }
+    }
+
+    private String findProcessDefinitionKey(String jobId, ProcessEngineImpl processEngine) {
+        JobEntity job = processEngine.getProcessEngineConfiguration()
+                .getCommandExecutorTxRequired()
+                .execute(commandContext -> commandContext.getJobManager().findJobById(jobId));
+        return job == null || job.getProcessDefinitionKey() == null ? UNKNOWN_DEFINITION : job.getProcessDefinitionKey();
+    }
+
+    public JobExecutorMetrics getMetrics() {
+        return metrics;
+    }
+}
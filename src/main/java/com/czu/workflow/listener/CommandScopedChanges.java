@@ -0,0 +1,66 @@
+package com.czu.workflow.listener;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandContextListener;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 按命令收集监听到的变化：同一 {@link CommandContext} 内的事件记入同一个对象，命令结束时按收集结果生成发布操作，
+ * 事务提交后执行；命令失败或事务回滚时丢弃
+ *
+ * @param <C> 一个命令内收集变化的对象
+ */
+public class CommandScopedChanges<C> {
+    private final Supplier<C> factory;
+    private final Function<C, Runnable> publisher;
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    /**
+     * @param publisher 命令结束时调用，返回事务提交后执行的操作，返回 null 时不发布
+     */
+    public CommandScopedChanges(Supplier<C> factory, Function<C, Runnable> publisher) {
+        this.factory = factory;
+        this.publisher = publisher;
+    }
+
+    /**
+     * 当前命令的收集对象，命令内第一次调用时创建
+     */
+    public C get(CommandContext commandContext) {
+        Scope scope = current.get();
+        if (scope == null || scope.commandContext != commandContext) {
+            scope = new Scope(commandContext, factory.get());
+            current.set(scope);
+            commandContext.registerCommandContextListener(scope);
+        }
+        return scope.changes;
+    }
+
+    private class Scope implements CommandContextListener {
+        private final CommandContext commandContext;
+        private final C changes;
+
+        private Scope(CommandContext commandContext, C changes) {
+            this.commandContext = commandContext;
+            this.changes = changes;
+        }
+
+        @Override
+        public void onCommandContextClose(CommandContext commandContext) {
+            current.remove();
+            Runnable publish = publisher.apply(changes);
+            if (publish != null) {
+                commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTED,
+                        context -> publish.run());
+            }
+        }
+
+        @Override
+        public void onCommandFailed(CommandContext commandContext, Throwable t) {
+            current.remove();
+        }
+    }
+}
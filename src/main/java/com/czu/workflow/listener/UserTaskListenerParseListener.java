@@ -0,0 +1,40 @@
+package com.czu.workflow.listener;
+
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.bpmn.behavior.UserTaskActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.task.TaskDefinition;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 给所有用户任务挂上引擎级任务监听器，不需要在 BPMN 中逐个配置。
+ * 各插件在 preInit 中向同一个实例 {@link #register}，每个用户任务只处理一次
+ */
+public class UserTaskListenerParseListener extends AbstractBpmnParseListener {
+    private final List<Registration> registrations = new ArrayList<>();
+
+    /**
+     * @param events 监听的事件，如 {@link TaskListener#EVENTNAME_CREATE}
+     */
+    public void register(List<String> events, TaskListener listener) {
+        registrations.add(new Registration(List.copyOf(events), listener));
+    }
+
+    @Override
+    public void parseUserTask(Element userTaskElement, ScopeImpl scope, ActivityImpl activity) {
+        if (activity.getActivityBehavior() instanceof UserTaskActivityBehavior behavior) {
+            TaskDefinition taskDefinition = behavior.getTaskDefinition();
+            for (Registration registration : registrations) {
+                registration.events().forEach(event -> taskDefinition.addBuiltInTaskListener(event, registration.listener()));
+            }
+        }
+    }
+
+    private record Registration(List<String> events, TaskListener listener) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.czu.workflow.listener;
+
+import org.camunda.bpm.engine.delegate.DelegateTask;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 监听器内的变量读写批次
+ * 读：只包含监听器声明需要的变量；写：先暂存，监听器结束时用一次 setVariables 调用提交（每个变量仍各写一行）
+ */
+public class VariableBatch {
+
+    private final Map<String, Object> loaded;
+    private final Map<String, Object> pending = new LinkedHashMap<>();
+
+    VariableBatch(Map<String, Object> loaded) {
+        this.loaded = loaded;
+    }
+
+    public Object get(String name) {
+        return pending.containsKey(name) ? pending.get(name) : loaded.get(name);
+    }
+
+    /**
+     * 已加载的变量（不含本批次未提交的写入）
+     */
+    public Map<String, Object> getLoaded() {
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * 暂存写入；与已加载值相同则跳过，避免无意义的 ACT_RU_VARIABLE 更新和 ACT_HI_DETAIL 记录
+     */
+    public void set(String name, Object value) {
+        if (loaded.containsKey(name) && Objects.equals(loaded.get(name), value)) {
+            pending.remove(name);
+            return;
+        }
+        pending.put(name, value);
+    }
+
+    public Map<String, Object> getPending() {
+        return Collections.unmodifiableMap(pending);
+    }
+
+    void flush(DelegateTask delegateTask) {
+        if (!pending.isEmpty()) {
+            delegateTask.setVariables(pending);
+            pending.clear();
+        }
+    }
+}
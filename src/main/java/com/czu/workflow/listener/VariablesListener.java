@@ -2,20 +2,42 @@ package com.czu.workflow.listener;
 
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateTask;
-import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.delegate.Expression;
 
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Collection;
 
+/**
+ * 为字符串类型的流程变量追加后缀
+ * 默认与改造前相同，处理全部流程变量；通过 camunda:field name="variables" 声明变量（逗号分隔）后
+ * 只读取并处理声明的变量，未声明的字符串变量不再追加后缀，属于行为变化，由流程按需开启
+ */
 @Slf4j
-public class VariablesListener implements TaskListener {
+public class VariablesListener extends BatchingTaskListener {
+
+    /**
+     * BPMN 中注入的字段
+     */
+    private Expression variables;
+
+    @Override
+    protected Collection<String> requiredVariables(DelegateTask delegateTask) {
+        if (variables == null) {
+            return null;
+        }
+        String names = (String) variables.getValue(delegateTask);
+        return Arrays.stream(names.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
+
     @Override
-    public void notify(DelegateTask delegateTask) {
-        // 获取全流程变量
-        Map<String, Object> variables = delegateTask.getVariables();
-        variables.forEach((k, v) -> {
-            log.info("Key: {}, Value: {}", k, v);
+    protected void notify(DelegateTask delegateTask, VariableBatch batch) {
+        batch.getLoaded().forEach((k, v) -> {
+            log.debug("Key: {}, Value: {}", k, v);
             if (v instanceof String) {
-                delegateTask.setVariable(k, v + "Camunda");
+                batch.set(k, v + "Camunda");
             }
         });
     }
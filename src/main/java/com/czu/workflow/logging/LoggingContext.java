@@ -0,0 +1,37 @@
+package com.czu.workflow.logging;
+
+import org.slf4j.MDC;
+
+/**
+ * 引擎调用链写入 MDC 的键，JSON 日志中作为独立字段输出
+ */
+public final class LoggingContext {
+    public static final String COMMAND = "command";
+    public static final String PROCESS_INSTANCE_ID = "processInstanceId";
+    public static final String TASK_ID = "taskId";
+    public static final String TENANT_ID = "tenantId";
+
+    private LoggingContext() {
+    }
+
+    /**
+     * 写入新值并返回旧值，调用方在 finally 中用 {@link #restore} 还原，嵌套调用结束后恢复外层的上下文
+     */
+    static String put(String key, String value) {
+        String previous = MDC.get(key);
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value);
+        }
+        return previous;
+    }
+
+    static void restore(String key, String previous) {
+        if (previous == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, previous);
+        }
+    }
+}
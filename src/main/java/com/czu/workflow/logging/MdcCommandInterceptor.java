@@ -0,0 +1,21 @@
+package com.czu.workflow.logging;
+
+import com.czu.workflow.metrics.EngineMetrics;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+/**
+ * 前置拦截器，命令执行期间的日志带上命令名
+ */
+public class MdcCommandInterceptor extends CommandInterceptor {
+
+    @Override
+    public <T> T execute(Command<T> command) {
+        String previous = LoggingContext.put(LoggingContext.COMMAND, EngineMetrics.simpleName(command.getClass()));
+        try {
+            return next.execute(command);
+        } finally {
+            LoggingContext.restore(LoggingContext.COMMAND, previous);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.czu.workflow.logging;
+
+import com.czu.workflow.metrics.InvocationTargets;
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.impl.delegate.DelegateInvocation;
+import org.camunda.bpm.engine.impl.interceptor.DelegateInterceptor;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+
+/**
+ * 包装引擎原有的 DelegateInterceptor，监听器和委托执行期间的日志带上流程实例、任务和租户
+ */
+public class MdcDelegateInterceptor implements DelegateInterceptor {
+    private final DelegateInterceptor delegate;
+
+    public MdcDelegateInterceptor(DelegateInterceptor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handleInvocation(DelegateInvocation invocation) throws Exception {
+        ExecutionEntity execution = InvocationTargets.execution(invocation);
+        DelegateTask task = InvocationTargets.delegateTask(invocation);
+        String processInstanceId = task != null ? task.getProcessInstanceId()
+                : execution != null ? execution.getProcessInstanceId() : null;
+        String tenantId = task != null ? task.getTenantId()
+                : execution != null ? execution.getTenantId() : null;
+
+        String previousProcessInstanceId = LoggingContext.put(LoggingContext.PROCESS_INSTANCE_ID, processInstanceId);
+        String previousTaskId = LoggingContext.put(LoggingContext.TASK_ID, task != null ? task.getId() : null);
+        String previousTenantId = LoggingContext.put(LoggingContext.TENANT_ID, tenantId);
+        try {
+            delegate.handleInvocation(invocation);
+        } finally {
+            LoggingContext.restore(LoggingContext.PROCESS_INSTANCE_ID, previousProcessInstanceId);
+            LoggingContext.restore(LoggingContext.TASK_ID, previousTaskId);
+            LoggingContext.restore(LoggingContext.TENANT_ID, previousTenantId);
+        }
+    }
+}
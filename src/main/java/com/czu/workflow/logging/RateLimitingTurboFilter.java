@@ -0,0 +1,88 @@
+package com.czu.workflow.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按 logger 限流：匹配前缀的每个 logger 每秒最多输出 eventsPerSecond 条 INFO 及以下的日志，超出的直接丢弃，
+ * 下一秒第一条日志前补一条 WARN 说明丢弃数量。WARN / ERROR 不受限制。
+ * TurboFilter 在创建日志事件之前执行，被丢弃的日志不会格式化参数、也不会进入异步队列
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+    private List<String> loggerPrefixes = List.of();
+    private int eventsPerSecond = 100;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        int dropped = window.roll(System.currentTimeMillis() / 1000);
+        if (dropped > 0) {
+            logger.warn("日志限流: 上一秒丢弃 {} 条日志（上限 {} 条/秒）", dropped, eventsPerSecond);
+        }
+        if (window.count.incrementAndGet() <= eventsPerSecond) {
+            return FilterReply.NEUTRAL;
+        }
+        window.dropped.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 逗号分隔的 logger 名称前缀
+     */
+    public void setLoggerPrefixes(String loggerPrefixes) {
+        this.loggerPrefixes = Arrays.stream(loggerPrefixes.split(","))
+                .map(String::trim)
+                .filter(prefix -> !prefix.isEmpty())
+                .toList();
+    }
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    private static class Window {
+        private volatile long second;
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicInteger dropped = new AtomicInteger();
+
+        /**
+         * 进入新的一秒时清零计数，返回上一秒丢弃的数量；每秒只有一个线程进入同步块
+         */
+        int roll(long now) {
+            if (now == second) {
+                return 0;
+            }
+            synchronized (this) {
+                if (now == second) {
+                    return 0;
+                }
+                count.set(0);
+                second = now;
+                return dropped.getAndSet(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.czu.workflow.metrics;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+/**
+ * 位于命令上下文之外的前置拦截器，计时覆盖命令执行、flush 和事务提交
+ */
+public class CommandMetricsInterceptor extends CommandInterceptor {
+    private final EngineMetrics metrics;
+
+    public CommandMetricsInterceptor(EngineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> T execute(Command<T> command) {
+        String[] tags = EngineMetrics.pushCommand();
+        String outcome = "success";
+        long start = System.nanoTime();
+        try {
+            return next.execute(command);
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            EngineMetrics.popCommand();
+            metrics.recordCommand(EngineMetrics.simpleName(command.getClass()), outcome, tags, elapsed);
+        }
+    }
+}
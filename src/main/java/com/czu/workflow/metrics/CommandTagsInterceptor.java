@@ -0,0 +1,67 @@
+package com.czu.workflow.metrics;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+
+import java.util.List;
+
+/**
+ * 位于命令上下文之内的后置拦截器：命令执行完、flush 之前，从一级缓存中已加载的作业 / 执行 / 任务实体
+ * 取流程定义 key 和租户，写给外层的 {@link CommandMetricsInterceptor}。只读缓存，不产生额外查询
+ */
+public class CommandTagsInterceptor extends CommandInterceptor {
+
+    @Override
+    public <T> T execute(Command<T> command) {
+        T result = next.execute(command);
+        String[] tags = EngineMetrics.currentCommand();
+        CommandContext commandContext = Context.getCommandContext();
+        if (tags != null && commandContext != null) {
+            resolve(commandContext, tags);
+        }
+        return result;
+    }
+
+    private void resolve(CommandContext commandContext, String[] tags) {
+        DbEntityManager dbEntityManager = (DbEntityManager) commandContext.getSessions().get(DbEntityManager.class);
+        if (dbEntityManager == null) {
+            return;
+        }
+        List<JobEntity> jobs = dbEntityManager.getCachedEntitiesByType(JobEntity.class);
+        if (!jobs.isEmpty() && jobs.get(0).getProcessDefinitionKey() != null) {
+            set(tags, jobs.get(0).getProcessDefinitionKey(), jobs.get(0).getTenantId());
+            return;
+        }
+        String processDefinitionId = null;
+        String tenantId = null;
+        List<ExecutionEntity> executions = dbEntityManager.getCachedEntitiesByType(ExecutionEntity.class);
+        if (!executions.isEmpty()) {
+            processDefinitionId = executions.get(0).getProcessDefinitionId();
+            tenantId = executions.get(0).getTenantId();
+        } else {
+            List<TaskEntity> tasks = dbEntityManager.getCachedEntitiesByType(TaskEntity.class);
+            if (!tasks.isEmpty()) {
+                processDefinitionId = tasks.get(0).getProcessDefinitionId();
+                tenantId = tasks.get(0).getTenantId();
+            }
+        }
+        if (processDefinitionId != null) {
+            ProcessDefinitionEntity definition = commandContext.getProcessEngineConfiguration()
+                    .getDeploymentCache()
+                    .findProcessDefinitionFromCache(processDefinitionId);
+            set(tags, definition == null ? null : definition.getKey(), tenantId);
+        }
+    }
+
+    private static void set(String[] tags, String processDefinitionKey, String tenantId) {
+        tags[0] = processDefinitionKey == null ? EngineMetrics.NONE : processDefinitionKey;
+        tags[1] = tenantId == null ? EngineMetrics.NONE : tenantId;
+    }
+}
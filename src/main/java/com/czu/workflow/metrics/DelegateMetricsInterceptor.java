@@ -0,0 +1,88 @@
+package com.czu.workflow.metrics;
+
+import org.camunda.bpm.engine.impl.delegate.DelegateInvocation;
+import org.camunda.bpm.engine.impl.interceptor.DelegateInterceptor;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.repository.ResourceDefinitionEntity;
+import org.camunda.bpm.impl.juel.jakarta.el.ValueExpression;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 包装引擎原有的 DelegateInterceptor，为 TaskListener、ExecutionListener、JavaDelegate 和表达式调用计时
+ */
+public class DelegateMetricsInterceptor implements DelegateInterceptor {
+    private static final String INVOCATION_SUFFIX = "Invocation";
+    /**
+     * ${loadBalancedAssignee.resolve()} -> loadBalancedAssignee
+     */
+    private static final Pattern EXPRESSION_ROOT = Pattern.compile("[$#]\\{\\s*([A-Za-z_$][\\w$]*)");
+
+    private final DelegateInterceptor delegate;
+    private final EngineMetrics metrics;
+
+    public DelegateMetricsInterceptor(DelegateInterceptor delegate, EngineMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void handleInvocation(DelegateInvocation invocation) throws Exception {
+        String outcome = "success";
+        long start = System.nanoTime();
+        try {
+            delegate.handleInvocation(invocation);
+        } catch (Exception e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            String[] tags = definitionTags(invocation);
+            metrics.recordDelegate(type(invocation), target(invocation), tags[0], tags[1], outcome, elapsed);
+        }
+    }
+
+    /**
+     * 流程定义 key 与租户：优先取调用自带的上下文，任务监听器和表达式调用通常没有，退回到当前正在执行的 execution
+     */
+    private static String[] definitionTags(DelegateInvocation invocation) {
+        ResourceDefinitionEntity<?> resource = invocation.getContextResource();
+        if (resource != null) {
+            return new String[]{resource.getKey(), orNone(resource.getTenantId())};
+        }
+        ExecutionEntity execution = InvocationTargets.execution(invocation);
+        if (execution == null || execution.getProcessDefinition() == null) {
+            return new String[]{EngineMetrics.NONE, EngineMetrics.NONE};
+        }
+        return new String[]{execution.getProcessDefinition().getKey(), orNone(execution.getTenantId())};
+    }
+
+    private static String orNone(String value) {
+        return value == null ? EngineMetrics.NONE : value;
+    }
+
+    /**
+     * TaskListenerInvocation -> TaskListener
+     */
+    private static String type(DelegateInvocation invocation) {
+        String name = invocation.getClass().getSimpleName();
+        return name.endsWith(INVOCATION_SUFFIX) ? name.substring(0, name.length() - INVOCATION_SUFFIX.length()) : name;
+    }
+
+    /**
+     * 被调用的监听器 / 委托类，例如 VariablesListener、AssigneeListener；
+     * 表达式取根标识符（Bean 或变量名），不用表达式原文作标签值
+     */
+    private static String target(DelegateInvocation invocation) {
+        Object target = InvocationTargets.get(invocation);
+        if (target == null) {
+            return EngineMetrics.NONE;
+        }
+        if (target instanceof ValueExpression expression) {
+            Matcher root = EXPRESSION_ROOT.matcher(expression.getExpressionString());
+            return root.find() ? root.group(1) : "expression";
+        }
+        return EngineMetrics.simpleName(target.getClass());
+    }
+}
@@ -0,0 +1,89 @@
+package com.czu.workflow.metrics;
+
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.context.BpmnExecutionContext;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.delegate.DelegateInvocation;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityBehavior;
+import org.camunda.bpm.impl.juel.jakarta.el.ValueExpression;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * 取出 DelegateInvocation 中被调用的对象及其上下文。各 Invocation 子类只以 protected 字段保存监听器 / 委托实例
+ * 和 DelegateTask，按字段类型查找一次后缓存在 ClassValue 中；指标和日志的 DelegateInterceptor 共用
+ */
+public final class InvocationTargets {
+    private static final List<Class<?>> TARGET_TYPES = List.of(
+            TaskListener.class,
+            ExecutionListener.class,
+            JavaDelegate.class,
+            ActivityBehavior.class,
+            ValueExpression.class);
+
+    private static final ClassValue<Field> TARGET_FIELDS = fieldOfType(TARGET_TYPES);
+
+    private static final ClassValue<Field> DELEGATE_TASK_FIELDS = fieldOfType(List.of(DelegateTask.class));
+
+    private InvocationTargets() {
+    }
+
+    /**
+     * 被调用的监听器、委托、ActivityBehavior 或表达式
+     */
+    public static Object get(DelegateInvocation invocation) {
+        return read(TARGET_FIELDS, invocation);
+    }
+
+    /**
+     * 任务监听器调用中的任务，其他调用返回 null
+     */
+    public static DelegateTask delegateTask(DelegateInvocation invocation) {
+        return (DelegateTask) read(DELEGATE_TASK_FIELDS, invocation);
+    }
+
+    /**
+     * 调用自带的 execution；任务监听器和表达式调用通常没有，退回到当前正在执行的 execution
+     */
+    public static ExecutionEntity execution(DelegateInvocation invocation) {
+        if (invocation.getContextExecution() instanceof ExecutionEntity executionEntity) {
+            return executionEntity;
+        }
+        BpmnExecutionContext executionContext = Context.getBpmnExecutionContext();
+        return executionContext == null ? null : executionContext.getExecution();
+    }
+
+    private static Object read(ClassValue<Field> fields, DelegateInvocation invocation) {
+        Field field = fields.get(invocation.getClass());
+        if (field == null) {
+            return null;
+        }
+        try {
+            return field.get(invocation);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static ClassValue<Field> fieldOfType(List<Class<?>> types) {
+        return new ClassValue<>() {
+            @Override
+            protected Field computeValue(Class<?> type) {
+                for (Class<?> current = type; current != null && current != DelegateInvocation.class; current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        if (types.stream().anyMatch(targetType -> targetType.isAssignableFrom(field.getType()))) {
+                            field.setAccessible(true);
+                            return field;
+                        }
+                    }
+                }
+                return null;
+            }
+        };
+    }
+}
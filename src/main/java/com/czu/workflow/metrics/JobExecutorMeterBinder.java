@@ -0,0 +1,44 @@
+package com.czu.workflow.metrics;
+
+import com.czu.workflow.jobexecutor.JobExecutorMetrics;
+import com.czu.workflow.jobexecutor.VirtualThreadJobExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+
+/**
+ * 导出虚拟线程作业执行器的计数；使用 starter 默认执行器时不注册
+ */
+public class JobExecutorMeterBinder implements MeterBinder {
+    private final JobExecutor jobExecutor;
+
+    public JobExecutorMeterBinder(JobExecutor jobExecutor) {
+        this.jobExecutor = jobExecutor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(jobExecutor instanceof VirtualThreadJobExecutor virtualThreadJobExecutor)) {
+            return;
+        }
+        JobExecutorMetrics metrics = virtualThreadJobExecutor.getMetrics();
+        FunctionCounter.builder("workflow.job.executed", metrics, JobExecutorMetrics::getExecutedJobs)
+                .description("已执行的作业数")
+                .register(registry);
+        FunctionCounter.builder("workflow.job.rejected", metrics, JobExecutorMetrics::getRejectedBatches)
+                .description("总并发已满被拒绝的批次数")
+                .register(registry);
+        FunctionCounter.builder("workflow.job.throttled", metrics, JobExecutorMetrics::getThrottledBatches)
+                .description("单流程定义并发已满、推迟到下一轮获取的批次数")
+                .register(registry);
+        Gauge.builder("workflow.job.in.flight", metrics, JobExecutorMetrics::getInFlight)
+                .description("正在执行的批次数")
+                .register(registry);
+        Gauge.builder("workflow.job.batch.average", metrics, JobExecutorMetrics::getAverageBatchMillis)
+                .description("批次平均执行耗时")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.czu.workflow.metrics;
+
+import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+import org.camunda.bpm.engine.impl.db.PersistenceSession;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+
+import java.util.List;
+
+/**
+ * 记录每次 flush 的实体操作数和 SQL 执行耗时；没有写操作的 flush（只读命令）不记录
+ */
+public class MetricsDbEntityManager extends DbEntityManager {
+    private final EngineMetrics metrics;
+
+    public MetricsDbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession, EngineMetrics metrics) {
+        super(idGenerator, persistenceSession);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void flushDbOperations(List<DbOperation> operationsToFlush, List<DbOperation> allOperations) {
+        if (operationsToFlush.isEmpty()) {
+            super.flushDbOperations(operationsToFlush, allOperations);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            super.flushDbOperations(operationsToFlush, allOperations);
+        } finally {
+            metrics.recordFlush(operationsToFlush.size(), System.nanoTime() - start);
+        }
+    }
+}
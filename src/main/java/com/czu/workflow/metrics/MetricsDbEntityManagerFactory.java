@@ -0,0 +1,25 @@
+package com.czu.workflow.metrics;
+
+import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.PersistenceSession;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
+
+/**
+ * 与默认工厂相同，只是创建 {@link MetricsDbEntityManager}
+ */
+public class MetricsDbEntityManagerFactory extends DbEntityManagerFactory {
+    private final EngineMetrics metrics;
+
+    public MetricsDbEntityManagerFactory(IdGenerator idGenerator, EngineMetrics metrics) {
+        super(idGenerator);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public DbEntityManager openSession() {
+        PersistenceSession persistenceSession = Context.getCommandContext().getSession(PersistenceSession.class);
+        return new MetricsDbEntityManager(idGenerator, persistenceSession, metrics);
+    }
+}
@@ -0,0 +1,35 @@
+package com.czu.workflow.notification;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * 把订阅写到 SSE 连接：事件名为通知类型，事件 ID 为任务 ID
+ */
+public class SseEmitterSink implements TaskNotificationBroadcaster.Sink {
+    private final SseEmitter emitter;
+
+    public SseEmitterSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(TaskNotification notification) throws IOException {
+        emitter.send(SseEmitter.event()
+                .name(notification.type())
+                .id(notification.taskId())
+                .data(notification, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment(""));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
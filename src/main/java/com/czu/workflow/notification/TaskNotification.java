@@ -0,0 +1,65 @@
+package com.czu.workflow.notification;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.task.IdentityLink;
+import org.camunda.bpm.engine.task.IdentityLinkType;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 推送给订阅者的任务事件，type 即 SSE 的事件名。
+ * users / groups 是接收者，不随事件发送
+ */
+public record TaskNotification(String type, String taskId, String name, String taskDefinitionKey,
+                               String processInstanceId, String tenantId, String assignee, Date time,
+                               @JsonIgnore Set<String> users, @JsonIgnore Set<String> groups) {
+    public static final String CREATED = "task-created";
+    public static final String ASSIGNED = "task-assigned";
+    public static final String COMPLETED = "task-completed";
+    public static final String DELETED = "task-deleted";
+
+    public TaskNotification {
+        users = Set.copyOf(users);
+        groups = Set.copyOf(groups);
+    }
+
+    /**
+     * 需在命令上下文中调用。新建且已有处理人的任务只通知处理人；
+     * 其他情况通知处理人、原处理人和全部候选人 / 候选组，以便各自的待办列表移除或加入该任务
+     */
+    static TaskNotification of(String type, TaskEntity task, String previousAssignee) {
+        Set<String> users = new HashSet<>();
+        Set<String> groups = new HashSet<>();
+        if (task.getAssignee() != null) {
+            users.add(task.getAssignee());
+        }
+        if (previousAssignee != null) {
+            users.add(previousAssignee);
+        }
+        if (!CREATED.equals(type) || task.getAssignee() == null) {
+            for (IdentityLink link : task.getCandidates()) {
+                if (!IdentityLinkType.CANDIDATE.equals(link.getType())) {
+                    continue;
+                }
+                if (link.getUserId() != null) {
+                    users.add(link.getUserId());
+                }
+                if (link.getGroupId() != null) {
+                    groups.add(link.getGroupId());
+                }
+            }
+        }
+        return new TaskNotification(type, task.getId(), task.getName(), task.getTaskDefinitionKey(),
+                task.getProcessInstanceId(), task.getTenantId(), task.getAssignee(), new Date(), users, groups);
+    }
+
+    /**
+     * 与待办箱一致：没有租户的用户只接收公共任务的事件
+     */
+    boolean visibleTo(Set<String> tenantIds) {
+        return tenantIds.isEmpty() ? tenantId == null : tenantId != null && tenantIds.contains(tenantId);
+    }
+}
@@ -0,0 +1,185 @@
+package com.czu.workflow.notification;
+
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 把任务事件推送给订阅的用户。按用户和分组索引订阅，事务提交后 {@link #publish(List)} 只向每个接收者的有界队列 offer，
+ * 不在引擎线程上做网络 IO；每个订阅由一个虚拟线程取出事件写给客户端，空闲时只是阻塞在队列上，上万个空闲连接开销很小。
+ * 队列满说明客户端跟不上，直接断开，由客户端重连后重新加载待办箱，不在服务端无限堆积
+ */
+@Slf4j
+public class TaskNotificationBroadcaster implements AutoCloseable {
+
+    /**
+     * 写给客户端的通道，只在订阅自己的虚拟线程上调用
+     */
+    public interface Sink {
+        void send(TaskNotification notification) throws IOException;
+
+        /**
+         * 空闲时定期发送，尽早发现已断开的连接，也避免代理关闭空闲连接
+         */
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    private final WorkflowProperties.Notifications properties;
+    private final Map<String, Set<Subscription>> byUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscription>> byGroup = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final Counter delivered;
+    private final Counter dropped;
+    private volatile boolean closed;
+
+    public TaskNotificationBroadcaster(WorkflowProperties.Notifications properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.delivered = Counter.builder("workflow.notifications.delivered")
+                .description("写给客户端的任务事件数")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("workflow.notifications.dropped")
+                .description("因客户端队列已满而断开的订阅数")
+                .register(meterRegistry);
+        Gauge.builder("workflow.notifications.subscribers", subscriptions, AtomicInteger::get)
+                .description("当前订阅数")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 订阅数达到 max-subscribers 时抛出 IllegalStateException
+     */
+    public Subscription subscribe(String userId, Collection<String> groupIds, Collection<String> tenantIds, Sink sink) {
+        if (closed) {
+            throw new IllegalStateException("通知服务已关闭");
+        }
+        if (subscriptions.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriptions.decrementAndGet();
+            throw new IllegalStateException("订阅数已达上限 " + properties.getMaxSubscribers());
+        }
+        Subscription subscription = new Subscription(userId, Set.copyOf(groupIds), Set.copyOf(tenantIds), sink);
+        byUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        for (String groupId : subscription.groupIds) {
+            byGroup.computeIfAbsent(groupId, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        subscription.thread = Thread.ofVirtual().name("task-notify-" + userId).start(subscription::run);
+        return subscription;
+    }
+
+    /**
+     * 由 TaskNotificationListener 在事务提交后调用，不阻塞
+     */
+    public void publish(List<TaskNotification> notifications) {
+        for (TaskNotification notification : notifications) {
+            // 同一用户可能既是候选人又在候选组中，每个订阅只投递一次
+            Set<Subscription> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+            notification.users().forEach(userId -> targets.addAll(byUser.getOrDefault(userId, Set.of())));
+            notification.groups().forEach(groupId -> targets.addAll(byGroup.getOrDefault(groupId, Set.of())));
+            for (Subscription subscription : targets) {
+                if (notification.visibleTo(subscription.tenantIds) && !subscription.offer(notification)) {
+                    dropped.increment();
+                    log.warn("用户 '{}' 的通知队列已满（{}），断开订阅", subscription.userId, properties.getQueueCapacity());
+                    subscription.close();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return subscriptions.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        byUser.values().forEach(userSubscriptions -> List.copyOf(userSubscriptions).forEach(Subscription::close));
+    }
+
+    private static void remove(Map<String, Set<Subscription>> index, String key, Subscription subscription) {
+        index.computeIfPresent(key, (k, keySubscriptions) -> {
+            keySubscriptions.remove(subscription);
+            return keySubscriptions.isEmpty() ? null : keySubscriptions;
+        });
+    }
+
+    /**
+     * 一个客户端连接。客户端断开、写入失败或队列溢出时关闭
+     */
+    public final class Subscription implements AutoCloseable {
+        private final String userId;
+        private final Set<String> groupIds;
+        private final Set<String> tenantIds;
+        private final Sink sink;
+        private final BlockingQueue<TaskNotification> queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile Thread thread;
+
+        private Subscription(String userId, Set<String> groupIds, Set<String> tenantIds, Sink sink) {
+            this.userId = userId;
+            this.groupIds = groupIds;
+            this.tenantIds = tenantIds;
+            this.sink = sink;
+        }
+
+        private boolean offer(TaskNotification notification) {
+            return done.get() || queue.offer(notification);
+        }
+
+        private void run() {
+            Duration heartbeatInterval = properties.getHeartbeatInterval();
+            try {
+                // 立即写出响应头，客户端据此确认订阅已建立
+                sink.heartbeat();
+                while (!done.get()) {
+                    TaskNotification notification = queue.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (notification == null) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send(notification);
+                        delivered.increment();
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("用户 '{}' 的通知连接已断开: {}", userId, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            remove(byUser, userId, this);
+            groupIds.forEach(groupId -> remove(byGroup, groupId, this));
+            subscriptions.decrementAndGet();
+            Thread current = thread;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+            sink.close();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.czu.workflow.notification;
+
+import com.czu.workflow.listener.CommandScopedChanges;
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyChange;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 引擎级任务监听器，由 TaskNotificationPlugin 挂到每个用户任务上，监听 create / assignment / complete / delete。
+ * 一个命令内同一任务只产生一条事件：新建后又分配仍是 task-created，新建后又完成则不通知。
+ * 新建和分配在命令结束时按任务的最终状态生成事件，完成和删除在事件发生时生成（之后候选人已被删除），
+ * 事务提交后交给 {@link TaskNotificationBroadcaster}，回滚的事务不推送
+ */
+public class TaskNotificationListener implements TaskListener {
+    public static final List<String> EVENTS = List.of(EVENTNAME_CREATE, EVENTNAME_ASSIGNMENT, EVENTNAME_COMPLETE,
+            EVENTNAME_DELETE);
+
+    private final TaskNotificationBroadcaster broadcaster;
+    private final CommandScopedChanges<Changes> changes = new CommandScopedChanges<>(Changes::new, Changes::publish);
+
+    public TaskNotificationListener(TaskNotificationBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void notify(DelegateTask delegateTask) {
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null || !(delegateTask instanceof TaskEntity task)) {
+            return;
+        }
+        changes.get(commandContext).record(task, delegateTask.getEventName());
+    }
+
+    private static String previousAssignee(TaskEntity task) {
+        PropertyChange change = task.getPropertyChanges().get(TaskEntity.ASSIGNEE);
+        return change == null ? null : (String) change.getOrgValue();
+    }
+
+    /**
+     * 一个命令内的任务变化
+     */
+    private record Change(String type, TaskEntity task, String previousAssignee, TaskNotification notification) {
+    }
+
+    private class Changes {
+        private final Map<String, Change> tasks = new LinkedHashMap<>();
+
+        private void record(TaskEntity task, String eventName) {
+            Change change = tasks.get(task.getId());
+            switch (eventName) {
+                case EVENTNAME_CREATE -> tasks.put(task.getId(), new Change(TaskNotification.CREATED, task, null, null));
+                case EVENTNAME_ASSIGNMENT -> {
+                    if (change == null) {
+                        tasks.put(task.getId(), new Change(TaskNotification.ASSIGNED, task, previousAssignee(task), null));
+                    }
+                }
+                case EVENTNAME_COMPLETE, EVENTNAME_DELETE -> {
+                    if (change != null && TaskNotification.CREATED.equals(change.type())) {
+                        tasks.remove(task.getId());
+                        return;
+                    }
+                    String type = EVENTNAME_COMPLETE.equals(eventName) ? TaskNotification.COMPLETED : TaskNotification.DELETED;
+                    String previousAssignee = change == null ? null : change.previousAssignee();
+                    tasks.put(task.getId(), new Change(type, task, previousAssignee,
+                            TaskNotification.of(type, task, previousAssignee)));
+                }
+                default -> {
+                }
+            }
+        }
+
+        private Runnable publish() {
+            List<TaskNotification> notifications = new ArrayList<>(tasks.size());
+            for (Change change : tasks.values()) {
+                notifications.add(change.notification() != null
+                        ? change.notification()
+                        : TaskNotification.of(change.type(), change.task(), change.previousAssignee()));
+            }
+            return notifications.isEmpty() ? null : () -> broadcaster.publish(notifications);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.czu.workflow.pagination;
+
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.task.Task;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按 (时间, ID) 倒序的游标分页查询，语句见 mapping/keyset.xml。
+ * 与 listPage 的 OFFSET 不同，翻到第几页都只扫描游标之后的 limit 条索引记录；
+ * 同样按当前 Authentication 做租户校验，不做授权校验（本项目未开启授权）
+ */
+public class KeysetQueries {
+    public static final String MAPPING_RESOURCE = "mapping/keyset.xml";
+    private static final String NAMESPACE = "com.czu.workflow.pagination.";
+
+    private volatile CommandExecutor commandExecutor;
+
+    /**
+     * 引擎初始化后由 KeysetPaginationPlugin 调用
+     */
+    public void bind(CommandExecutor commandExecutor) {
+        this.commandExecutor = commandExecutor;
+    }
+
+    /**
+     * 运行时任务，按创建时间倒序
+     */
+    public List<Task> selectTasks(String assignee, String processDefinitionKey, PageCursor after, int limit) {
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("assignee", assignee);
+        parameter.put("processDefinitionKey", processDefinitionKey);
+        return select("selectTasksAfter", parameter, after, limit);
+    }
+
+    /**
+     * 流程实例（含已结束的），按开始时间倒序；运行时执行表没有时间列，因此查历史表
+     */
+    public List<HistoricProcessInstance> selectProcessInstances(String processDefinitionKey, Boolean finished,
+                                                                PageCursor after, int limit) {
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("processDefinitionKey", processDefinitionKey);
+        parameter.put("finished", finished);
+        return select("selectHistoricProcessInstancesAfter", parameter, after, limit);
+    }
+
+    /**
+     * 历史任务，按开始时间倒序
+     */
+    public List<HistoricTaskInstance> selectHistoricTasks(String assignee, String processDefinitionKey, Boolean finished,
+                                                          PageCursor after, int limit) {
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("assignee", assignee);
+        parameter.put("processDefinitionKey", processDefinitionKey);
+        parameter.put("finished", finished);
+        return select("selectHistoricTaskInstancesAfter", parameter, after, limit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> select(String statement, Map<String, Object> parameter, PageCursor after, int limit) {
+        if (commandExecutor == null) {
+            throw new IllegalStateException("KeysetPaginationPlugin 未注册到引擎");
+        }
+        if (after != null) {
+            parameter.put("cursorTime", after.time());
+            parameter.put("cursorId", after.id());
+        }
+        return commandExecutor.execute(commandContext -> {
+            ListQueryParameterObject query = new ListQueryParameterObject(parameter, 0, limit);
+            commandContext.getTenantManager().configureQuery(query);
+            return (List<T>) commandContext.getDbEntityManager().selectList(NAMESPACE + statement, query);
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.czu.workflow.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 游标分页的位置：上一页最后一条记录的排序时间和 ID。
+ * 对外以不透明的续页令牌传递，令牌中带有查询类型，不能拿到其他接口上使用
+ */
+public record PageCursor(Date time, String id) {
+    private static final String SEPARATOR = "\n";
+
+    public String encode(String type) {
+        String value = type + SEPARATOR + time.getTime() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException 令牌格式错误或不属于该类型的查询
+     */
+    public static PageCursor decode(String token, String type) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的续页令牌", e);
+        }
+        if (parts.length != 3 || !parts[0].equals(type) || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("无效的续页令牌");
+        }
+        try {
+            return new PageCursor(new Date(Long.parseLong(parts[1])), parts[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的续页令牌", e);
+        }
+    }
+}
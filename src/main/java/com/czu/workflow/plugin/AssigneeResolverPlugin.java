@@ -0,0 +1,22 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.assignee.AssigneeResolverParseListener;
+import com.czu.workflow.assignee.AssigneeResolvers;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 注册 {@link AssigneeResolverParseListener}，用户任务的处理人表达式在部署解析时绑定到解析器
+ */
+public class AssigneeResolverPlugin extends AbstractProcessEnginePlugin {
+    private final AssigneeResolvers resolvers;
+
+    public AssigneeResolverPlugin(AssigneeResolvers resolvers) {
+        this.resolvers = resolvers;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        ParseListeners.append(processEngineConfiguration, new AssigneeResolverParseListener(resolvers));
+    }
+}
@@ -0,0 +1,86 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.history.AsyncHistoryWriter;
+import com.czu.workflow.history.BufferedHistoryEventHandler;
+import com.czu.workflow.history.HistoryEventBufferFactory;
+import com.czu.workflow.history.HistoryWriteMetrics;
+import com.czu.workflow.history.MappedHistoryStore;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用 {@link BufferedHistoryEventHandler} 替换默认的历史事件处理器，异步模式下启动 {@link AsyncHistoryWriter}，
+ * variable-store 为 mapped 时打开 {@link MappedHistoryStore}
+ */
+public class BufferedHistoryPlugin extends AbstractProcessEnginePlugin {
+    private final BufferedHistoryEventHandler handler;
+    private final AsyncHistoryWriter writer;
+    private final MappedHistoryStore store;
+
+    public BufferedHistoryPlugin(WorkflowProperties.History properties, HistoryWriteMetrics metrics) {
+        HistoryEventHandler dbHandler = new DbHistoryEventHandler();
+        this.writer = properties.isAsync() ? new AsyncHistoryWriter(dbHandler, metrics, properties) : null;
+        this.store = "mapped".equals(properties.getVariableStore())
+                ? new MappedHistoryStore(Path.of(properties.getVariableStoreDirectory()),
+                properties.getVariableStoreSegmentSize().toBytes(), properties.getVariableStoreRetention())
+                : null;
+        if (store != null) {
+            store.open();
+        }
+        this.handler = new BufferedHistoryEventHandler(dbHandler, metrics, writer, store);
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        List<HistoryEventHandler> handlers = processEngineConfiguration.getCustomHistoryEventHandlers() == null
+                ? new ArrayList<>()
+                : new ArrayList<>(processEngineConfiguration.getCustomHistoryEventHandlers());
+        handlers.add(handler);
+        processEngineConfiguration.setCustomHistoryEventHandlers(handlers);
+        processEngineConfiguration.setEnableDefaultDbHistoryEventHandler(false);
+
+        List<SessionFactory> sessionFactories = processEngineConfiguration.getCustomSessionFactories() == null
+                ? new ArrayList<>()
+                : new ArrayList<>(processEngineConfiguration.getCustomSessionFactories());
+        sessionFactories.add(new HistoryEventBufferFactory(handler));
+        processEngineConfiguration.setCustomSessionFactories(sessionFactories);
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        if (writer != null) {
+            MybatisMappings.load(processEngineConfiguration, AsyncHistoryWriter.MAPPING_RESOURCE);
+            writer.bind(processEngineConfiguration.getCommandExecutorTxRequiresNew());
+        }
+    }
+
+    @Override
+    public void postProcessEngineBuild(ProcessEngine processEngine) {
+        if (writer != null) {
+            writer.start();
+        }
+    }
+
+    /**
+     * 同步模式下为 null
+     */
+    public AsyncHistoryWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * 变量历史写入数据库时为 null
+     */
+    public MappedHistoryStore getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,21 @@
+package com.czu.workflow.plugin;
+
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 在 preInit 中追加自定义命令拦截器。引擎配置中的列表可能为空或不可修改，统一复制后追加
+ */
+final class CommandInterceptors {
+
+    private CommandInterceptors() {
+    }
+
+    static List<CommandInterceptor> append(List<CommandInterceptor> interceptors, CommandInterceptor interceptor) {
+        List<CommandInterceptor> result = interceptors == null ? new ArrayList<>() : new ArrayList<>(interceptors);
+        result.add(interceptor);
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.cache.DefinitionCache;
+import com.czu.workflow.cache.DefinitionCacheFactory;
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.commons.utils.cache.Cache;
+
+import java.util.List;
+
+/**
+ * 用 {@link DefinitionCacheFactory} 替换引擎部署缓存的实现；初始化后按用途为各缓存绑定指标（tag cache=process-definition 等），
+ * 引擎构建后预热固定 Key 的最新版本（各租户）
+ */
+@Slf4j
+public class DefinitionCachePlugin extends AbstractProcessEnginePlugin {
+    private final DefinitionCacheFactory cacheFactory;
+    private final List<String> pinnedKeys;
+    private final MeterRegistry meterRegistry;
+
+    public DefinitionCachePlugin(WorkflowProperties.DefinitionCache properties, MeterRegistry meterRegistry) {
+        this.cacheFactory = new DefinitionCacheFactory(properties);
+        this.pinnedKeys = properties.getPinnedKeys();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        processEngineConfiguration.setCacheFactory(cacheFactory);
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+        bind(deploymentCache.getProcessDefinitionCache(), "process-definition");
+        bind(deploymentCache.getBpmnModelInstanceCache(), "bpmn-model");
+        bind(deploymentCache.getCaseDefinitionCache(), "case-definition");
+        bind(deploymentCache.getCmmnModelInstanceCache(), "cmmn-model");
+        bind(deploymentCache.getDecisionDefinitionCache(), "decision-definition");
+        bind(deploymentCache.getDecisionRequirementsDefinitionCache(), "decision-requirements");
+        bind(deploymentCache.getDmnDefinitionCache(), "dmn-model");
+    }
+
+    @Override
+    public void postProcessEngineBuild(ProcessEngine processEngine) {
+        warmUp(processEngine.getRepositoryService());
+    }
+
+    /**
+     * 加载固定 Key 的最新版本，使其常驻缓存；尚未部署的 Key 跳过
+     */
+    public int warmUp(RepositoryService repositoryService) {
+        int warmed = 0;
+        for (String key : pinnedKeys) {
+            for (ProcessDefinition definition : repositoryService.createProcessDefinitionQuery()
+                    .processDefinitionKey(key)
+                    .latestVersion()
+                    .list()) {
+                repositoryService.getProcessDefinition(definition.getId());
+                repositoryService.getBpmnModelInstance(definition.getId());
+                warmed++;
+            }
+        }
+        if (warmed > 0) {
+            log.info("已预热固定的流程定义: {} 个, keys={}", warmed, pinnedKeys);
+        }
+        return warmed;
+    }
+
+    public DefinitionCacheFactory getCacheFactory() {
+        return cacheFactory;
+    }
+
+    private void bind(Cache<String, ?> cache, String name) {
+        if (cache instanceof DefinitionCache<?> definitionCache) {
+            definitionCache.bindMetrics(meterRegistry, name);
+        }
+    }
+}
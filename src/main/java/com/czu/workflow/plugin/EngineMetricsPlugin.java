@@ -0,0 +1,42 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.metrics.CommandMetricsInterceptor;
+import com.czu.workflow.metrics.CommandTagsInterceptor;
+import com.czu.workflow.metrics.DelegateMetricsInterceptor;
+import com.czu.workflow.metrics.EngineMetrics;
+import com.czu.workflow.metrics.MetricsDbEntityManagerFactory;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+
+/**
+ * 引擎指标：命令、委托调用、flush，见 {@link EngineMetrics}
+ */
+public class EngineMetricsPlugin extends AbstractProcessEnginePlugin {
+    private final EngineMetrics metrics;
+
+    public EngineMetricsPlugin(EngineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        processEngineConfiguration.setCustomPreCommandInterceptorsTxRequired(CommandInterceptors.append(
+                processEngineConfiguration.getCustomPreCommandInterceptorsTxRequired(), new CommandMetricsInterceptor(metrics)));
+        processEngineConfiguration.setCustomPreCommandInterceptorsTxRequiresNew(CommandInterceptors.append(
+                processEngineConfiguration.getCustomPreCommandInterceptorsTxRequiresNew(), new CommandMetricsInterceptor(metrics)));
+        processEngineConfiguration.setCustomPostCommandInterceptorsTxRequired(CommandInterceptors.append(
+                processEngineConfiguration.getCustomPostCommandInterceptorsTxRequired(), new CommandTagsInterceptor()));
+        processEngineConfiguration.setCustomPostCommandInterceptorsTxRequiresNew(CommandInterceptors.append(
+                processEngineConfiguration.getCustomPostCommandInterceptorsTxRequiresNew(), new CommandTagsInterceptor()));
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        // 会话工厂和 DelegateInterceptor 在 init 中创建，此时替换 / 包装
+        processEngineConfiguration.getSessionFactories().put(DbEntityManager.class,
+                new MetricsDbEntityManagerFactory(processEngineConfiguration.getIdGenerator(), metrics));
+        processEngineConfiguration.setDelegateInterceptor(
+                new DelegateMetricsInterceptor(processEngineConfiguration.getDelegateInterceptor(), metrics));
+    }
+}
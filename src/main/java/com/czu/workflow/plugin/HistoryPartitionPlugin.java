@@ -0,0 +1,33 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.history.HistoryPartitionManager;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 为未设置 historyTimeToLive 的流程定义提供默认值（如 候选组分配任务.bpmn），使其历史记录也有删除时间；
+ * 启用分区时把删除时间策略改为 start，历史记录插入时即写入 REMOVAL_TIME_，流程结束时不再回写，
+ * 记录不会在分区之间移动，过期后由 {@link HistoryPartitionManager} 整个分区删除
+ */
+@Slf4j
+public class HistoryPartitionPlugin extends AbstractProcessEnginePlugin {
+    private final WorkflowProperties.HistoryPartition properties;
+
+    public HistoryPartitionPlugin(WorkflowProperties.HistoryPartition properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        if (processEngineConfiguration.getHistoryTimeToLive() == null) {
+            processEngineConfiguration.setHistoryTimeToLive(String.valueOf(properties.getDefaultTimeToLiveDays()));
+        }
+        if (properties.isEnabled()) {
+            processEngineConfiguration.setHistoryRemovalTimeStrategy(ProcessEngineConfiguration.HISTORY_REMOVAL_TIME_STRATEGY_START);
+            log.info("历史表按删除时间分区: 删除时间策略=start, 默认保留天数={}", processEngineConfiguration.getHistoryTimeToLive());
+        }
+    }
+}
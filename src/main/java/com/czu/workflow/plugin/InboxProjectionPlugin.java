@@ -0,0 +1,38 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.inbox.InboxProjection;
+import com.czu.workflow.inbox.InboxProjectionListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 待办投影，见 {@link InboxProjection}：注册给所有用户任务挂监听器的解析监听器，加载全量读取的映射语句。
+ * 投影在引擎构建后才能加载，由 Application 中依赖引擎的 Bean 启动
+ */
+public class InboxProjectionPlugin extends AbstractProcessEnginePlugin {
+    static final String MAPPING_RESOURCE = "mapping/inbox.xml";
+
+    private final InboxProjection projection;
+
+    public InboxProjectionPlugin(WorkflowProperties.Inbox properties, MeterRegistry meterRegistry) {
+        this.projection = new InboxProjection(properties, meterRegistry);
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        ParseListeners.addUserTaskListener(processEngineConfiguration, InboxProjectionListener.EVENTS,
+                new InboxProjectionListener(projection));
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        MybatisMappings.load(processEngineConfiguration, MAPPING_RESOURCE);
+        projection.bind(processEngineConfiguration.getCommandExecutorTxRequired());
+    }
+
+    public InboxProjection getProjection() {
+        return projection;
+    }
+}
@@ -0,0 +1,22 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.pagination.KeysetQueries;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 把游标分页语句加入引擎的 MyBatis 配置，见 {@link KeysetQueries}
+ */
+public class KeysetPaginationPlugin extends AbstractProcessEnginePlugin {
+    private final KeysetQueries keysetQueries;
+
+    public KeysetPaginationPlugin(KeysetQueries keysetQueries) {
+        this.keysetQueries = keysetQueries;
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        MybatisMappings.load(processEngineConfiguration, KeysetQueries.MAPPING_RESOURCE);
+        keysetQueries.bind(processEngineConfiguration.getCommandExecutorTxRequired());
+    }
+}
@@ -0,0 +1,26 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.logging.MdcCommandInterceptor;
+import com.czu.workflow.logging.MdcDelegateInterceptor;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 引擎执行期间把命令名、流程实例、任务和租户写入 MDC，见 {@link com.czu.workflow.logging.LoggingContext}
+ */
+public class LoggingContextPlugin extends AbstractProcessEnginePlugin {
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        processEngineConfiguration.setCustomPreCommandInterceptorsTxRequired(CommandInterceptors.append(
+                processEngineConfiguration.getCustomPreCommandInterceptorsTxRequired(), new MdcCommandInterceptor()));
+        processEngineConfiguration.setCustomPreCommandInterceptorsTxRequiresNew(CommandInterceptors.append(
+                processEngineConfiguration.getCustomPreCommandInterceptorsTxRequiresNew(), new MdcCommandInterceptor()));
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        processEngineConfiguration.setDelegateInterceptor(
+                new MdcDelegateInterceptor(processEngineConfiguration.getDelegateInterceptor()));
+    }
+}
@@ -0,0 +1,23 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.identity.CachingIdentityService;
+import com.czu.workflow.identity.MembershipCache;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 用带成员关系缓存的 {@link CachingIdentityService} 替换引擎默认的 IdentityService
+ */
+public class MembershipCachePlugin extends AbstractProcessEnginePlugin {
+
+    private final MembershipCache membershipCache;
+
+    public MembershipCachePlugin(MembershipCache membershipCache) {
+        this.membershipCache = membershipCache;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        processEngineConfiguration.setIdentityService(new CachingIdentityService(membershipCache));
+    }
+}
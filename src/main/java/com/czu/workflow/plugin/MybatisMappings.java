@@ -0,0 +1,35 @@
+package com.czu.workflow.plugin;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.session.Configuration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 把项目的 MyBatis 映射文件加入引擎的配置。需在 postInit 中调用，此时引擎的映射文件和 limitBefore 等按数据库类型的变量都已就绪，
+ * 项目语句可以引用引擎的 resultMap 和 sql 片段
+ */
+final class MybatisMappings {
+
+    private MybatisMappings() {
+    }
+
+    static void load(ProcessEngineConfigurationImpl processEngineConfiguration, String resource) {
+        Configuration configuration = processEngineConfiguration.getSqlSessionFactory().getConfiguration();
+        // 开启 useSharedSqlSessionFactory 时多个引擎共用同一份配置
+        if (configuration.isResourceLoaded(resource)) {
+            return;
+        }
+        try (InputStream inputStream = MybatisMappings.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("找不到 " + resource);
+            }
+            new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments()).parse();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
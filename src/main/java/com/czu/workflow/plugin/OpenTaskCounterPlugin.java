@@ -0,0 +1,38 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.assignee.OpenTaskCounter;
+import com.czu.workflow.assignee.OpenTaskCounterListener;
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 用户未完成任务计数，见 {@link OpenTaskCounter}：注册给所有用户任务挂监听器的解析监听器，加载统计语句。
+ * 计数在引擎构建后才能加载，由 Application 中依赖引擎的 Bean 启动
+ */
+public class OpenTaskCounterPlugin extends AbstractProcessEnginePlugin {
+    static final String MAPPING_RESOURCE = "mapping/assignment.xml";
+
+    private final OpenTaskCounter counter;
+
+    public OpenTaskCounterPlugin(WorkflowProperties.Assignment properties, MeterRegistry meterRegistry) {
+        this.counter = new OpenTaskCounter(properties, meterRegistry);
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        ParseListeners.addUserTaskListener(processEngineConfiguration, OpenTaskCounterListener.EVENTS,
+                new OpenTaskCounterListener(counter));
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        MybatisMappings.load(processEngineConfiguration, MAPPING_RESOURCE);
+        counter.bind(processEngineConfiguration.getCommandExecutorTxRequired());
+    }
+
+    public OpenTaskCounter getCounter() {
+        return counter;
+    }
+}
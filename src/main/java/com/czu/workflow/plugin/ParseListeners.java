@@ -0,0 +1,45 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.listener.UserTaskListenerParseListener;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 在 preInit 中追加自定义的 BPMN 解析监听器。引擎配置中的列表可能为空或不可修改，统一复制后追加
+ */
+final class ParseListeners {
+
+    private ParseListeners() {
+    }
+
+    static void append(ProcessEngineConfigurationImpl processEngineConfiguration, BpmnParseListener parseListener) {
+        List<BpmnParseListener> parseListeners = processEngineConfiguration.getCustomPostBPMNParseListeners() == null
+                ? new ArrayList<>()
+                : new ArrayList<>(processEngineConfiguration.getCustomPostBPMNParseListeners());
+        parseListeners.add(parseListener);
+        processEngineConfiguration.setCustomPostBPMNParseListeners(parseListeners);
+    }
+
+    /**
+     * 给所有用户任务挂上任务监听器；各插件共用已注册的 {@link UserTaskListenerParseListener}
+     */
+    static void addUserTaskListener(ProcessEngineConfigurationImpl processEngineConfiguration, List<String> events,
+                                    TaskListener listener) {
+        List<BpmnParseListener> parseListeners = processEngineConfiguration.getCustomPostBPMNParseListeners();
+        if (parseListeners != null) {
+            for (BpmnParseListener parseListener : parseListeners) {
+                if (parseListener instanceof UserTaskListenerParseListener shared) {
+                    shared.register(events, listener);
+                    return;
+                }
+            }
+        }
+        UserTaskListenerParseListener shared = new UserTaskListenerParseListener();
+        shared.register(events, listener);
+        append(processEngineConfiguration, shared);
+    }
+}
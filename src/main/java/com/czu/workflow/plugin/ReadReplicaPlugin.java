@@ -0,0 +1,23 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.replica.ReplicaRoutingInterceptor;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 查询命令读副本，见 {@link ReplicaRoutingInterceptor}。
+ * 自定义前置拦截器排在事务拦截器之前；只加入 TxRequired 链，查询都走该链，TxRequiresNew 链上的作业获取等仍用主库
+ */
+public class ReadReplicaPlugin extends AbstractProcessEnginePlugin {
+    private final ReplicaRoutingInterceptor interceptor;
+
+    public ReadReplicaPlugin(ReplicaRoutingInterceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        processEngineConfiguration.setCustomPreCommandInterceptorsTxRequired(CommandInterceptors.append(
+                processEngineConfiguration.getCustomPreCommandInterceptorsTxRequired(), interceptor));
+    }
+}
@@ -0,0 +1,33 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.sqlprofile.SqlProfileCommandInterceptor;
+import com.czu.workflow.sqlprofile.SqlProfiler;
+import com.czu.workflow.sqlprofile.SqlProfilerInterceptor;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 按命令采样的 SQL 分析，见 {@link SqlProfiler}
+ */
+public class SqlProfilerPlugin extends AbstractProcessEnginePlugin {
+    private final SqlProfiler profiler;
+
+    public SqlProfilerPlugin(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        processEngineConfiguration.setCustomPreCommandInterceptorsTxRequired(CommandInterceptors.append(
+                processEngineConfiguration.getCustomPreCommandInterceptorsTxRequired(), new SqlProfileCommandInterceptor(profiler)));
+        processEngineConfiguration.setCustomPreCommandInterceptorsTxRequiresNew(CommandInterceptors.append(
+                processEngineConfiguration.getCustomPreCommandInterceptorsTxRequiresNew(), new SqlProfileCommandInterceptor(profiler)));
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        // SqlSessionFactory 在 init 中创建
+        processEngineConfiguration.getSqlSessionFactory().getConfiguration()
+                .addInterceptor(new SqlProfilerInterceptor(profiler));
+    }
+}
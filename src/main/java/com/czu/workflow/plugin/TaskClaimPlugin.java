@@ -0,0 +1,23 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.claim.TaskClaimer;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 领取下一个任务，见 {@link TaskClaimer}：加载选取候选任务的映射语句，按数据库类型确定领取方式
+ */
+public class TaskClaimPlugin extends AbstractProcessEnginePlugin {
+    private final TaskClaimer taskClaimer;
+
+    public TaskClaimPlugin(TaskClaimer taskClaimer) {
+        this.taskClaimer = taskClaimer;
+    }
+
+    @Override
+    public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        MybatisMappings.load(processEngineConfiguration, TaskClaimer.MAPPING_RESOURCE);
+        taskClaimer.bind(processEngineConfiguration.getCommandExecutorTxRequired(),
+                processEngineConfiguration.getDatabaseType());
+    }
+}
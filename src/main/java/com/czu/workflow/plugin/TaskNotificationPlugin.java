@@ -0,0 +1,23 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.notification.TaskNotificationBroadcaster;
+import com.czu.workflow.notification.TaskNotificationListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 任务事件推送，见 {@link TaskNotificationBroadcaster}：注册给所有用户任务挂监听器的解析监听器
+ */
+public class TaskNotificationPlugin extends AbstractProcessEnginePlugin {
+    private final TaskNotificationBroadcaster broadcaster;
+
+    public TaskNotificationPlugin(TaskNotificationBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        ParseListeners.addUserTaskListener(processEngineConfiguration, TaskNotificationListener.EVENTS,
+                new TaskNotificationListener(broadcaster));
+    }
+}
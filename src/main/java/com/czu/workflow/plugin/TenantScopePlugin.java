@@ -0,0 +1,17 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.identity.AuthenticatedTenantIdProvider;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * 引擎默认开启租户校验：设置了 Authentication 后，TaskQuery / ProcessInstanceQuery / ProcessDefinitionQuery
+ * 自动限定为用户所属租户及公共数据；本插件让新发起的实例由 {@link AuthenticatedTenantIdProvider} 打上租户
+ */
+public class TenantScopePlugin extends AbstractProcessEnginePlugin {
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        processEngineConfiguration.setTenantIdProvider(new AuthenticatedTenantIdProvider());
+    }
+}
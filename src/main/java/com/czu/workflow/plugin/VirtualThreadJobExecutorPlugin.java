@@ -0,0 +1,53 @@
+package com.czu.workflow.plugin;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.jobexecutor.VirtualThreadJobExecutor;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+
+import javax.sql.DataSource;
+
+/**
+ * 用 {@link VirtualThreadJobExecutor} 替换 starter 默认的线程池作业执行器。
+ * starter 的 camundaJobConfiguration 同样在 preInit 中设置执行器，本插件未指定顺序，排在其后执行；
+ * 执行器同时以 JobExecutor 类型注册为 Bean（见 Application），starter 不再创建默认执行器，由其启动监听器和健康检查使用本执行器。
+ * 作业执行期间一直占用连接，并发超过连接池时多出的虚拟线程只会排队等连接，因此并发上限不超过连接池大小减去预留
+ */
+@Slf4j
+public class VirtualThreadJobExecutorPlugin extends AbstractProcessEnginePlugin {
+    /**
+     * 给获取线程和接口请求预留的连接数
+     */
+    private static final int RESERVED_CONNECTIONS = 2;
+
+    private final VirtualThreadJobExecutor jobExecutor;
+
+    public VirtualThreadJobExecutorPlugin(WorkflowProperties.JobExecutor properties, DataSource dataSource) {
+        int maxConcurrentJobs = properties.getMaxConcurrentJobs();
+        // 启用只读副本时 dataSource 是路由数据源，取其中主库的连接池
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (hikari != null) {
+            int limit = Math.max(1, hikari.getMaximumPoolSize() - RESERVED_CONNECTIONS);
+            if (maxConcurrentJobs > limit) {
+                log.warn("workflow.job-executor.max-concurrent-jobs={} 超过连接池可用连接数，按 {} 执行", maxConcurrentJobs, limit);
+                maxConcurrentJobs = limit;
+            }
+        }
+        this.jobExecutor = new VirtualThreadJobExecutor(
+                maxConcurrentJobs,
+                Math.min(properties.getMaxJobsPerDefinition(), maxConcurrentJobs),
+                properties.getMaxJobsPerAcquisition());
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        processEngineConfiguration.setJobExecutor(jobExecutor);
+    }
+
+    public VirtualThreadJobExecutor getJobExecutor() {
+        return jobExecutor;
+    }
+}
@@ -0,0 +1,48 @@
+package com.czu.workflow.replica;
+
+import com.czu.workflow.config.WorkflowProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * 把 Spring Boot 创建的 dataSource Bean 包装为 {@link ReplicaRoutingDataSource}。
+ * 不另外声明 DataSource Bean，否则 Spring Boot 不再自动配置主库；包装后事务管理器、引擎和健康检查拿到的都是同一个路由数据源，
+ * 连接池指标等通过 unwrap 取到主库的 HikariDataSource
+ */
+public class ReplicaDataSourcePostProcessor implements BeanPostProcessor {
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final WorkflowProperties.ReadReplica properties;
+
+    public ReplicaDataSourcePostProcessor(WorkflowProperties.ReadReplica properties) {
+        if (!StringUtils.hasText(properties.getUrl())) {
+            throw new IllegalStateException("workflow.read-replica.enabled=true 时必须配置 workflow.read-replica.url");
+        }
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource primary && !(bean instanceof ReplicaRoutingDataSource)) {
+            return new ReplicaRoutingDataSource(primary, createReplica());
+        }
+        return bean;
+    }
+
+    private DataSource createReplica() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(properties.getUrl());
+        replica.setUsername(properties.getUsername());
+        replica.setPassword(properties.getPassword());
+        if (StringUtils.hasText(properties.getDriverClassName())) {
+            replica.setDriverClassName(properties.getDriverClassName());
+        }
+        replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        return replica;
+    }
+}
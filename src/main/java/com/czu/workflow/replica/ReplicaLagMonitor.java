@@ -0,0 +1,138 @@
+package com.czu.workflow.replica;
+
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 估算副本的复制延迟：定期向主库的 ACT_GE_PROPERTY 写入当前时间作为心跳，再从副本读回，
+ * 当前时间减去副本上的心跳时间即为副本数据最多落后的时长（含心跳间隔）。
+ * 不依赖具体数据库的复制状态命令，副本上没有心跳或读取失败时视为延迟未知，所有查询走主库
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+    static final String HEARTBEAT_PROPERTY = "workflow.replica.heartbeat";
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration heartbeatInterval;
+    private volatile long lagMillis = UNKNOWN;
+    private boolean heartbeatFailing;
+    private boolean refreshed;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource dataSource, WorkflowProperties.ReadReplica properties,
+                             MeterRegistry meterRegistry) {
+        this.primary = dataSource.getPrimary();
+        this.replica = dataSource.getReplica();
+        this.heartbeatInterval = properties.getHeartbeatInterval();
+        Gauge.builder("workflow.replica.lag", this, monitor -> monitor.lagMillis == UNKNOWN ? Double.NaN : monitor.lagMillis / 1000.0)
+                .description("副本相对主库的延迟，未知时为 NaN")
+                .baseUnit("seconds")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("replica-heartbeat").daemon().unstarted(runnable));
+        scheduler.scheduleWithFixedDelay(this::check, 0, heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("只读副本延迟检测已启动: 心跳间隔={}", heartbeatInterval);
+    }
+
+    public void check() {
+        heartbeat();
+        refresh();
+    }
+
+    /**
+     * 副本延迟，未知时为 null
+     */
+    public Duration lag() {
+        long lag = lagMillis;
+        return lag == UNKNOWN ? null : Duration.ofMillis(lag);
+    }
+
+    /**
+     * 副本延迟已知且不超过 tolerance
+     */
+    public boolean isWithin(Duration tolerance) {
+        return lagMillis <= tolerance.toMillis();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    void heartbeat() {
+        String now = Long.toString(System.currentTimeMillis());
+        try (Connection connection = primary.getConnection()) {
+            int updated;
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "update ACT_GE_PROPERTY set VALUE_ = ?, REV_ = REV_ + 1 where NAME_ = ?")) {
+                statement.setString(1, now);
+                statement.setString(2, HEARTBEAT_PROPERTY);
+                updated = statement.executeUpdate();
+            }
+            if (updated == 0) {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "insert into ACT_GE_PROPERTY (NAME_, VALUE_, REV_) values (?, ?, 1)")) {
+                    statement.setString(1, HEARTBEAT_PROPERTY);
+                    statement.setString(2, now);
+                    statement.executeUpdate();
+                }
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            if (heartbeatFailing) {
+                log.info("副本心跳恢复写入");
+                heartbeatFailing = false;
+            }
+        } catch (SQLException e) {
+            // 每个间隔都会重试，只在开始失败时记录一次
+            if (!heartbeatFailing) {
+                log.warn("写入副本心跳失败: {}", e.getMessage());
+                heartbeatFailing = true;
+            }
+        }
+    }
+
+    void refresh() {
+        long lag = UNKNOWN;
+        String failure = "副本上没有心跳";
+        try (Connection connection = replica.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select VALUE_ from ACT_GE_PROPERTY where NAME_ = ?")) {
+            statement.setString(1, HEARTBEAT_PROPERTY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    lag = Math.max(0, System.currentTimeMillis() - Long.parseLong(resultSet.getString(1)));
+                }
+            }
+        } catch (SQLException | NumberFormatException e) {
+            failure = e.getMessage();
+        }
+        if (lag == UNKNOWN && (lagMillis != UNKNOWN || !refreshed)) {
+            log.warn("副本延迟未知，查询改走主库: {}", failure);
+        } else if (lag != UNKNOWN && lagMillis == UNKNOWN) {
+            log.info("副本延迟恢复可测: {}ms", lag);
+        }
+        lagMillis = lag;
+        refreshed = true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.czu.workflow.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 主库 / 只读副本路由数据源：默认取主库连接，仅在 {@link ReplicaRoutingInterceptor} 标记的查询命令内取副本连接。
+ * 替换 Spring Boot 的 dataSource Bean（见 {@link ReplicaDataSourcePostProcessor}），引擎与应用的事务管理器使用同一个实例，
+ * 已绑定到事务的连接不受路由影响
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+    private static final ThreadLocal<Boolean> REPLICA_ROUTE = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    static void routeToReplica(boolean replica) {
+        if (replica) {
+            REPLICA_ROUTE.set(Boolean.TRUE);
+        } else {
+            REPLICA_ROUTE.remove();
+        }
+    }
+
+    static boolean isRoutedToReplica() {
+        return REPLICA_ROUTE.get() != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return isRoutedToReplica() ? REPLICA : PRIMARY;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    /**
+     * 替换后 Spring 只能推断出本对象的 close，由此关闭两个连接池
+     */
+    @Override
+    public void close() throws Exception {
+        try {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        } finally {
+            if (primary instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.czu.workflow.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 把配置的查询命令路由到只读副本。查询对象本身就是命令（AbstractQuery 实现 Command），
+ * 按类名识别查询类型：TaskQueryImpl -> task，HistoricDetailQueryImpl -> historic-detail，TenantQueryImpl -> tenant。
+ * 只处理最外层命令且当前线程没有进行中的事务，嵌套在其他命令或事务中的查询与写入共用主库连接；
+ * 副本延迟超过该类查询的容忍度时仍查主库。需注册在事务拦截器之前，使事务开始时取到的就是副本连接
+ */
+public class ReplicaRoutingInterceptor extends CommandInterceptor {
+    private static final String QUERY_SUFFIX = "QueryImpl";
+
+    private final Map<String, Duration> tolerances;
+    private final ReplicaLagMonitor monitor;
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Optional<String>> queryTypes = new ConcurrentHashMap<>();
+
+    /**
+     * @param tolerances 查询类型 -> 可容忍的副本延迟
+     */
+    public ReplicaRoutingInterceptor(Map<String, Duration> tolerances, ReplicaLagMonitor monitor, MeterRegistry meterRegistry) {
+        this.tolerances = Map.copyOf(tolerances);
+        this.monitor = monitor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <T> T execute(Command<T> command) {
+        if (Context.getCommandContext() != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return next.execute(command);
+        }
+        String queryType = queryTypes.computeIfAbsent(command.getClass(), this::queryType).orElse(null);
+        if (queryType == null) {
+            return next.execute(command);
+        }
+        boolean replica = monitor.isWithin(tolerances.get(queryType));
+        Counter.builder("workflow.replica.queries")
+                .description("按路由目标统计的查询命令数")
+                .tag("query", queryType)
+                .tag("target", replica ? "replica" : "primary")
+                .register(meterRegistry)
+                .increment();
+        if (!replica) {
+            return next.execute(command);
+        }
+        ReplicaRoutingDataSource.routeToReplica(true);
+        try {
+            return next.execute(command);
+        } finally {
+            ReplicaRoutingDataSource.routeToReplica(false);
+        }
+    }
+
+    /**
+     * 沿父类查找已配置的查询类型，如 DbTenantQueryImpl 按 TenantQueryImpl 匹配
+     */
+    private Optional<String> queryType(Class<?> commandClass) {
+        for (Class<?> type = commandClass; type != null; type = type.getSuperclass()) {
+            String name = type.getSimpleName();
+            if (name.endsWith(QUERY_SUFFIX)) {
+                String queryType = name.substring(0, name.length() - QUERY_SUFFIX.length())
+                        .replaceAll("([a-z0-9])([A-Z])", "$1-$2")
+                        .toLowerCase(Locale.ROOT);
+                if (tolerances.containsKey(queryType)) {
+                    return Optional.of(queryType);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -1,8 +1,17 @@
 package com.czu.workflow.service;
 
-import org.springframework.stereotype.Service;
+import com.czu.workflow.assignee.AssigneeContext;
+import com.czu.workflow.assignee.AssigneeResolver;
 
 
-public interface BeanTestService {
+public interface BeanTestService extends AssigneeResolver {
     public String getAssignee();
+
+    /**
+     * 任务分配-bean.bpmn 中的 ${BeanTestService.getAssignee()} 在部署时绑定到此方法
+     */
+    @Override
+    default String resolve(AssigneeContext context) {
+        return getAssignee();
+    }
 }
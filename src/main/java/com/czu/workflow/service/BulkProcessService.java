@@ -0,0 +1,15 @@
+package com.czu.workflow.service;
+
+import com.czu.workflow.dto.BulkResult;
+import com.czu.workflow.dto.BulkStartRow;
+
+import java.util.Iterator;
+
+public interface BulkProcessService {
+
+    /**
+     * 批量启动流程实例：边读边按 chunkSize 分块提交，不要求一次性把所有行读入内存。
+     * 返回结果中只保留失败行的明细
+     */
+    public BulkResult startAll(String processDefinitionKey, Iterator<BulkStartRow> rows, int chunkSize);
+}
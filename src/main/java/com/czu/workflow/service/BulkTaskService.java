@@ -0,0 +1,14 @@
+package com.czu.workflow.service;
+
+import com.czu.workflow.dto.BulkCompleteItem;
+import com.czu.workflow.dto.BulkResult;
+
+import java.util.List;
+
+public interface BulkTaskService {
+
+    /**
+     * 批量完成任务：按 chunkSize 分块，每块一个事务；某个任务冲突只影响该任务
+     */
+    public BulkResult completeAll(List<BulkCompleteItem> items, int chunkSize);
+}
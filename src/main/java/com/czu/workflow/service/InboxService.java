@@ -0,0 +1,17 @@
+package com.czu.workflow.service;
+
+import com.czu.workflow.dto.InboxPage;
+import com.czu.workflow.dto.InboxTask;
+
+public interface InboxService {
+
+    /**
+     * 查询用户待办箱：本人办理 + 候选人 + 候选组任务，一次查询完成
+     */
+    public InboxPage getInbox(String userId, int firstResult, int maxResults);
+
+    /**
+     * 领取下一个任务：拾取用户可领取的最早创建的候选任务，没有可领取的任务时返回 null
+     */
+    public InboxTask claimNext(String userId);
+}
@@ -0,0 +1,25 @@
+package com.czu.workflow.service;
+
+import com.czu.workflow.dto.HistoricTaskItem;
+import com.czu.workflow.dto.InboxTask;
+import com.czu.workflow.dto.KeysetPage;
+import com.czu.workflow.dto.ProcessInstanceItem;
+
+public interface PageService {
+
+    /**
+     * 运行时任务，按创建时间倒序；next 为上一页返回的续页令牌，首页传 null
+     */
+    public KeysetPage<InboxTask> getTasks(String assignee, String processDefinitionKey, String next, int limit);
+
+    /**
+     * 流程实例，按开始时间倒序；finished 为 null 时不区分是否结束
+     */
+    public KeysetPage<ProcessInstanceItem> getProcessInstances(String processDefinitionKey, Boolean finished, String next, int limit);
+
+    /**
+     * 历史任务，按开始时间倒序
+     */
+    public KeysetPage<HistoricTaskItem> getHistoricTasks(String assignee, String processDefinitionKey, Boolean finished,
+                                                         String next, int limit);
+}
@@ -1,8 +1,10 @@
 package com.czu.workflow.service.impl;
 
 import com.czu.workflow.service.BeanTestService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service("BeanTestService")
 public class BeanTestServiceImpl implements BeanTestService {
     /**
@@ -12,7 +14,7 @@ public class BeanTestServiceImpl implements BeanTestService {
      */
     @Override
     public String getAssignee() {
-        System.out.println("Bean调用获取处理人");
+        log.debug("Bean调用获取处理人");
         return "demo";
     }
 }
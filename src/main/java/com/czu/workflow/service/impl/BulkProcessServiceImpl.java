@@ -0,0 +1,133 @@
+package com.czu.workflow.service.impl;
+
+import com.czu.workflow.dto.BulkItemResult;
+import com.czu.workflow.dto.BulkResult;
+import com.czu.workflow.dto.BulkStartRow;
+import com.czu.workflow.service.BulkProcessService;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.repository.ProcessDefinitionQuery;
+import org.camunda.bpm.engine.runtime.ProcessInstantiationBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+public class BulkProcessServiceImpl implements BulkProcessService {
+    /**
+     * 无租户流程定义在缓存中的键
+     */
+    private static final String NO_TENANT = "";
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private ProcessEngineConfigurationImpl processEngineConfiguration;
+
+    /**
+     * 每个租户只查询一次最新版本的流程定义，之后按定义ID启动，省去每个实例一次的定义查询；
+     * 同一块中的实例在一个命令上下文里启动，命令结束时统一 flush，插入语句由引擎按 JDBC batch 提交（MySQL 连接串需带 rewriteBatchedStatements=true，见 application.yaml）。
+     * 整块失败时回滚该块并逐条重试，只把真正出错的行记为失败
+     */
+    @Override
+    public BulkResult startAll(String processDefinitionKey, Iterator<BulkStartRow> rows, int chunkSize) {
+        long start = System.currentTimeMillis();
+        BulkResult result = new BulkResult();
+        Map<String, String> definitionIds = new HashMap<>();
+        List<PreparedStart> chunk = new ArrayList<>(chunkSize);
+        int chunkIndex = 0;
+        while (rows.hasNext()) {
+            BulkStartRow row = rows.next();
+            try {
+                String definitionId = definitionIds.computeIfAbsent(tenantKey(row.getTenantId()),
+                        tenant -> resolveDefinitionId(processDefinitionKey, row.getTenantId()));
+                chunk.add(new PreparedStart(definitionId, row));
+            } catch (RuntimeException e) {
+                result.add(BulkItemResult.failure(row.getBusinessKey(), e));
+            }
+            if (chunk.size() == chunkSize) {
+                startChunk(chunk, chunkIndex++, result, start);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            startChunk(chunk, chunkIndex, result, start);
+        }
+        result.finish(System.currentTimeMillis() - start);
+        log.info("批量启动流程 '{}': 总数={}, 成功={}, 失败={}, 逐条重试块数={}, 耗时={}ms, 吞吐={}/s",
+                processDefinitionKey, result.getTotal(), result.getSucceeded(), result.getFailed(),
+                result.getChunksRetried(), result.getElapsedMillis(), String.format("%.1f", result.getThroughputPerSecond()));
+        return result;
+    }
+
+    private void startChunk(List<PreparedStart> chunk, int chunkIndex, BulkResult result, long start) {
+        try {
+            processEngineConfiguration.getCommandExecutorTxRequired().execute(commandContext -> {
+                chunk.forEach(this::startInstance);
+                return null;
+            });
+            result.addSucceeded(chunk.size());
+        } catch (RuntimeException e) {
+            log.debug("批量启动第 {} 块整体失败，逐条重试: {}", chunkIndex, e.getMessage());
+            result.setChunksRetried(result.getChunksRetried() + 1);
+            for (PreparedStart prepared : chunk) {
+                try {
+                    startInstance(prepared);
+                    result.addSucceeded(1);
+                } catch (RuntimeException ex) {
+                    log.warn("业务Key {} 启动失败: {}", prepared.row().getBusinessKey(), ex.getMessage());
+                    result.add(BulkItemResult.failure(prepared.row().getBusinessKey(), ex));
+                }
+            }
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("批量启动进度: 已处理 {} 条 (失败 {}), 当前吞吐 {}/s",
+                result.getTotal(), result.getFailed(),
+                String.format("%.1f", elapsed == 0 ? result.getTotal() : result.getTotal() * 1000.0 / elapsed));
+    }
+
+    private void startInstance(PreparedStart prepared) {
+        ProcessInstantiationBuilder builder = runtimeService.createProcessInstanceById(prepared.definitionId())
+                .businessKey(prepared.row().getBusinessKey());
+        if (prepared.row().getVariables() != null) {
+            builder.setVariables(prepared.row().getVariables());
+        }
+        builder.execute();
+    }
+
+    private String resolveDefinitionId(String processDefinitionKey, String tenantId) {
+        ProcessDefinitionQuery query = repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(processDefinitionKey)
+                .latestVersion();
+        if (tenantId == null || tenantId.isEmpty()) {
+            query.withoutTenantId();
+        } else {
+            query.tenantIdIn(tenantId);
+        }
+        ProcessDefinition definition = query.singleResult();
+        if (definition == null) {
+            throw new IllegalArgumentException("租户 '" + tenantId + "' 下不存在流程定义: " + processDefinitionKey);
+        }
+        return definition.getId();
+    }
+
+    private static String tenantKey(String tenantId) {
+        return tenantId == null ? NO_TENANT : tenantId;
+    }
+
+    private record PreparedStart(String definitionId, BulkStartRow row) {
+    }
+}
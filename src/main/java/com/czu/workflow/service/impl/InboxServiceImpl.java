@@ -0,0 +1,99 @@
+package com.czu.workflow.service.impl;
+
+import com.czu.workflow.claim.TaskClaimer;
+import com.czu.workflow.dto.InboxPage;
+import com.czu.workflow.dto.InboxTask;
+import com.czu.workflow.identity.MembershipCache;
+import com.czu.workflow.inbox.InboxEntry;
+import com.czu.workflow.inbox.InboxProjection;
+import com.czu.workflow.service.InboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.task.TaskQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Slf4j
+@Service
+public class InboxServiceImpl implements InboxService {
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MembershipCache membershipCache;
+
+    @Autowired
+    private TaskClaimer taskClaimer;
+
+    /**
+     * workflow.inbox.projection=false 时不存在
+     */
+    @Autowired(required = false)
+    private InboxProjection inboxProjection;
+
+    /**
+     * 投影已加载时直接从 {@link InboxProjection} 读取；否则
+     * 先从缓存解析用户的分组和租户，再用 or 查询合并 assignee / candidateUser / candidateGroup 三类任务，
+     * 替代按分组循环的 taskCandidateGroup 查询
+     */
+    @Override
+    public InboxPage getInbox(String userId, int firstResult, int maxResults) {
+        // 多取一条判断是否还有下一页，maxResults 为 Integer.MAX_VALUE 时加一会溢出
+        if (firstResult < 0 || maxResults < 1 || maxResults == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("firstResult 不能小于 0，maxResults 取值范围为 1 ~ " + (Integer.MAX_VALUE - 1)
+                    + ": firstResult=" + firstResult + ", maxResults=" + maxResults);
+        }
+        List<String> groupIds = membershipCache.getGroupIds(userId);
+        if (inboxProjection != null && inboxProjection.isReady()) {
+            List<InboxEntry> entries = inboxProjection.inbox(userId, groupIds, membershipCache.getTenantIds(userId),
+                    firstResult, maxResults + 1);
+            boolean hasMore = entries.size() > maxResults;
+            List<InboxTask> page = entries.stream()
+                    .limit(maxResults)
+                    .map(InboxTask::of)
+                    .toList();
+            return new InboxPage(userId, firstResult, maxResults, hasMore, page);
+        }
+        String[] tenantIds = membershipCache.getTenantIds(userId).toArray(String[]::new);
+
+        // or() 返回的是内层查询，必须使用 endOr() 的返回值继续构造外层条件
+        TaskQuery orQuery = taskService.createTaskQuery()
+                .or()
+                .taskAssignee(userId)
+                .taskCandidateUser(userId);
+        if (!groupIds.isEmpty()) {
+            orQuery.taskCandidateGroupIn(groupIds);
+        }
+        TaskQuery taskQuery = orQuery.endOr();
+
+        // 与 TenantTest.queryAllTasksByCurrentUser 保持一致：无租户的用户只能看到公共任务
+        if (tenantIds.length > 0) {
+            taskQuery.tenantIdIn(tenantIds);
+        } else {
+            taskQuery.withoutTenantId();
+        }
+
+        List<Task> tasks = taskQuery
+                .orderByTaskCreateTime().desc()
+                .listPage(firstResult, maxResults + 1);
+        boolean hasMore = tasks.size() > maxResults;
+        List<InboxTask> page = tasks.stream()
+                .limit(maxResults)
+                .map(InboxTask::of)
+                .toList();
+        log.debug("用户 '{}' 待办箱: 分组数={}, 租户数={}, 本页任务数={}", userId, groupIds.size(), tenantIds.length, page.size());
+        return new InboxPage(userId, firstResult, maxResults, hasMore, page);
+    }
+
+    /**
+     * 分组和租户与待办箱查询取自同一缓存，领取范围与待办箱一致
+     */
+    @Override
+    public InboxTask claimNext(String userId) {
+        Task task = taskClaimer.claimNext(userId, membershipCache.getGroupIds(userId), membershipCache.getTenantIds(userId));
+        return task != null ? InboxTask.of(task) : null;
+    }
+}
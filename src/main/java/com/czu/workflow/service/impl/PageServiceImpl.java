@@ -0,0 +1,66 @@
+package com.czu.workflow.service.impl;
+
+import com.czu.workflow.dto.HistoricTaskItem;
+import com.czu.workflow.dto.InboxTask;
+import com.czu.workflow.dto.KeysetPage;
+import com.czu.workflow.dto.ProcessInstanceItem;
+import com.czu.workflow.pagination.KeysetQueries;
+import com.czu.workflow.pagination.PageCursor;
+import com.czu.workflow.service.PageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+@Service
+public class PageServiceImpl implements PageService {
+    private static final String TASK = "task";
+    private static final String PROCESS_INSTANCE = "process-instance";
+    private static final String HISTORIC_TASK = "historic-task";
+
+    @Autowired
+    private KeysetQueries keysetQueries;
+
+    @Override
+    public KeysetPage<InboxTask> getTasks(String assignee, String processDefinitionKey, String next, int limit) {
+        List<InboxTask> tasks = keysetQueries.selectTasks(assignee, processDefinitionKey, cursor(next, TASK), limit + 1)
+                .stream().map(InboxTask::of).toList();
+        return page(tasks, limit, TASK, InboxTask::getCreateTime, InboxTask::getId);
+    }
+
+    @Override
+    public KeysetPage<ProcessInstanceItem> getProcessInstances(String processDefinitionKey, Boolean finished, String next, int limit) {
+        List<ProcessInstanceItem> processInstances = keysetQueries
+                .selectProcessInstances(processDefinitionKey, finished, cursor(next, PROCESS_INSTANCE), limit + 1)
+                .stream().map(ProcessInstanceItem::of).toList();
+        return page(processInstances, limit, PROCESS_INSTANCE, ProcessInstanceItem::getStartTime, ProcessInstanceItem::getId);
+    }
+
+    @Override
+    public KeysetPage<HistoricTaskItem> getHistoricTasks(String assignee, String processDefinitionKey, Boolean finished,
+                                                         String next, int limit) {
+        List<HistoricTaskItem> tasks = keysetQueries
+                .selectHistoricTasks(assignee, processDefinitionKey, finished, cursor(next, HISTORIC_TASK), limit + 1)
+                .stream().map(HistoricTaskItem::of).toList();
+        return page(tasks, limit, HISTORIC_TASK, HistoricTaskItem::getStartTime, HistoricTaskItem::getId);
+    }
+
+    private static PageCursor cursor(String next, String type) {
+        return next == null || next.isEmpty() ? null : PageCursor.decode(next, type);
+    }
+
+    /**
+     * 多取的一条只用于判断是否还有下一页，令牌取本页最后一条
+     */
+    private static <T> KeysetPage<T> page(List<T> items, int limit, String type,
+                                          Function<T, Date> time, Function<T, String> id) {
+        if (items.size() <= limit) {
+            return new KeysetPage<>(limit, null, items);
+        }
+        List<T> page = items.subList(0, limit);
+        T last = page.get(limit - 1);
+        return new KeysetPage<>(limit, new PageCursor(time.apply(last), id.apply(last)).encode(type), page);
+    }
+}
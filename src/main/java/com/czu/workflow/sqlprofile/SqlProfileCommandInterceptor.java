@@ -0,0 +1,26 @@
+package com.czu.workflow.sqlprofile;
+
+import com.czu.workflow.metrics.EngineMetrics;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+/**
+ * 前置拦截器，最外层命令作为一个分析单元（已在请求单元内时并入请求）
+ */
+public class SqlProfileCommandInterceptor extends CommandInterceptor {
+    private final SqlProfiler profiler;
+
+    public SqlProfileCommandInterceptor(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public <T> T execute(Command<T> command) {
+        profiler.enter(() -> "command " + EngineMetrics.simpleName(command.getClass()));
+        try {
+            return next.execute(command);
+        } finally {
+            profiler.exit(null);
+        }
+    }
+}
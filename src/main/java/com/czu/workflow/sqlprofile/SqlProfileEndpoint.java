@@ -0,0 +1,27 @@
+package com.czu.workflow.sqlprofile;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * /actuator/sqlprofile：GET 查看 top-N 报告，DELETE 清空统计
+ */
+@Endpoint(id = "sqlprofile")
+public class SqlProfileEndpoint {
+    private final SqlProfiler profiler;
+
+    public SqlProfileEndpoint(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public SqlProfileReport report() {
+        return profiler.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,37 @@
+package com.czu.workflow.sqlprofile;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 整个请求作为一个分析单元，按 "方法 路由模式" 聚合，避免按路径变量拆散
+ */
+public class SqlProfileFilter extends OncePerRequestFilter {
+    private final SqlProfiler profiler;
+
+    public SqlProfileFilter(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        profiler.enter(() -> unitName(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            profiler.exit(() -> unitName(request));
+        }
+    }
+
+    private static String unitName(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,42 @@
+package com.czu.workflow.sqlprofile;
+
+import java.util.List;
+
+/**
+ * SQL 分析报告，单元按累计 SQL 耗时降序
+ *
+ * @param sampleRate      采样率
+ * @param repeatThreshold 同一单元内同一查询执行到此次数即视为循环查询
+ */
+public record SqlProfileReport(double sampleRate, int repeatThreshold, List<UnitReport> units) {
+
+    /**
+     * @param name 最外层命令的类名，或 HTTP 请求的 "方法 路由模式"
+     */
+    public record UnitReport(String name,
+                             long samples,
+                             double avgStatements,
+                             int maxStatements,
+                             double totalSqlMillis,
+                             double avgSqlMillis,
+                             double maxSqlMillis,
+                             List<StatementReport> statements) {
+    }
+
+    /**
+     * @param maxPerUnit          单个单元内的最大执行次数
+     * @param maxIdenticalPerUnit 单个单元内以相同简单参数执行的最大次数（复杂查询对象不计）
+     * @param repeatedUnits       执行次数达到阈值的单元数，只统计查询
+     * @param rows                查询返回或更新影响的行数合计（批量更新行数未知时不计）
+     */
+    public record StatementReport(String statementId,
+                                  String type,
+                                  long executions,
+                                  double avgPerUnit,
+                                  int maxPerUnit,
+                                  int maxIdenticalPerUnit,
+                                  long repeatedUnits,
+                                  long rows,
+                                  double totalMillis) {
+    }
+}
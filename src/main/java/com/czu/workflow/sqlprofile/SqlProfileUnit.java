@@ -0,0 +1,89 @@
+package com.czu.workflow.sqlprofile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一个采样单元（最外层命令或一次 HTTP 请求）内执行的全部语句，只在所属线程内读写
+ */
+class SqlProfileUnit {
+    private final boolean sampled;
+    private String name;
+    private int depth;
+    private long sqlNanos;
+    private final List<Statement> statements;
+    private final Map<String, Integer> executionsByStatement;
+    private final Map<String, Integer> identicalExecutions;
+
+    /**
+     * @param sampled 未采样的单元只记录嵌套深度，使嵌套的命令沿用最外层的抽样结果
+     */
+    SqlProfileUnit(String name, boolean sampled) {
+        this.name = name;
+        this.sampled = sampled;
+        this.statements = sampled ? new ArrayList<>() : List.of();
+        this.executionsByStatement = sampled ? new HashMap<>() : Map.of();
+        this.identicalExecutions = sampled ? new HashMap<>() : Map.of();
+    }
+
+    /**
+     * @param parameterKey 参数为简单值（ID 等）时的取值，用于识别完全相同的查询；复杂查询对象为 null
+     */
+    void record(String statementId, String type, String parameterKey, int rows, long nanos) {
+        statements.add(new Statement(statementId, type, rows, nanos));
+        sqlNanos += nanos;
+        executionsByStatement.merge(statementId, 1, Integer::sum);
+        if (parameterKey != null) {
+            identicalExecutions.merge(statementId + '|' + parameterKey, 1, Integer::sum);
+        }
+    }
+
+    boolean isSampled() {
+        return sampled;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void setName(String name) {
+        this.name = name;
+    }
+
+    int enter() {
+        return ++depth;
+    }
+
+    int exit() {
+        return --depth;
+    }
+
+    long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    List<Statement> getStatements() {
+        return statements;
+    }
+
+    Map<String, Integer> getExecutionsByStatement() {
+        return executionsByStatement;
+    }
+
+    /**
+     * 同一语句以相同参数执行的最大次数
+     */
+    int maxIdenticalExecutions(String statementId) {
+        String prefix = statementId + '|';
+        return identicalExecutions.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .mapToInt(Map.Entry::getValue)
+                .max()
+                .orElse(0);
+    }
+
+    record Statement(String statementId, String type, int rows, long nanos) {
+    }
+}
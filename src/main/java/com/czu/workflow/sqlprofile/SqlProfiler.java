@@ -0,0 +1,123 @@
+package com.czu.workflow.sqlprofile;
+
+import com.czu.workflow.config.WorkflowProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 按单元采样记录 MyBatis 语句，找出同一单元内反复执行同一查询（N+1）的位置。
+ * 单元是最外层的引擎命令；在 HTTP 请求内时由 {@link SqlProfileFilter} 打开一个覆盖整个请求的单元，
+ * 请求中的多个命令计入同一单元，CandidateTest 中按分组循环查询这类跨命令的循环也能被发现。
+ * 未被采样的单元只有一次 ThreadLocal 读取的开销
+ */
+@Slf4j
+public class SqlProfiler {
+    static final String OTHER_UNITS = "other";
+
+    private final ThreadLocal<SqlProfileUnit> currentUnit = new ThreadLocal<>();
+    private final Map<String, SqlUnitStats> statsByUnit = new ConcurrentHashMap<>();
+    private final WorkflowProperties.SqlProfiler properties;
+
+    public SqlProfiler(WorkflowProperties.SqlProfiler properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 进入一个单元；已在单元内时只增加嵌套深度。名称可在结束前更新（请求的路由模式在分发后才确定）
+     */
+    public void enter(Supplier<String> name) {
+        SqlProfileUnit unit = currentUnit.get();
+        if (unit == null) {
+            boolean sampled = ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+            unit = new SqlProfileUnit(sampled ? name.get() : null, sampled);
+            currentUnit.set(unit);
+        }
+        unit.enter();
+    }
+
+    public void exit(Supplier<String> finalName) {
+        SqlProfileUnit unit = currentUnit.get();
+        if (unit == null || unit.exit() > 0) {
+            return;
+        }
+        currentUnit.remove();
+        if (!unit.isSampled()) {
+            return;
+        }
+        if (finalName != null) {
+            unit.setName(finalName.get());
+        }
+        aggregate(unit);
+    }
+
+    void record(String statementId, String type, Object parameter, int rows, long nanos) {
+        SqlProfileUnit unit = currentUnit.get();
+        if (unit != null && unit.isSampled()) {
+            unit.record(statementId, type, parameterKey(parameter), rows, nanos);
+        }
+    }
+
+    boolean isSampling() {
+        SqlProfileUnit unit = currentUnit.get();
+        return unit != null && unit.isSampled();
+    }
+
+    private void aggregate(SqlProfileUnit unit) {
+        String name = unit.getName();
+        SqlUnitStats stats = statsByUnit.get(name);
+        if (stats == null) {
+            if (statsByUnit.size() >= properties.getMaxUnits()) {
+                name = OTHER_UNITS;
+            }
+            stats = statsByUnit.computeIfAbsent(name, SqlUnitStats::new);
+        }
+        stats.add(unit, properties.getRepeatThreshold());
+
+        unit.getExecutionsByStatement().forEach((statementId, executions) -> {
+            if (executions >= properties.getRepeatThreshold() && isSelect(unit, statementId)) {
+                int identical = unit.maxIdenticalExecutions(statementId);
+                log.warn("SQL 分析: '{}' 中 {} 执行了 {} 次{}，疑似循环查询", unit.getName(), statementId, executions,
+                        identical > 1 ? "（其中相同参数 " + identical + " 次）" : "");
+            }
+        });
+    }
+
+    private static boolean isSelect(SqlProfileUnit unit, String statementId) {
+        return unit.getStatements().stream()
+                .anyMatch(statement -> statement.statementId().equals(statementId) && "SELECT".equals(statement.type()));
+    }
+
+    /**
+     * 简单参数（ID、key 等）直接作为比较键；Camunda 的查询对象没有按值实现 equals，不参与相同参数判断
+     */
+    private static String parameterKey(Object parameter) {
+        if (parameter instanceof String || parameter instanceof Number || parameter instanceof Boolean) {
+            return parameter.toString();
+        }
+        return null;
+    }
+
+    public SqlProfileReport report() {
+        List<SqlProfileReport.UnitReport> units = statsByUnit.values().stream()
+                .map(SqlUnitStats::toReport)
+                .sorted(Comparator.comparingDouble(SqlProfileReport.UnitReport::totalSqlMillis).reversed())
+                .limit(properties.getTopN())
+                .toList();
+        return new SqlProfileReport(properties.getSampleRate(), properties.getRepeatThreshold(), units);
+    }
+
+    public void reset() {
+        statsByUnit.clear();
+    }
+
+    static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
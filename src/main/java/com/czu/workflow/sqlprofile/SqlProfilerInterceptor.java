@@ -0,0 +1,79 @@
+package com.czu.workflow.sqlprofile;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.List;
+
+/**
+ * 记录每条 MyBatis 语句的 ID、行数和耗时。
+ * 批处理模式下 update 只是加入批次，真正的执行时间和影响行数在 flushStatements 中，按批次单独记录
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class SqlProfilerInterceptor implements Interceptor {
+    static final String BATCH_FLUSH = "<batch flush>";
+
+    private final SqlProfiler profiler;
+
+    public SqlProfilerInterceptor(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!profiler.isSampling()) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        Object result = invocation.proceed();
+        long elapsed = System.nanoTime() - start;
+
+        Object[] args = invocation.getArgs();
+        if (args == null || args.length == 0) {
+            recordBatch(result, elapsed);
+        } else {
+            MappedStatement statement = (MappedStatement) args[0];
+            profiler.record(statement.getId(), statement.getSqlCommandType().name(), args[1], rows(result), elapsed);
+        }
+        return result;
+    }
+
+    private void recordBatch(Object result, long elapsed) {
+        if (!(result instanceof List<?> batchResults) || batchResults.isEmpty()) {
+            return;
+        }
+        int rows = 0;
+        for (Object batchResult : batchResults) {
+            for (int count : ((BatchResult) batchResult).getUpdateCounts()) {
+                if (count > 0) {
+                    rows += count;
+                }
+            }
+        }
+        profiler.record(BATCH_FLUSH, "BATCH", null, rows, elapsed);
+    }
+
+    /**
+     * 批处理模式下 update 返回负数占位值，行数未知记为 -1
+     */
+    private static int rows(Object result) {
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        if (result instanceof Integer count && count >= 0) {
+            return count;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,88 @@
+package com.czu.workflow.sqlprofile;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.czu.workflow.sqlprofile.SqlProfiler.millis;
+
+/**
+ * 同名单元的累计统计；只有被采样的单元会写入，竞争很少，直接同步。
+ * 批量写入本身就会重复同一语句，只有查询计入循环查询
+ */
+class SqlUnitStats {
+    private final String name;
+    private long samples;
+    private long statements;
+    private int maxStatements;
+    private long sqlNanos;
+    private long maxSqlNanos;
+    private final Map<String, StatementStats> statementStats = new HashMap<>();
+
+    SqlUnitStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void add(SqlProfileUnit unit, int repeatThreshold) {
+        samples++;
+        int count = unit.getStatements().size();
+        statements += count;
+        maxStatements = Math.max(maxStatements, count);
+        sqlNanos += unit.getSqlNanos();
+        maxSqlNanos = Math.max(maxSqlNanos, unit.getSqlNanos());
+        for (SqlProfileUnit.Statement statement : unit.getStatements()) {
+            statementStats.computeIfAbsent(statement.statementId(), id -> new StatementStats(statement.type()))
+                    .add(statement);
+        }
+        unit.getExecutionsByStatement().forEach((statementId, executions) -> {
+            StatementStats stats = statementStats.get(statementId);
+            stats.maxPerUnit = Math.max(stats.maxPerUnit, executions);
+            stats.maxIdenticalPerUnit = Math.max(stats.maxIdenticalPerUnit, unit.maxIdenticalExecutions(statementId));
+            if (executions >= repeatThreshold && "SELECT".equals(stats.type)) {
+                stats.repeatedUnits++;
+            }
+        });
+    }
+
+    synchronized SqlProfileReport.UnitReport toReport() {
+        List<SqlProfileReport.StatementReport> statementReports = statementStats.entrySet().stream()
+                .map(entry -> entry.getValue().toReport(entry.getKey(), samples))
+                .sorted(Comparator.comparingLong(SqlProfileReport.StatementReport::repeatedUnits)
+                        .thenComparingDouble(SqlProfileReport.StatementReport::totalMillis)
+                        .reversed())
+                .toList();
+        return new SqlProfileReport.UnitReport(name, samples,
+                samples == 0 ? 0 : (double) statements / samples, maxStatements,
+                millis(sqlNanos), samples == 0 ? 0 : millis(sqlNanos) / samples, millis(maxSqlNanos),
+                statementReports);
+    }
+
+    private static class StatementStats {
+        private final String type;
+        private long executions;
+        private long rows;
+        private long nanos;
+        private int maxPerUnit;
+        private int maxIdenticalPerUnit;
+        private long repeatedUnits;
+
+        StatementStats(String type) {
+            this.type = type;
+        }
+
+        void add(SqlProfileUnit.Statement statement) {
+            executions++;
+            if (statement.rows() > 0) {
+                rows += statement.rows();
+            }
+            nanos += statement.nanos();
+        }
+
+        SqlProfileReport.StatementReport toReport(String statementId, long samples) {
+            return new SqlProfileReport.StatementReport(statementId, type, executions,
+                    samples == 0 ? 0 : (double) executions / samples, maxPerUnit, maxIdenticalPerUnit,
+                    repeatedUnits, rows, millis(nanos));
+        }
+    }
+}
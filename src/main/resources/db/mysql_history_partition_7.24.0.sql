@@ -0,0 +1,65 @@
+--
+-- 可选的历史表分区方案（MySQL 8），在 mysql_engine_7.24.0.sql 之后执行一次。
+--
+-- 按删除时间对增长最快的历史表做 RANGE COLUMNS 分区，过期数据通过 DROP PARTITION 清理，不再逐行删除。
+-- 配合 workflow.history-partition.enabled=true 使用：本脚本直接建好从本周起、覆盖预建天数的按周分区，
+-- 应用启动后由 HistoryPartitionManager 定期从（此时为空的）p_max 中拆出未来的分区并删除上界早于今天的分区，
+-- 同时将引擎的 historyRemovalTimeStrategy 设为 start，使历史记录在插入时就带有删除时间，之后不会在分区之间移动。
+--
+-- 注意：
+-- 1. 分区列必须包含在每个唯一键中，而 REMOVAL_TIME_ 可以为空，不能作为主键列。因此增加非空的存储生成列
+--    PARTITION_TIME_ = coalesce(REMOVAL_TIME_, '1970-01-01')，按它分区，主键改为 (ID_, PARTITION_TIME_)。
+--    重放历史批次时重复写入的记录由该主键拒绝（删除时间在流程启动时确定，同一 ID_ 的删除时间相同，包括为空的情况）；
+-- 2. REMOVAL_TIME_ 为空的记录（未设置 historyTimeToLive 的流程）进入 p_none，不会被删除，
+--    因此应用同时为未设置 historyTimeToLive 的流程定义提供默认值；
+-- 3. ACT_GE_BYTEARRAY 中变量的字节值不在分区范围内，仍由引擎按删除时间清理；
+-- 4. 分区操作会复制整张表并阻塞写入，须在维护窗口执行。下面的 @interval_days、@create_ahead_days
+--    应与 workflow.history-partition.interval-days、create-ahead-days 一致。第一个按周分区同时包含本周之前的所有记录，
+--    这些记录已过期，随该分区一起删除。
+--
+
+set @interval_days = 7;
+set @create_ahead_days = 90;
+set session group_concat_max_len = 65535;
+
+-- 与 HistoryPartitionPlan 相同：从 1970-01-01 起按天数对齐的今天所在区间开始，直到下界超过今天 + 预建天数
+set @dated_partitions = (
+    with recursive bounds (lower_bound) as (
+        select from_days(to_days('1970-01-01')
+            + floor((to_days(curdate()) - to_days('1970-01-01')) / @interval_days) * @interval_days)
+        union all
+        select lower_bound + interval @interval_days day from bounds
+        where lower_bound + interval @interval_days day <= curdate() + interval @create_ahead_days day
+    )
+    select group_concat(concat('partition p', date_format(lower_bound, '%Y%m%d'),
+            ' values less than (''', lower_bound + interval @interval_days day, ''')')
+        order by lower_bound separator ', ')
+    from bounds
+);
+set @partitions = concat('partition by range columns (PARTITION_TIME_) (',
+    'partition p_none values less than (''1970-01-02''), ', @dated_partitions,
+    ', partition p_max values less than (MAXVALUE))');
+
+alter table ACT_HI_ACTINST
+    add column PARTITION_TIME_ datetime generated always as (coalesce(REMOVAL_TIME_, '1970-01-01 00:00:00')) stored not null,
+    drop primary key, add primary key (ID_, PARTITION_TIME_);
+set @ddl = concat('alter table ACT_HI_ACTINST ', @partitions);
+prepare partition_ddl from @ddl;
+execute partition_ddl;
+deallocate prepare partition_ddl;
+
+alter table ACT_HI_VARINST
+    add column PARTITION_TIME_ datetime generated always as (coalesce(REMOVAL_TIME_, '1970-01-01 00:00:00')) stored not null,
+    drop primary key, add primary key (ID_, PARTITION_TIME_);
+set @ddl = concat('alter table ACT_HI_VARINST ', @partitions);
+prepare partition_ddl from @ddl;
+execute partition_ddl;
+deallocate prepare partition_ddl;
+
+alter table ACT_HI_DETAIL
+    add column PARTITION_TIME_ datetime generated always as (coalesce(REMOVAL_TIME_, '1970-01-01 00:00:00')) stored not null,
+    drop primary key, add primary key (ID_, PARTITION_TIME_);
+set @ddl = concat('alter table ACT_HI_DETAIL ', @partitions);
+prepare partition_ddl from @ddl;
+execute partition_ddl;
+deallocate prepare partition_ddl;
@@ -0,0 +1,37 @@
+--
+-- 可选的待办箱复合索引（版本 1），在 mysql_engine_7.24.0.sql 之后执行一次，语句同样适用于 H2。
+--
+-- 引擎只为 ACT_RU_TASK / ACT_RU_IDENTITYLINK 建了单列索引，待办箱查询（InboxServiceImpl 投影未就绪时的数据库查询）形如：
+--   select distinct RES.* from ACT_RU_TASK RES left join ACT_RU_IDENTITYLINK I on I.TASK_ID_ = RES.ID_
+--   where RES.TENANT_ID_ in (...) / is null
+--     and (RES.ASSIGNEE_ = ? or (RES.ASSIGNEE_ is null and I.TYPE_ = 'candidate' and (I.USER_ID_ = ? or I.GROUP_ID_ in (...))))
+--   order by RES.CREATE_TIME_ desc limit ?
+-- or 跨两张表，只能从租户条件驱动：按 ACT_IDX_TASK_TENANT_ID 取出租户下的全部任务并回表，逐条按 TASK_ID_ 读取身份链接，最后整体排序。
+-- 以下索引让租户内的任务按创建时间顺序读取，身份链接只读索引，不再回表：
+--   ACT_IDX_TASK_TENANT_CREATE     待办箱、租户内任务列表：租户过滤 + 创建时间排序
+--   ACT_IDX_TASK_ASSIGNEE_CREATE   按处理人的任务列表和游标分页 /pages/tasks：处理人过滤 + (CREATE_TIME_, ID_) 排序，ID_ 为 InnoDB 隐含的主键列
+--   ACT_IDX_IDENT_LNK_TASK_CAND    任务 -> 候选人 / 候选组的关联（待办箱的 left join、待办投影的全量加载），覆盖索引
+--   ACT_IDX_IDENT_LNK_GROUP_CAND   候选组 -> 任务（taskCandidateGroup / taskCandidateGroupIn），覆盖索引
+--   ACT_IDX_IDENT_LNK_USER_CAND    候选人 -> 任务（taskCandidateUser），覆盖索引
+--
+-- 注意：
+-- 1. 引擎原有的单列索引是新索引的前缀，但引擎的升级脚本会引用它们，因此保留；
+-- 2. 每创建一个任务多维护 2 个任务索引和每条身份链接 3 个索引，写入较多时先用 src/test 中的 InboxIndexBenchmark 评估；
+-- 3. 执行后 ACT_GE_PROPERTY 中 workflow.inbox-indexes.version 为 1，以后的版本在此基础上增量执行。
+--
+-- 回滚：
+--   drop index ACT_IDX_TASK_TENANT_CREATE on ACT_RU_TASK;
+--   drop index ACT_IDX_TASK_ASSIGNEE_CREATE on ACT_RU_TASK;
+--   drop index ACT_IDX_IDENT_LNK_TASK_CAND on ACT_RU_IDENTITYLINK;
+--   drop index ACT_IDX_IDENT_LNK_GROUP_CAND on ACT_RU_IDENTITYLINK;
+--   drop index ACT_IDX_IDENT_LNK_USER_CAND on ACT_RU_IDENTITYLINK;
+--   delete from ACT_GE_PROPERTY where NAME_ = 'workflow.inbox-indexes.version';
+--
+
+create index ACT_IDX_TASK_TENANT_CREATE on ACT_RU_TASK(TENANT_ID_, CREATE_TIME_);
+create index ACT_IDX_TASK_ASSIGNEE_CREATE on ACT_RU_TASK(ASSIGNEE_, CREATE_TIME_);
+create index ACT_IDX_IDENT_LNK_TASK_CAND on ACT_RU_IDENTITYLINK(TASK_ID_, TYPE_, USER_ID_, GROUP_ID_);
+create index ACT_IDX_IDENT_LNK_GROUP_CAND on ACT_RU_IDENTITYLINK(GROUP_ID_, TYPE_, TASK_ID_);
+create index ACT_IDX_IDENT_LNK_USER_CAND on ACT_RU_IDENTITYLINK(USER_ID_, TYPE_, TASK_ID_);
+
+insert into ACT_GE_PROPERTY values ('workflow.inbox-indexes.version', '1', 1);
@@ -0,0 +1,145 @@
+package com.czu.workflow;
+
+import com.czu.workflow.dto.BulkCompleteItem;
+import com.czu.workflow.dto.BulkItemResult;
+import com.czu.workflow.dto.BulkResult;
+import com.czu.workflow.service.BulkTaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Slf4j
+@SpringBootTest(classes = Application.class)
+public class BulkTaskTest {
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private BulkTaskService bulkTaskService;
+
+    /**
+     * 批量完成候选组任务，其中混入一个不存在的任务ID：只有该条失败，其余任务正常完成
+     */
+    @Test
+    public void completeAll() {
+        List<String> processInstanceIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            processInstanceIds.add(runtimeService.startProcessInstanceByKey("Process_0cs766a",
+                    Map.of("group1", "jxGroup")).getId());
+        }
+        List<Task> tasks = taskService.createTaskQuery()
+                .processInstanceIdIn(processInstanceIds.toArray(new String[0]))
+                .list();
+
+        List<BulkCompleteItem> items = new ArrayList<>();
+        for (Task task : tasks) {
+            BulkCompleteItem item = new BulkCompleteItem();
+            item.setTaskId(task.getId());
+            item.setVariables(Map.of("user1", "demo", "user2", "wowo", "user3", "yuanj14"));
+            items.add(item);
+        }
+        BulkCompleteItem missing = new BulkCompleteItem();
+        missing.setTaskId("not-exists");
+        items.add(3, missing);
+
+        BulkResult result = bulkTaskService.completeAll(items, 4);
+        log.info("总数: {}, 成功: {}, 失败: {}, 逐条重试块数: {}, 耗时: {}ms",
+                result.getTotal(), result.getSucceeded(), result.getFailed(),
+                result.getChunksRetried(), result.getElapsedMillis());
+
+        assertThat(result.getTotal()).isEqualTo(11);
+        assertThat(result.getSucceeded()).isEqualTo(10);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getChunksRetried()).isEqualTo(1);
+        assertThat(result.getItems()).extracting(BulkItemResult::getId, BulkItemResult::isSuccess)
+                .containsExactlyElementsOf(items.stream()
+                        .map(item -> tuple(item.getTaskId(), !"not-exists".equals(item.getTaskId())))
+                        .toList());
+        assertThat(taskService.createTaskQuery()
+                .taskIdIn(tasks.stream().map(Task::getId).toArray(String[]::new))
+                .count()).isZero();
+    }
+
+    /**
+     * 块中一个任务在完成期间被其他事务修改（乐观锁冲突）：整块回滚后逐条重试，只有该任务失败，其余任务完成
+     */
+    @Test
+    public void completeAllWithConcurrentModification() {
+        BpmnModelInstance model = Bpmn.createExecutableProcess("bulkConflict")
+                .camundaHistoryTimeToLive(30)
+                .startEvent()
+                .userTask("review")
+                .camundaTaskListenerClass(TaskListener.EVENTNAME_COMPLETE, ConcurrentUpdateListener.class)
+                .endEvent()
+                .done();
+        repositoryService.createDeployment().addModelInstance("bulkConflict.bpmn", model).deploy();
+        List<BulkCompleteItem> items = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String processInstanceId = runtimeService.startProcessInstanceByKey("bulkConflict",
+                    Map.of(ConcurrentUpdateListener.VARIABLE, i == 2)).getId();
+            Task task = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult();
+            BulkCompleteItem item = new BulkCompleteItem();
+            item.setTaskId(task.getId());
+            items.add(item);
+        }
+        String conflicting = items.get(2).getTaskId();
+
+        BulkResult result = bulkTaskService.completeAll(items, 4);
+
+        assertThat(result.getChunksRetried()).isEqualTo(1);
+        assertThat(result.getSucceeded()).isEqualTo(3);
+        assertThat(result.getItems()).filteredOn(item -> !item.isSuccess())
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getId()).isEqualTo(conflicting);
+                    assertThat(item.getError()).startsWith("OptimisticLockingException");
+                });
+        assertThat(taskService.createTaskQuery().processDefinitionKey("bulkConflict").list())
+                .extracting(Task::getId, Task::getPriority)
+                .containsExactly(tuple(conflicting, ConcurrentUpdateListener.PRIORITY));
+    }
+
+    /**
+     * 完成带冲突标记的任务时，在另一个线程（独立事务）中修改同一任务并提交，完成任务的事务 flush 时版本号不一致
+     */
+    public static class ConcurrentUpdateListener implements TaskListener {
+        static final String VARIABLE = "conflict";
+        static final int PRIORITY = 99;
+
+        @Override
+        public void notify(DelegateTask delegateTask) {
+            if (!Boolean.TRUE.equals(delegateTask.getVariable(VARIABLE))) {
+                return;
+            }
+            TaskService taskService = delegateTask.getProcessEngineServices().getTaskService();
+            Thread concurrent = Thread.ofPlatform().start(() -> taskService.setPriority(delegateTask.getId(), PRIORITY));
+            try {
+                concurrent.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.czu.workflow;
+
+import com.czu.workflow.dto.InboxPage;
+import com.czu.workflow.dto.InboxTask;
+import com.czu.workflow.service.InboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.identity.Group;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.builder.UserTaskBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(classes = Application.class)
+public class InboxTest {
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private IdentityService identityService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private InboxService inboxService;
+
+    private String userId;
+
+    /**
+     * 为新用户准备待办：执行人 1 条、候选人 1 条、所属两个分组 3 条，另有不属于该用户的 2 条
+     */
+    @BeforeEach
+    public void setUp() {
+        String suffix = UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        userId = "inbox" + suffix;
+        identityService.saveUser(identityService.newUser(userId));
+        String[] groups = {"inboxG1" + suffix, "inboxG2" + suffix, "inboxG3" + suffix};
+        for (String group : groups) {
+            identityService.saveGroup(identityService.newGroup(group));
+        }
+        identityService.createMembership(userId, groups[0]);
+        identityService.createMembership(userId, groups[1]);
+
+        repositoryService.createDeployment()
+                .addModelInstance("inboxAssignee.bpmn", process("inboxAssignee").camundaAssignee("${user}").endEvent().done())
+                .addModelInstance("inboxCandidateUser.bpmn",
+                        process("inboxCandidateUser").camundaCandidateUsers("${user}").endEvent().done())
+                .addModelInstance("inboxCandidateGroup.bpmn",
+                        process("inboxCandidateGroup").camundaCandidateGroups("${group}").endEvent().done())
+                .deploy();
+
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> starts = List.of(
+                Map.of("key", "inboxAssignee", "user", userId),
+                Map.of("key", "inboxCandidateUser", "user", userId),
+                Map.of("key", "inboxCandidateGroup", "group", groups[0]),
+                Map.of("key", "inboxCandidateGroup", "group", groups[0]),
+                Map.of("key", "inboxCandidateGroup", "group", groups[1]),
+                Map.of("key", "inboxCandidateGroup", "group", groups[2]),
+                Map.of("key", "inboxAssignee", "user", "other" + suffix));
+        try {
+            // 每个任务的创建时间不同，按创建时间倒序分页时顺序确定
+            for (int i = 0; i < starts.size(); i++) {
+                ClockUtil.setCurrentTime(new Date(now + i * 1000L));
+                runtimeService.startProcessInstanceByKey((String) starts.get(i).get("key"), starts.get(i));
+            }
+        } finally {
+            ClockUtil.reset();
+        }
+    }
+
+    /**
+     * 待办箱结果与按分组循环查询的并集一致，分页首尾相接、不重不漏
+     */
+    @Test
+    public void getInbox() {
+        Set<String> expected = perGroupUnion(userId);
+        assertThat(expected).hasSize(5);
+
+        InboxPage all = inboxService.getInbox(userId, 0, 20);
+        assertThat(all.isHasMore()).isFalse();
+        assertThat(all.getTasks()).extracting(InboxTask::getId).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(all.getTasks()).extracting(InboxTask::getCreateTime)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(all.getTasks()).filteredOn(InboxTask::isClaimable).hasSize(4);
+
+        List<String> paged = new ArrayList<>();
+        List<Boolean> hasMore = new ArrayList<>();
+        for (int first = 0; first < 6; first += 2) {
+            InboxPage page = inboxService.getInbox(userId, first, 2);
+            assertThat(page.getTasks()).hasSizeLessThanOrEqualTo(2);
+            page.getTasks().forEach(task -> paged.add(task.getId()));
+            hasMore.add(page.isHasMore());
+        }
+        assertThat(paged).containsExactlyElementsOf(all.getTasks().stream().map(InboxTask::getId).toList());
+        assertThat(hasMore).containsExactly(true, true, false);
+    }
+
+    /**
+     * 基准对比：按分组循环查询 vs 统一待办箱查询
+     */
+    @Test
+    public void benchmarkInboxVsPerGroupLoop() {
+        int warmup = 20;
+        int iterations = 200;
+
+        for (int i = 0; i < warmup; i++) {
+            perGroupUnion(userId);
+            inboxService.getInbox(userId, 0, 20);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            perGroupUnion(userId);
+        }
+        long loopNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            inboxService.getInbox(userId, 0, 20);
+        }
+        long inboxNanos = System.nanoTime() - start;
+
+        log.info("按分组循环查询: 平均 {} ms/次", loopNanos / iterations / 1_000_000.0);
+        log.info("统一待办箱查询: 平均 {} ms/次", inboxNanos / iterations / 1_000_000.0);
+        assertThat(inboxService.getInbox(userId, 0, 20).getTasks()).extracting(InboxTask::getId)
+                .containsExactlyInAnyOrderElementsOf(perGroupUnion(userId));
+    }
+
+    private static UserTaskBuilder process(String key) {
+        return Bpmn.createExecutableProcess(key)
+                .camundaHistoryTimeToLive(30)
+                .startEvent()
+                .userTask("todo");
+    }
+
+    /**
+     * 与 CandidateTest.getTasksByUserGroups 相同的查询方式：每个分组一次查询，结果取并集
+     */
+    private Set<String> perGroupUnion(String userId) {
+        Set<String> taskIds = new HashSet<>();
+        taskService.createTaskQuery().taskAssignee(userId).list().forEach(task -> taskIds.add(task.getId()));
+        taskService.createTaskQuery().taskCandidateUser(userId).list().forEach(task -> taskIds.add(task.getId()));
+        List<Group> groups = identityService.createGroupQuery()
+                .groupMember(userId)
+                .list();
+        for (Group group : groups) {
+            List<Task> tasks = taskService.createTaskQuery()
+                    .taskCandidateGroup(group.getId())
+                    .list();
+            tasks.forEach(task -> taskIds.add(task.getId()));
+        }
+        return taskIds;
+    }
+}
@@ -0,0 +1,21 @@
+package com.czu.workflow;
+
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.TaskListener;
+
+import java.util.Map;
+
+/**
+ * 改造前的 VariablesListener：读取全部变量，逐个 setVariable，仅用于 SQL 对比
+ */
+public class LegacyVariablesListener implements TaskListener {
+    @Override
+    public void notify(DelegateTask delegateTask) {
+        Map<String, Object> variables = delegateTask.getVariables();
+        variables.forEach((k, v) -> {
+            if (v instanceof String) {
+                delegateTask.setVariable(k, v + "Camunda");
+            }
+        });
+    }
+}
@@ -15,6 +15,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @Slf4j
 @SpringBootTest(classes = Application.class)
@@ -347,4 +351,42 @@ public class TenantTest {
             }
         }
     }
+
+    /**
+     * 设置当前用户后自动按租户隔离查询，无需先查询租户再拼 tenantIdIn：只返回用户所属租户及公共任务
+     */
+    @Test
+    public void queryTasksWithTenantScope() {
+        String suffix = UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        String userId = "scope" + suffix;
+        String ownTenant = "scopeA" + suffix;
+        String otherTenant = "scopeB" + suffix;
+        identityService.saveUser(identityService.newUser(userId));
+        identityService.saveTenant(identityService.newTenant(ownTenant));
+        identityService.saveTenant(identityService.newTenant(otherTenant));
+        identityService.createTenantUserMembership(ownTenant, userId);
+
+        String ownTask = newTask(ownTenant);
+        String otherTask = newTask(otherTenant);
+        String publicTask = newTask(null);
+
+        // 分组和租户由缓存补全，TaskQuery 自动限定为用户所属租户及公共任务
+        identityService.setAuthenticatedUserId(userId);
+        try {
+            List<Task> taskList = taskService.createTaskQuery().taskIdIn(ownTask, otherTask, publicTask).list();
+            log.info("用户 '{}' 可见任务数: {}", userId, taskList.size());
+            assertThat(taskList).extracting(Task::getId, Task::getTenantId)
+                    .containsExactlyInAnyOrder(tuple(ownTask, ownTenant), tuple(publicTask, null));
+        } finally {
+            identityService.clearAuthentication();
+        }
+        assertThat(taskService.createTaskQuery().taskIdIn(ownTask, otherTask, publicTask).count()).isEqualTo(3);
+    }
+
+    private String newTask(String tenantId) {
+        Task task = taskService.newTask();
+        task.setTenantId(tenantId);
+        taskService.saveTask(task);
+        return task.getId();
+    }
 }
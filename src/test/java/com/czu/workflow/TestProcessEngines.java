@@ -0,0 +1,49 @@
+package com.czu.workflow;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.repository.DeploymentBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 不依赖 Spring 上下文的独立测试引擎：每个引擎使用单独的 H2 内存库，关闭时删表，不启动作业执行器。
+ * 测试按需在 {@link #configuration} 返回的配置上再做调整，然后 buildProcessEngine
+ */
+public final class TestProcessEngines {
+    public static final String FLOW_DIRECTORY = "static/processResource/flow/";
+
+    private TestProcessEngines() {
+    }
+
+    /**
+     * @param name H2 库名前缀，区分各测试的内存库
+     */
+    public static ProcessEngineConfigurationImpl configuration(String name, ProcessEnginePlugin... plugins) {
+        ProcessEngineConfigurationImpl configuration = new StandaloneInMemProcessEngineConfiguration();
+        configuration.getProcessEnginePlugins().addAll(List.of(plugins));
+        configuration.setJdbcUrl(jdbcUrl(name))
+                .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP)
+                .setJobExecutorActivate(false);
+        return configuration;
+    }
+
+    public static String jdbcUrl(String name) {
+        return "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * 部署 static/processResource/flow 下的流程文件
+     */
+    public static void deployFlows(ProcessEngine processEngine, String... flows) {
+        DeploymentBuilder deployment = processEngine.getRepositoryService().createDeployment();
+        for (String flow : flows) {
+            deployment.addClasspathResource(FLOW_DIRECTORY + flow);
+        }
+        deployment.deploy();
+    }
+}
@@ -0,0 +1,179 @@
+package com.czu.workflow;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEnginePlugin;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.instance.camunda.CamundaTaskListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对比 VariablesListener 改造前后的行为与 SQL 语句数，流程变量与 BPMN 实际使用的 user1,user2,user3 相同。
+ * 流程未声明 variables 字段，监听器与改造前一样为全部字符串变量追加后缀
+ */
+@Slf4j
+@SpringBootTest(classes = Application.class)
+@Import(VariablesListenerSqlTest.SqlCounterConfig.class)
+public class VariablesListenerSqlTest {
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Test
+    public void tenantFlow() {
+        compare("static/processResource/flow/租户管理.bpmn", "Process_0a0q123");
+    }
+
+    @Test
+    public void assigneeFlow() {
+        compare("static/processResource/flow/任务分配-Assignee.bpmn", "Process_0a0q999");
+    }
+
+    private void compare(String resource, String processKey) {
+        FlowRun batched = runFlow(deploy(resource, processKey, false));
+        FlowRun legacy = runFlow(deploy(resource, processKey, true));
+        log.info("{} 改造前 SQL: {}", processKey, legacy.statements());
+        log.info("{} 改造后 SQL: {}", processKey, batched.statements());
+        assertThat(batched.variables())
+                .isEqualTo(legacy.variables())
+                .containsEntry("user1", "wowoCamunda");
+        // 每个字符串变量仍各写一行，合并为一次 setVariables 调用不减少语句数，只要求不多于改造前
+        assertThat(total(batched.statements())).isLessThanOrEqualTo(total(legacy.statements()));
+    }
+
+    private static long total(Map<String, Long> statements) {
+        return statements.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * 部署流程；legacy=true 时把监听器替换为改造前的实现，并用独立的 key 部署
+     */
+    private ProcessDefinition deploy(String resource, String processKey, boolean legacy) {
+        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(resource);
+        BpmnModelInstance model = Bpmn.readModelFromStream(inputStream);
+        String key = processKey;
+        if (legacy) {
+            key = processKey + "_legacy";
+            model.getModelElementById(processKey).setAttributeValue("id", key, true);
+            for (CamundaTaskListener listener : model.getModelElementsByType(CamundaTaskListener.class)) {
+                listener.setCamundaClass(LegacyVariablesListener.class.getName());
+                // 改造前的监听器没有 variables 字段
+                listener.getCamundaFields().clear();
+            }
+        }
+        String deploymentId = repositoryService.createDeployment()
+                .addModelInstance(key + ".bpmn", model)
+                .name("SQL对比-" + key)
+                .deploy()
+                .getId();
+        return repositoryService.createProcessDefinitionQuery().deploymentId(deploymentId).singleResult();
+    }
+
+    /**
+     * 发起流程并完成两个审批节点，返回第一个节点创建后的流程变量和按 SQL 类型统计的语句数
+     */
+    private FlowRun runFlow(ProcessDefinition definition) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("user1", "wowo");
+        variables.put("user2", 23);
+        variables.put("user3", false);
+
+        sqlStatementCounter.reset();
+        ProcessInstance processInstance = runtimeService.startProcessInstanceById(definition.getId(), variables);
+        Map<String, Object> afterFirstTask = new HashMap<>(runtimeService.getVariables(processInstance.getId()));
+        for (int i = 0; i < 2; i++) {
+            List<Task> tasks = taskService.createTaskQuery().processInstanceId(processInstance.getId()).list();
+            for (Task task : tasks) {
+                taskService.complete(task.getId());
+            }
+        }
+        return new FlowRun(afterFirstTask, sqlStatementCounter.snapshot());
+    }
+
+    private record FlowRun(Map<String, Object> variables, Map<String, Long> statements) {
+    }
+
+    @TestConfiguration
+    static class SqlCounterConfig {
+        @Bean
+        public SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+
+        @Bean
+        public ProcessEnginePlugin sqlStatementCounterPlugin(SqlStatementCounter sqlStatementCounter) {
+            return new AbstractProcessEnginePlugin() {
+                @Override
+                public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+                    processEngineConfiguration.getSqlSessionFactory().getConfiguration().addInterceptor(sqlStatementCounter);
+                }
+            };
+        }
+    }
+
+    /**
+     * 按 SELECT / INSERT / UPDATE / DELETE 统计 MyBatis 语句数
+     */
+    @Intercepts({
+            @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+            @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class})
+    })
+    static class SqlStatementCounter implements Interceptor {
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+            counters.computeIfAbsent(statement.getSqlCommandType().name(), k -> new LongAdder()).increment();
+            return invocation.proceed();
+        }
+
+        void reset() {
+            counters.clear();
+        }
+
+        Map<String, Long> snapshot() {
+            Map<String, Long> result = new HashMap<>();
+            counters.forEach((k, v) -> result.put(k, v.sum()));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.czu.workflow.assignee;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.AssigneeResolverPlugin;
+import com.czu.workflow.service.BeanTestService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.task.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AssigneeResolverPluginTest {
+    private static final String PROCESS_KEY = "Process_wowo3t6";
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private boolean cacheable = true;
+    private ProcessEngine processEngine;
+
+    @BeforeEach
+    public void setUp() {
+        BeanTestService beanTestService = new BeanTestService() {
+            @Override
+            public String getAssignee() {
+                calls.incrementAndGet();
+                return "resolved-" + calls.get();
+            }
+
+            @Override
+            public boolean cacheable() {
+                return cacheable;
+            }
+        };
+        AssigneeResolvers resolvers = new AssigneeResolvers(Map.of("BeanTestService", beanTestService),
+                new WorkflowProperties.AssigneeResolver());
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("assignee",
+                new AssigneeResolverPlugin(resolvers));
+        // 未注册 Bean 解析器：若仍走 JUEL 表达式会因找不到 BeanTestService 而失败
+        processEngine = configuration.buildProcessEngine();
+        TestProcessEngines.deployFlows(processEngine, "任务分配-bean.bpmn");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    /**
+     * 同一流程定义节点只解析一次，之后的任务使用缓存结果
+     */
+    @Test
+    public void resolvesOncePerDefinitionActivity() {
+        for (int i = 0; i < 3; i++) {
+            processEngine.getRuntimeService().startProcessInstanceByKey(PROCESS_KEY);
+        }
+
+        assertThat(calls).hasValue(1);
+        assertThat(processEngine.getTaskService().createTaskQuery().list())
+                .extracting(Task::getAssignee)
+                .containsOnly("resolved-1");
+    }
+
+    /**
+     * 不可缓存的解析器每个任务都会调用
+     */
+    @Test
+    public void invokesUncacheableResolverPerTask() {
+        cacheable = false;
+        for (int i = 0; i < 3; i++) {
+            processEngine.getRuntimeService().startProcessInstanceByKey(PROCESS_KEY);
+        }
+
+        assertThat(calls).hasValue(3);
+        assertThat(processEngine.getTaskService().createTaskQuery().list())
+                .extracting(Task::getAssignee)
+                .containsExactlyInAnyOrder("resolved-1", "resolved-2", "resolved-3");
+    }
+}
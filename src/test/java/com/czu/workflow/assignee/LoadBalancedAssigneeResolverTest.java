@@ -0,0 +1,204 @@
+package com.czu.workflow.assignee;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.AssigneeResolverPlugin;
+import com.czu.workflow.plugin.OpenTaskCounterPlugin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.identity.User;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LoadBalancedAssigneeResolverTest {
+    private static final String PROCESS_KEY = "balanced";
+    private static final String GROUP_ID = "clerks";
+
+    private ProcessEngineConfigurationImpl configuration;
+    private ProcessEngine processEngine;
+    private TaskService taskService;
+    private OpenTaskCounter counter;
+    private SimpleMeterRegistry meterRegistry;
+
+    private void start(String strategy, Map<String, Integer> weights) {
+        start(strategy, weights, true);
+    }
+
+    /**
+     * @param bindResolvers false 时不启用 AssigneeResolverPlugin，处理人表达式由 JUEL 调用同名 Bean
+     */
+    private void start(String strategy, Map<String, Integer> weights, boolean bindResolvers) {
+        WorkflowProperties.Assignment properties = new WorkflowProperties.Assignment();
+        WorkflowProperties.Assignment.Group group = new WorkflowProperties.Assignment.Group();
+        group.setStrategy(strategy);
+        group.setWeights(weights);
+        properties.getGroups().put(GROUP_ID, group);
+        meterRegistry = new SimpleMeterRegistry();
+        OpenTaskCounterPlugin counterPlugin = new OpenTaskCounterPlugin(properties, meterRegistry);
+        counter = counterPlugin.getCounter();
+        LoadBalancedAssigneeResolver resolver = new LoadBalancedAssigneeResolver(counter, properties, meterRegistry);
+        AssigneeResolvers resolvers = new AssigneeResolvers(Map.of("loadBalancedAssignee", resolver),
+                new WorkflowProperties.AssigneeResolver());
+        configuration = TestProcessEngines.configuration("assignment");
+        if (bindResolvers) {
+            configuration.getProcessEnginePlugins().add(new AssigneeResolverPlugin(resolvers));
+        } else {
+            configuration.setBeans(Map.of("loadBalancedAssignee", resolver));
+        }
+        configuration.getProcessEnginePlugins().add(counterPlugin);
+        processEngine = configuration.buildProcessEngine();
+        taskService = processEngine.getTaskService();
+        createGroup("u1", "u2", "u3");
+        BpmnModelInstance model = Bpmn.createExecutableProcess(PROCESS_KEY)
+                .camundaHistoryTimeToLive(30)
+                .startEvent()
+                .userTask("review")
+                .camundaAssignee("${loadBalancedAssignee.resolve()}")
+                .camundaCandidateGroups(GROUP_ID)
+                .endEvent()
+                .done();
+        processEngine.getRepositoryService().createDeployment()
+                .addModelInstance("balanced.bpmn", model)
+                .deploy();
+        counter.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        counter.close();
+        processEngine.close();
+    }
+
+    /**
+     * round-robin 按成员顺序轮流分配
+     */
+    @Test
+    public void roundRobinCyclesMembers() {
+        start(LoadBalancedAssigneeResolver.ROUND_ROBIN, Map.of());
+
+        assertThat(startInstances(6)).containsExactly("u1", "u2", "u3", "u1", "u2", "u3");
+        assertThat(meterRegistry.get("workflow.assignment.assigned").tag("strategy", "round-robin").counter().count())
+                .isEqualTo(6);
+    }
+
+    /**
+     * least-open 按对账后的未完成任务数补齐负载；完成任务后计数随之减少
+     */
+    @Test
+    public void leastOpenBalancesLoad() {
+        start(LoadBalancedAssigneeResolver.LEAST_OPEN, Map.of());
+        // 独立任务不经过流程节点的任务监听器，只能由对账计入
+        createStandaloneTasks("u1", 3);
+        createStandaloneTasks("u2", 1);
+        assertThat(counter.get("u1")).isZero();
+        assertThat(counter.reconcile()).isEqualTo(4);
+
+        startInstances(5);
+
+        assertOpenTasks(3, 3, 3);
+        List<Task> u3Tasks = taskService.createTaskQuery().taskAssignee("u3").list();
+        taskService.complete(u3Tasks.get(0).getId());
+        taskService.complete(u3Tasks.get(1).getId());
+        assertThat(counter.get("u3")).isEqualTo(1);
+        assertThat(startInstances(2)).containsExactly("u3", "u3");
+        assertOpenTasks(3, 3, 3);
+        assertThat(counter.reconcile()).isZero();
+    }
+
+    /**
+     * weighted 按权重比例分配，权重为 0 的成员不分配
+     */
+    @Test
+    public void weightedFollowsWeights() {
+        start(LoadBalancedAssigneeResolver.WEIGHTED, Map.of("u1", 2, "u3", 0));
+
+        startInstances(6);
+
+        assertOpenTasks(4, 2, 0);
+        assertThat(counter.reconcile()).isZero();
+    }
+
+    /**
+     * 事务回滚时撤销计数变更；转办时原处理人 -1、新处理人 +1
+     */
+    @Test
+    public void rollbackRestoresCounts() {
+        start(LoadBalancedAssigneeResolver.ROUND_ROBIN, Map.of());
+        startInstances(1);
+        String taskId = taskService.createTaskQuery().taskAssignee("u1").singleResult().getId();
+
+        assertThatThrownBy(() -> configuration.getCommandExecutorTxRequired().execute(commandContext -> {
+            taskService.setAssignee(taskId, "u2");
+            assertThat(counter.get("u2")).isEqualTo(1);
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertOpenTasks(1, 0, 0);
+        taskService.setAssignee(taskId, "u2");
+        assertOpenTasks(0, 1, 0);
+        assertThat(counter.reconcile()).isZero();
+    }
+
+    /**
+     * 未启用 AssigneeResolverPlugin 时表达式仍可求值：不设置处理人，任务留给候选组拾取
+     */
+    @Test
+    public void leavesTaskToCandidatesWithoutPlugin() {
+        start(LoadBalancedAssigneeResolver.ROUND_ROBIN, Map.of(), false);
+
+        assertThat(startInstances(2)).containsExactly(null, null);
+        assertThat(taskService.createTaskQuery().taskCandidateGroup(GROUP_ID).count()).isEqualTo(2);
+    }
+
+    private void createGroup(String... userIds) {
+        IdentityService identityService = processEngine.getIdentityService();
+        identityService.saveGroup(identityService.newGroup(GROUP_ID));
+        for (String userId : userIds) {
+            User user = identityService.newUser(userId);
+            identityService.saveUser(user);
+            identityService.createMembership(userId, GROUP_ID);
+        }
+    }
+
+    private void createStandaloneTasks(String assignee, int count) {
+        for (int i = 0; i < count; i++) {
+            Task task = taskService.newTask();
+            task.setAssignee(assignee);
+            taskService.saveTask(task);
+        }
+    }
+
+    /**
+     * 逐个启动流程实例，返回各实例任务的处理人
+     */
+    private List<String> startInstances(int count) {
+        List<String> assignees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String instanceId = processEngine.getRuntimeService().startProcessInstanceByKey(PROCESS_KEY).getId();
+            assignees.add(taskService.createTaskQuery().processInstanceId(instanceId).singleResult().getAssignee());
+        }
+        return assignees;
+    }
+
+    private void assertOpenTasks(int u1, int u2, int u3) {
+        assertThat(List.of(counter.get("u1"), counter.get("u2"), counter.get("u3"))).containsExactly(u1, u2, u3);
+        assertThat(List.of(openTasks("u1"), openTasks("u2"), openTasks("u3"))).containsExactly(u1, u2, u3);
+    }
+
+    private int openTasks(String assignee) {
+        return (int) taskService.createTaskQuery().taskAssignee(assignee).count();
+    }
+}
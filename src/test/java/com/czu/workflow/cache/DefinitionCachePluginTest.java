@@ -0,0 +1,114 @@
+package com.czu.workflow.cache;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.DefinitionCachePlugin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefinitionCachePluginTest {
+    private static final String PINNED_KEY = "Process_0a0q999";
+    private static final List<String> FLOWS = List.of("任务分配-Assignee.bpmn", "任务分配-bean.bpmn", "任务分配-listener.bpmn",
+            "任务分配-值表达式.bpmn", "候选人分配任务.bpmn", "租户管理.bpmn");
+
+    private ProcessEngine processEngine;
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProcessEngineConfigurationImpl buildEngine(WorkflowProperties.DefinitionCache properties) {
+        meterRegistry = new SimpleMeterRegistry();
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("definition-cache",
+                new DefinitionCachePlugin(properties, meterRegistry));
+        processEngine = configuration.buildProcessEngine();
+        TestProcessEngines.deployFlows(processEngine, FLOWS.toArray(String[]::new));
+        return configuration;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    /**
+     * 超出条数上限时淘汰，固定 Key 的定义不计入容量、不被淘汰；被淘汰的定义按需重新加载并记录加载耗时
+     */
+    @Test
+    public void boundsSizeAndKeepsPinnedDefinitions() {
+        WorkflowProperties.DefinitionCache properties = new WorkflowProperties.DefinitionCache();
+        properties.setMaximumSize(2);
+        properties.setPinnedKeys(List.of(PINNED_KEY));
+        ProcessEngineConfigurationImpl configuration = buildEngine(properties);
+
+        DefinitionCache<?> cache = (DefinitionCache<?>) configuration.getDeploymentCache().getProcessDefinitionCache();
+        cache.getCache().cleanUp();
+        assertThat(cache.getCache().estimatedSize()).isLessThanOrEqualTo(2);
+        assertThat(cache.pinnedSize()).isEqualTo(1);
+
+        for (ProcessDefinition definition : processEngine.getRepositoryService().createProcessDefinitionQuery().list()) {
+            processEngine.getRepositoryService().getProcessDefinition(definition.getId());
+        }
+        cache.getCache().cleanUp();
+        assertThat(cache.getCache().estimatedSize()).isLessThanOrEqualTo(2);
+        assertThat(cache.pinnedSize()).isEqualTo(1);
+        assertThat(meterRegistry.get("workflow.definition.cache.load").tag("cache", "process-definition").timer().count())
+                .isPositive();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "process-definition").tag("result", "miss")
+                .functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "process-definition").functionCounter().count())
+                .isPositive();
+
+        processEngine.getRuntimeService().startProcessInstanceByKey(PINNED_KEY,
+                Map.of("user1", "wowo", "user2", 23, "user3", false));
+    }
+
+    /**
+     * 固定 Key 只保留最新版本，旧版本移回有界缓存；固定定义的命中计入 cache.gets
+     */
+    @Test
+    public void pinsLatestVersionOnly() {
+        WorkflowProperties.DefinitionCache properties = new WorkflowProperties.DefinitionCache();
+        properties.setMaximumSize(2);
+        properties.setPinnedKeys(List.of(PINNED_KEY));
+        ProcessEngineConfigurationImpl configuration = buildEngine(properties);
+        TestProcessEngines.deployFlows(processEngine, "任务分配-Assignee.bpmn");
+
+        DefinitionCache<?> cache = (DefinitionCache<?>) configuration.getDeploymentCache().getProcessDefinitionCache();
+        ProcessDefinition latest = processEngine.getRepositoryService().createProcessDefinitionQuery()
+                .processDefinitionKey(PINNED_KEY).latestVersion().singleResult();
+        assertThat(latest.getVersion()).isEqualTo(2);
+        assertThat(cache.pinnedSize()).isEqualTo(1);
+        assertThat(cache.isPinned(latest.getId())).isTrue();
+
+        double hits = meterRegistry.get("cache.gets").tag("cache", "process-definition").tag("result", "hit")
+                .functionCounter().count();
+        processEngine.getRepositoryService().getProcessDefinition(latest.getId());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "process-definition").tag("result", "hit")
+                .functionCounter().count()).isGreaterThan(hits);
+    }
+
+    /**
+     * 按权重限制：流程元素越多的定义占用越多
+     */
+    @Test
+    public void boundsWeight() {
+        WorkflowProperties.DefinitionCache properties = new WorkflowProperties.DefinitionCache();
+        properties.setMaximumWeight(10);
+        ProcessEngineConfigurationImpl configuration = buildEngine(properties);
+
+        DefinitionCache<?> cache = (DefinitionCache<?>) configuration.getDeploymentCache().getBpmnModelInstanceCache();
+        for (ProcessDefinition definition : processEngine.getRepositoryService().createProcessDefinitionQuery().list()) {
+            processEngine.getRepositoryService().getBpmnModelInstance(definition.getId());
+        }
+        cache.getCache().cleanUp();
+        assertThat(cache.getCache().policy().eviction().orElseThrow().weightedSize().orElseThrow()).isLessThanOrEqualTo(10);
+        assertThat(cache.getCache().estimatedSize()).isLessThan(FLOWS.size());
+    }
+}
@@ -0,0 +1,144 @@
+package com.czu.workflow.claim;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.TaskClaimPlugin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.task.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskClaimerTest {
+    private static final int TASKS = 30;
+    private static final int CLERKS = 50;
+
+    private ProcessEngine processEngine;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskClaimer taskClaimer;
+    private TaskService taskService;
+
+    private void start(String strategy) {
+        WorkflowProperties.Claim properties = new WorkflowProperties.Claim();
+        properties.setStrategy(strategy);
+        meterRegistry = new SimpleMeterRegistry();
+        taskClaimer = new TaskClaimer(properties, meterRegistry);
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("claim",
+                new TaskClaimPlugin(taskClaimer));
+        configuration.setHistoryTimeToLive("30");
+        processEngine = configuration.buildProcessEngine();
+        taskService = processEngine.getTaskService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ClockUtil.reset();
+        processEngine.close();
+    }
+
+    /**
+     * H2 不支持排序查询的 skip locked，自动改用 reservation；
+     * 50 人同时领取同一分组的 30 个任务，每个任务恰好被一人拾取，没有乐观锁失败
+     */
+    @Test
+    public void clerksClaimDistinctTasks() throws Exception {
+        start(TaskClaimer.SKIP_LOCKED);
+        assertThat(taskClaimer.getStrategy()).isEqualTo(TaskClaimer.RESERVATION);
+        List<String> taskIds = createGroupTasks("clerks", TASKS);
+
+        List<Task> claimed = claimConcurrently("clerks");
+
+        assertThat(claimed).extracting(Task::getId).containsExactlyInAnyOrderElementsOf(taskIds);
+        assertClaimedInDatabase(claimed);
+        assertThat(meterRegistry.find("workflow.claim.conflicts").tag("reason", "optimistic-lock").counter()).isNull();
+        assertThat(meterRegistry.get("workflow.claim.next").tag("outcome", "claimed").timer().count()).isEqualTo(TASKS);
+        assertThat(meterRegistry.get("workflow.claim.reservations").gauge().value()).isZero();
+    }
+
+    /**
+     * 按创建时间从早到晚领取；只领取用户作为候选人或所在分组的、同租户的未分配任务
+     */
+    @Test
+    public void claimsOldestVisibleTaskFirst() {
+        start(TaskClaimer.RESERVATION);
+        List<String> taskIds = createGroupTasks("clerks", 3);
+        Task other = createTask(new Date(0), null);
+        taskService.addCandidateGroup(other.getId(), "others");
+        Task tenantTask = createTask(new Date(0), "tenant1");
+        taskService.addCandidateGroup(tenantTask.getId(), "clerks");
+        Task direct = createTask(new Date(500), null);
+        taskService.addCandidateUser(direct.getId(), "demo");
+        taskService.claim(taskIds.get(0), "someone");
+
+        assertThat(claimNext("demo", List.of("clerks"), List.of())).isEqualTo(direct.getId());
+        assertThat(claimNext("demo", List.of("clerks"), List.of())).isEqualTo(taskIds.get(1));
+        assertThat(claimNext("demo", List.of("clerks"), List.of("tenant1"))).isEqualTo(tenantTask.getId());
+        assertThat(claimNext("demo", List.of("clerks"), List.of())).isEqualTo(taskIds.get(2));
+        assertThat(claimNext("demo", List.of("clerks"), List.of())).isNull();
+        assertThat(taskService.createTaskQuery().taskAssignee("demo").count()).isEqualTo(4);
+    }
+
+    /**
+     * 创建时间依次递增的候选组任务，返回按创建时间排序的任务ID
+     */
+    private List<String> createGroupTasks(String groupId, int count) {
+        List<String> taskIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = createTask(new Date(1_000L * (i + 1)), null);
+            taskService.addCandidateGroup(task.getId(), groupId);
+            taskIds.add(task.getId());
+        }
+        return taskIds;
+    }
+
+    private Task createTask(Date createTime, String tenantId) {
+        ClockUtil.setCurrentTime(createTime);
+        Task task = taskService.newTask();
+        task.setTenantId(tenantId);
+        taskService.saveTask(task);
+        ClockUtil.reset();
+        return task;
+    }
+
+    private String claimNext(String userId, List<String> groupIds, List<String> tenantIds) {
+        Task task = taskClaimer.claimNext(userId, groupIds, tenantIds);
+        return task != null ? task.getId() : null;
+    }
+
+    private List<Task> claimConcurrently(String groupId) throws Exception {
+        List<Callable<Task>> clerks = new ArrayList<>();
+        for (int i = 0; i < CLERKS; i++) {
+            String userId = "clerk" + i;
+            clerks.add(() -> taskClaimer.claimNext(userId, List.of(groupId), List.of()));
+        }
+        List<Task> claimed = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CLERKS)) {
+            for (Future<Task> future : executor.invokeAll(clerks)) {
+                claimed.add(future.get());
+            }
+        }
+        return claimed.stream().filter(Objects::nonNull).toList();
+    }
+
+    private void assertClaimedInDatabase(List<Task> claimed) {
+        for (Task task : claimed) {
+            assertThat(task.getAssignee()).startsWith("clerk");
+            assertThat(taskService.createTaskQuery().taskId(task.getId()).singleResult().getAssignee())
+                    .isEqualTo(task.getAssignee());
+        }
+    }
+}
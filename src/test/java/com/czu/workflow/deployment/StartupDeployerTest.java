@@ -0,0 +1,99 @@
+package com.czu.workflow.deployment;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupDeployerTest {
+    private static final int FLOW_COUNT = 7;
+
+    private ProcessEngine processEngine;
+    private ProcessEngineConfigurationImpl configuration;
+    private SimpleMeterRegistry meterRegistry;
+    private StartupDeployer deployer;
+
+    @BeforeEach
+    public void setUp() {
+        configuration = TestProcessEngines.configuration("deployer");
+        configuration.setHistoryTimeToLive("30");
+        processEngine = configuration.buildProcessEngine();
+        meterRegistry = new SimpleMeterRegistry();
+        deployer = new StartupDeployer(processEngine.getRepositoryService(), processEngine.getManagementService(),
+                new WorkflowProperties.Deployer(), meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    /**
+     * 资源未变化时不再部署；哈希丢失时由重复过滤避免产生新版本
+     */
+    @Test
+    public void deploysOnlyChangedResources() throws Exception {
+        RepositoryService repositoryService = processEngine.getRepositoryService();
+        deployer.run(new DefaultApplicationArguments());
+        assertThat(repositoryService.createDeploymentQuery().count()).isEqualTo(1);
+        assertThat(repositoryService.createProcessDefinitionQuery().count()).isEqualTo(FLOW_COUNT);
+
+        deployer.run(new DefaultApplicationArguments());
+        assertThat(repositoryService.createDeploymentQuery().count()).isEqualTo(1);
+
+        processEngine.getManagementService().deleteProperty(StartupDeployer.HASH_PROPERTY_PREFIX + "workflow-flows");
+        deployer.run(new DefaultApplicationArguments());
+        assertThat(repositoryService.createProcessDefinitionQuery().count()).isEqualTo(FLOW_COUNT);
+        assertThat(meterRegistry.get("workflow.startup").tag("phase", "deploy").timer().count()).isEqualTo(3);
+    }
+
+    /**
+     * 没有匹配的资源时跳过部署，不阻止启动
+     */
+    @Test
+    public void skipsDeploymentWithoutResources() throws Exception {
+        WorkflowProperties.Deployer properties = new WorkflowProperties.Deployer();
+        properties.setResources("classpath*:static/processResource/missing/*.bpmn");
+        new StartupDeployer(processEngine.getRepositoryService(), processEngine.getManagementService(), properties,
+                meterRegistry).run(new DefaultApplicationArguments());
+
+        assertThat(processEngine.getRepositoryService().createDeploymentQuery().count()).isZero();
+    }
+
+    /**
+     * 预热每个租户下每个 Key 的最新版本
+     */
+    @Test
+    public void warmsLatestDefinitionPerTenant() throws Exception {
+        RepositoryService repositoryService = processEngine.getRepositoryService();
+        deployer.deploy();
+        repositoryService.createDeployment()
+                .tenantId("tenant01")
+                .addClasspathResource("static/processResource/flow/租户管理.bpmn")
+                .deploy();
+        DeploymentCache deploymentCache = configuration.getDeploymentCache();
+        deploymentCache.discardProcessDefinitionCache();
+        deploymentCache.getBpmnModelInstanceCache().clear();
+        assertThat(deploymentCache.getProcessDefinitionCache().isEmpty()).isTrue();
+
+        assertThat(deployer.warmUp()).isEqualTo(FLOW_COUNT + 1);
+        List<ProcessDefinition> latest = repositoryService.createProcessDefinitionQuery().latestVersion().list();
+        assertThat(latest).hasSize(FLOW_COUNT + 1)
+                .allSatisfy(definition -> {
+                    assertThat(deploymentCache.getProcessDefinitionCache().get(definition.getId())).isNotNull();
+                    assertThat(deploymentCache.getBpmnModelInstanceCache().get(definition.getId())).isNotNull();
+                });
+    }
+}
@@ -0,0 +1,275 @@
+package com.czu.workflow.history;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.BufferedHistoryPlugin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class BufferedHistoryPluginTest {
+    private static final String PROCESS_KEY = "Process_0a0q999";
+
+    @TempDir
+    private Path spillDirectory;
+    @TempDir
+    private Path storeDirectory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BufferedHistoryPlugin plugin;
+    private ProcessEngine processEngine;
+
+    private void buildEngine(boolean async) {
+        WorkflowProperties.History properties = new WorkflowProperties.History();
+        properties.setAsync(async);
+        buildEngine(properties);
+    }
+
+    private void buildEngine(WorkflowProperties.History properties) {
+        buildEngine(properties, TestProcessEngines.jdbcUrl("history"),
+                ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP);
+    }
+
+    private void buildEngine(WorkflowProperties.History properties, String jdbcUrl, String schemaUpdate) {
+        properties.setSpillDirectory(spillDirectory.toString());
+        meterRegistry = new SimpleMeterRegistry();
+        plugin = new BufferedHistoryPlugin(properties, new HistoryWriteMetrics(meterRegistry));
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("history", plugin);
+        processEngine = configuration
+                .setJdbcUrl(jdbcUrl)
+                .setDatabaseSchemaUpdate(schemaUpdate)
+                .setHistory(ProcessEngineConfiguration.HISTORY_FULL)
+                .buildProcessEngine();
+        TestProcessEngines.deployFlows(processEngine, "任务分配-Assignee.bpmn");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (plugin.getWriter() != null) {
+            plugin.getWriter().close();
+        }
+        if (plugin.getStore() != null) {
+            plugin.getStore().close();
+        }
+        processEngine.close();
+    }
+
+    /**
+     * 同步模式：历史随运行时事务提交，提交后立即可查
+     */
+    @Test
+    public void writesHistoryInRuntimeTransaction() {
+        buildEngine(false);
+        ProcessInstance instance = runFlow();
+
+        HistoryService historyService = processEngine.getHistoryService();
+        assertThat(historyService.createHistoricActivityInstanceQuery().processInstanceId(instance.getId()).count()).isPositive();
+        assertThat(historyService.createHistoricTaskInstanceQuery().processInstanceId(instance.getId()).finished().singleResult()
+                .getAssignee()).isEqualTo("other");
+        assertThat(meterRegistry.get("workflow.history.write").tag("mode", "sync").timer().count()).isPositive();
+    }
+
+    /**
+     * 异步模式：提交后由后台线程写入，写完后落盘日志只剩当前段
+     */
+    @Test
+    public void writesHistoryAfterCommit() throws IOException {
+        buildEngine(true);
+        ProcessInstance instance = runFlow();
+
+        HistoryService historyService = processEngine.getHistoryService();
+        awaitTrue(() -> historyService.createHistoricTaskInstanceQuery()
+                .processInstanceId(instance.getId()).finished().count() == 1);
+        assertThat(historyService.createHistoricTaskInstanceQuery().processInstanceId(instance.getId()).finished().singleResult()
+                .getAssignee()).isEqualTo("other");
+        assertThat(historyService.createHistoricVariableInstanceQuery().processInstanceId(instance.getId()).count()).isEqualTo(3);
+        awaitTrue(() -> meterRegistry.get("workflow.history.backlog").gauge().value() == 0);
+        assertThat(meterRegistry.get("workflow.history.write").tag("mode", "async").timer().count()).isPositive();
+        try (var files = Files.list(spillDirectory)) {
+            assertThat(files).hasSize(1);
+        }
+        assertThat(markers()).isEmpty();
+    }
+
+    /**
+     * 重启时只重放提交标记仍在的批次（运行时事务已提交、历史未写入），不论落盘日志中是否记下了结果；
+     * 未提交、已回滚、已写入的批次都没有标记，直接丢弃。待重放的批次多于内存队列容量时照常启动
+     */
+    @Test
+    public void replaysOnlyCommittedBatchesOnStartup() throws IOException {
+        String jdbcUrl = TestProcessEngines.jdbcUrl("history");
+        ProcessEngine previous = new StandaloneInMemProcessEngineConfiguration()
+                .setProcessEngineName("previous")
+                .setJdbcUrl(jdbcUrl)
+                .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_TRUE)
+                .setHistory(ProcessEngineConfiguration.HISTORY_FULL)
+                .setJobExecutorActivate(false)
+                .buildProcessEngine();
+        previous.getManagementService().setProperty(marker("committed"), "0");
+        previous.getManagementService().setProperty(marker("unresolved"), "0");
+        previous.close();
+
+        HistorySpillJournal journal = new HistorySpillJournal(spillDirectory, 1024 * 1024);
+        journal.recover();
+        journal.committed(journal.prepare(serialize("committed")));
+        journal.prepare(serialize("unresolved"));
+        journal.prepare(serialize("uncommitted"));
+        journal.rolledBack(journal.prepare(serialize("rolled-back")));
+        journal.committed(journal.prepare(serialize("applied")));
+        journal.close();
+
+        WorkflowProperties.History properties = new WorkflowProperties.History();
+        properties.setAsync(true);
+        properties.setMaxPendingBatches(1);
+        buildEngine(properties, jdbcUrl, ProcessEngineConfiguration.DB_SCHEMA_UPDATE_TRUE);
+
+        HistoryService historyService = processEngine.getHistoryService();
+        awaitTrue(() -> historyService.createHistoricProcessInstanceQuery().count() == 2);
+        assertThat(historyService.createHistoricProcessInstanceQuery().processInstanceId("committed").count()).isEqualTo(1);
+        assertThat(historyService.createHistoricProcessInstanceQuery().processInstanceId("unresolved").count()).isEqualTo(1);
+        awaitTrue(() -> markers().isEmpty());
+        assertThat(historyService.createHistoricProcessInstanceQuery().count()).isEqualTo(2);
+    }
+
+    /**
+     * 变量历史写入映射存储：数据库中没有变量历史，重新打开后从段中重建索引
+     */
+    @Test
+    public void writesVariablesToMappedStore() throws IOException {
+        WorkflowProperties.History properties = new WorkflowProperties.History();
+        properties.setVariableStore("mapped");
+        properties.setVariableStoreDirectory(storeDirectory.toString());
+        // 小段以覆盖换段
+        properties.setVariableStoreSegmentSize(DataSize.ofBytes(512));
+        buildEngine(properties);
+        ProcessInstance instance = runFlow();
+        processEngine.getRuntimeService().startProcessInstanceByKey(PROCESS_KEY, Map.of("user1", "other"));
+
+        HistoryService historyService = processEngine.getHistoryService();
+        assertThat(historyService.createHistoricDetailQuery().count()).isZero();
+        assertThat(historyService.createHistoricVariableInstanceQuery().count()).isZero();
+        assertThat(historyService.createHistoricTaskInstanceQuery().processInstanceId(instance.getId()).finished().count()).isEqualTo(1);
+        assertMappedVariables(plugin.getStore(), instance.getId());
+
+        plugin.getStore().close();
+        try (var files = Files.list(storeDirectory)) {
+            assertThat(files).hasSizeGreaterThan(1);
+        }
+        MappedHistoryStore reopened = new MappedHistoryStore(storeDirectory, 512, Duration.ofDays(30));
+        reopened.open();
+        assertMappedVariables(reopened, instance.getId());
+        // 第二个实例：user1 创建及第一个任务监听器的更新
+        assertThat(reopened.createDetailQuery().count()).isEqualTo(7);
+        reopened.close();
+
+        // 保留期限为 0：打开时只保留最后一段，其余段连同索引中的记录一起删除
+        MappedHistoryStore expired = new MappedHistoryStore(storeDirectory, 512, Duration.ZERO);
+        expired.open();
+        try (var files = Files.list(storeDirectory)) {
+            assertThat(files).hasSize(1);
+        }
+        assertThat(expired.createDetailQuery().count()).isLessThan(7);
+        assertThat(expired.createDetailQuery().list()).hasSize((int) expired.createDetailQuery().count());
+        expired.close();
+    }
+
+    private static void assertMappedVariables(MappedHistoryStore store, String processInstanceId) {
+        // 两个任务的创建监听器各更新一次 user1
+        assertThat(store.createDetailQuery().processInstanceId(processInstanceId).count()).isEqualTo(5);
+        assertThat(store.createDetailQuery().processInstanceId(processInstanceId).variableName("user1").list())
+                .extracting(MappedVariableUpdate::getEventType)
+                .containsExactly("create", "update", "update");
+        MappedVariableUpdate user2 = store.createDetailQuery().processInstanceId(processInstanceId)
+                .variableName("user2").list().get(0);
+        assertThat(user2.getValue()).isEqualTo(23);
+        assertThat(user2.getTypeName()).isEqualTo("integer");
+        assertThat(user2.getEventType()).isEqualTo("create");
+        assertThat(store.variables(processInstanceId))
+                .extracting(MappedVariableUpdate::getVariableName, MappedVariableUpdate::getValue)
+                .containsExactlyInAnyOrder(tuple("user1", "wowoCamundaCamunda"), tuple("user2", 23), tuple("user3", false));
+    }
+
+    private ProcessInstance runFlow() {
+        ProcessInstance instance = processEngine.getRuntimeService().startProcessInstanceByKey(PROCESS_KEY,
+                Map.of("user1", "wowo", "user2", 23, "user3", false));
+        Task task = processEngine.getTaskService().createTaskQuery().processInstanceId(instance.getId()).singleResult();
+        // 任务更新的历史事件在命令上下文关闭回调中产生
+        processEngine.getTaskService().setAssignee(task.getId(), "other");
+        processEngine.getTaskService().complete(task.getId());
+        return instance;
+    }
+
+    private static HistoryEvent processInstanceStarted(String id) {
+        HistoricProcessInstanceEventEntity event = new HistoricProcessInstanceEventEntity();
+        event.setId(id);
+        event.setProcessInstanceId(id);
+        event.setProcessDefinitionId("definition");
+        event.setProcessDefinitionKey("key");
+        event.setStartTime(new Date());
+        event.setEventType(HistoryEventTypes.PROCESS_INSTANCE_START.getEventName());
+        event.setState("ACTIVE");
+        return event;
+    }
+
+    private static String marker(String processInstanceId) {
+        return AsyncHistoryWriter.MARKER_PREFIX + processInstanceId;
+    }
+
+    private List<String> markers() {
+        return processEngine.getManagementService().getProperties().keySet().stream()
+                .filter(name -> name.startsWith(AsyncHistoryWriter.MARKER_PREFIX))
+                .toList();
+    }
+
+    /**
+     * 一个流程实例启动事件的落盘批次
+     */
+    private static byte[] serialize(String processInstanceId) throws IOException {
+        List<HistoryEvent> events = List.of(processInstanceStarted(processInstanceId));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new AsyncHistoryWriter.SpilledBatch(marker(processInstanceId), new ArrayList<>(events)));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("等待异步历史写入").isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
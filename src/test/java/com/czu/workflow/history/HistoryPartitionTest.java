@@ -0,0 +1,81 @@
+package com.czu.workflow.history;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.HistoryPartitionPlugin;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HistoryPartitionTest {
+
+    /**
+     * 没有按日期划分的分区时（与脚本建立的初始分区一致）：从今天所在的区间开始预建，覆盖到预建天数之后
+     */
+    @Test
+    public void createsPartitionsAheadOnFirstRun() {
+        LocalDate today = LocalDate.of(2026, 10, 17);
+        HistoryPartitionPlan plan = HistoryPartitionPlan.of(List.of(), today, 7, 20);
+
+        assertThat(plan.drop()).isEmpty();
+        assertThat(plan.create().get(0).name()).isEqualTo("p20261015");
+        assertThat(plan.create()).extracting(HistoryPartitionPlan.Partition::upperBound)
+                .containsExactly(LocalDate.of(2026, 10, 22), LocalDate.of(2026, 10, 29),
+                        LocalDate.of(2026, 11, 5), LocalDate.of(2026, 11, 12));
+    }
+
+    /**
+     * 之后的执行：删除上界不晚于今天的分区，从最后一个分区的上界继续预建
+     */
+    @Test
+    public void dropsExpiredAndExtendsExisting() {
+        List<HistoryPartitionPlan.Partition> existing = List.of(
+                HistoryPartitionPlan.Partition.of(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 8)),
+                HistoryPartitionPlan.Partition.of(LocalDate.of(2026, 10, 8), LocalDate.of(2026, 10, 15)),
+                HistoryPartitionPlan.Partition.of(LocalDate.of(2026, 10, 15), LocalDate.of(2026, 10, 22)));
+        HistoryPartitionPlan plan = HistoryPartitionPlan.of(existing, LocalDate.of(2026, 10, 15), 7, 10);
+
+        assertThat(plan.drop()).containsExactly("p20261001", "p20261008");
+        assertThat(plan.create()).extracting(HistoryPartitionPlan.Partition::name).containsExactly("p20261022");
+    }
+
+    /**
+     * 候选组分配任务.bpmn 未设置 historyTimeToLive：使用默认值部署，删除时间在流程启动时写入
+     */
+    @Test
+    public void setsRemovalTimeAtStartWithDefaultTimeToLive() {
+        WorkflowProperties.HistoryPartition properties = new WorkflowProperties.HistoryPartition();
+        properties.setEnabled(true);
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("partition",
+                new HistoryPartitionPlugin(properties));
+        ProcessEngine processEngine = configuration
+                .setHistory(ProcessEngineConfiguration.HISTORY_FULL)
+                .buildProcessEngine();
+        try {
+            TestProcessEngines.deployFlows(processEngine, "候选组分配任务.bpmn");
+            ProcessInstance instance = processEngine.getRuntimeService().startProcessInstanceByKey("Process_0cs766a",
+                    Map.of("group1", "jxGroup"));
+
+            HistoricProcessInstance historic = processEngine.getHistoryService().createHistoricProcessInstanceQuery()
+                    .processInstanceId(instance.getId()).singleResult();
+            assertThat(historic.getRemovalTime()).isNotNull();
+            assertThat(historic.getRemovalTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate())
+                    .isEqualTo(historic.getStartTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().plusDays(30));
+            assertThat(processEngine.getHistoryService().createHistoricActivityInstanceQuery()
+                    .processInstanceId(instance.getId()).list())
+                    .allSatisfy(activity -> assertThat(activity.getRemovalTime()).isEqualTo(historic.getRemovalTime()));
+        } finally {
+            processEngine.close();
+        }
+    }
+}
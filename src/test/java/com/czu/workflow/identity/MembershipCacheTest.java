@@ -0,0 +1,76 @@
+package com.czu.workflow.identity;
+
+import com.czu.workflow.config.WorkflowProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.identity.Group;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MembershipCacheTest {
+
+    private IdentityService identityService;
+    private MembershipCache membershipCache;
+
+    @BeforeEach
+    public void setUp() {
+        identityService = mock(IdentityService.class, Answers.RETURNS_DEEP_STUBS);
+        Group group = mock(Group.class);
+        when(group.getId()).thenReturn("jxGroup");
+        when(identityService.createGroupQuery().groupMember("wowo").list()).thenReturn(List.of(group));
+
+        membershipCache = new MembershipCache(new WorkflowProperties.IdentityCache());
+        membershipCache.bind(identityService);
+    }
+
+    /**
+     * 命中缓存时不再回源查询
+     */
+    @Test
+    public void cachesGroupsOfUser() {
+        assertThat(membershipCache.getGroupIds("wowo")).containsExactly("jxGroup");
+        assertThat(membershipCache.getGroupIds("wowo")).containsExactly("jxGroup");
+
+        verify(identityService.createGroupQuery().groupMember("wowo"), times(1)).list();
+        assertThat(membershipCache.getHitCount()).isEqualTo(1);
+        assertThat(membershipCache.getMissCount()).isEqualTo(1);
+    }
+
+    /**
+     * 成员关系变更后重新回源
+     */
+    @Test
+    public void reloadsAfterInvalidation() {
+        membershipCache.getGroupIds("wowo");
+        membershipCache.invalidateUser("wowo");
+        membershipCache.getGroupIds("wowo");
+
+        verify(identityService.createGroupQuery().groupMember("wowo"), times(2)).list();
+    }
+
+    /**
+     * 两个缓存的命中和未命中分别以 cache tag 导出
+     */
+    @Test
+    public void bindsCacheMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        membershipCache.bindMetrics(meterRegistry);
+        membershipCache.getGroupIds("wowo");
+        membershipCache.getGroupIds("wowo");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "user-groups").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "user-groups").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.size").tag("cache", "user-tenants").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package com.czu.workflow.inbox;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.InboxProjectionPlugin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.task.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InboxProjectionTest {
+    private static final String CANDIDATE_USERS_KEY = "Process_1c6zsko";
+    private static final String CANDIDATE_GROUPS_KEY = "Process_0cs766a";
+
+    private ProcessEngineConfigurationImpl configuration;
+    private ProcessEngine processEngine;
+    private SimpleMeterRegistry meterRegistry;
+    private InboxProjection projection;
+    private RuntimeService runtimeService;
+    private TaskService taskService;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        InboxProjectionPlugin plugin = new InboxProjectionPlugin(new WorkflowProperties.Inbox(), meterRegistry);
+        configuration = TestProcessEngines.configuration("inbox", plugin);
+        configuration.setHistoryTimeToLive("30");
+        processEngine = configuration.buildProcessEngine();
+        TestProcessEngines.deployFlows(processEngine, "候选人分配任务.bpmn", "候选组分配任务.bpmn");
+        projection = plugin.getProjection();
+        projection.start();
+        runtimeService = processEngine.getRuntimeService();
+        taskService = processEngine.getTaskService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        projection.close();
+        processEngine.close();
+    }
+
+    /**
+     * 创建、拾取、完成任务后投影随之变化，候选人只能看到未分配的任务
+     */
+    @Test
+    public void followsTaskEvents() {
+        runtimeService.startProcessInstanceByKey(CANDIDATE_USERS_KEY,
+                Map.of("user1", "zhangsan", "user2", "lisi", "user3", "wangwu"));
+        runtimeService.startProcessInstanceByKey(CANDIDATE_GROUPS_KEY, Map.of("group1", "g1"));
+
+        assertThat(inbox("wowo")).hasSize(1);
+        assertThat(projection.inbox("someone", List.of("g1"), List.of(), 0, 10)).hasSize(1);
+        assertThat(projection.inbox("someone", List.of("g1"), List.of(), 0, Integer.MAX_VALUE)).hasSize(1);
+        assertThat(projection.inbox("wowo", List.of(), List.of("t1"), 0, 10)).isEmpty();
+
+        Task task = taskService.createTaskQuery().processDefinitionKey(CANDIDATE_USERS_KEY).singleResult();
+        taskService.claim(task.getId(), "demo");
+        assertThat(inbox("wowo")).isEmpty();
+        assertThat(inbox("demo")).extracting(InboxEntry::id).containsExactly(task.getId());
+
+        taskService.complete(task.getId());
+        assertThat(inbox("demo")).isEmpty();
+        assertThat(inbox("lisi")).hasSize(1);
+        assertThat(projection.size()).isEqualTo(2);
+        assertThat(projection.countByTenant(null)).isEqualTo(2);
+    }
+
+    /**
+     * 回滚的事务不更新投影
+     */
+    @Test
+    public void ignoresRolledBackTransactions() {
+        assertThatThrownBy(() -> configuration.getCommandExecutorTxRequired().execute(commandContext -> {
+            runtimeService.startProcessInstanceByKey(CANDIDATE_GROUPS_KEY, Map.of("group1", "g1"));
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(taskService.createTaskQuery().count()).isZero();
+        assertThat(projection.size()).isZero();
+    }
+
+    /**
+     * 不触发任务监听器的变更（独立任务）在对账时补上；启动时从数据库重建
+     */
+    @Test
+    public void reconcilesWithDatabase() {
+        runtimeService.startProcessInstanceByKey(CANDIDATE_GROUPS_KEY, Map.of("group1", "g1"));
+        Task task = taskService.createTaskQuery().singleResult();
+        taskService.addCandidateUser(task.getId(), "newbie");
+        Task standalone = taskService.newTask();
+        standalone.setAssignee("newbie");
+        taskService.saveTask(standalone);
+        assertThat(inbox("newbie")).extracting(InboxEntry::id).containsExactly(task.getId());
+
+        assertThat(projection.reconcile()).isEqualTo(1);
+        assertThat(inbox("newbie")).extracting(InboxEntry::id).containsExactlyInAnyOrder(task.getId(), standalone.getId());
+        assertThat(projection.reconcile()).isZero();
+        assertThat(meterRegistry.get("workflow.inbox.projection.drift").counter().count()).isEqualTo(1);
+
+        InboxProjection rebuilt = new InboxProjection(new WorkflowProperties.Inbox(), new SimpleMeterRegistry());
+        rebuilt.bind(configuration.getCommandExecutorTxRequired());
+        rebuilt.start();
+        try {
+            assertThat(rebuilt.inbox("newbie", List.of(), List.of(), 0, 10)).hasSize(2);
+            assertThat(rebuilt.inbox("someone", List.of("g1"), List.of(), 0, 10)).hasSize(1);
+        } finally {
+            rebuilt.close();
+        }
+    }
+
+    private List<InboxEntry> inbox(String userId) {
+        return projection.inbox(userId, List.of(), List.of(), 0, 10);
+    }
+}
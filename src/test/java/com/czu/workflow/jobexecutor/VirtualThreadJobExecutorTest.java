@@ -0,0 +1,106 @@
+package com.czu.workflow.jobexecutor;
+
+import com.czu.workflow.TestProcessEngines;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadJobExecutorTest {
+    private static final int SLOW_INSTANCES = 4;
+    private static final int FAST_INSTANCES = 3;
+
+    private static CountDownLatch slowReleased;
+    private static CountDownLatch fastDone;
+
+    private VirtualThreadJobExecutor jobExecutor;
+    private ProcessEngine processEngine;
+
+    /**
+     * 阻塞直到测试放行
+     */
+    public static class SlowDelegate implements JavaDelegate {
+        @Override
+        public void execute(DelegateExecution execution) throws Exception {
+            slowReleased.await(30, TimeUnit.SECONDS);
+        }
+    }
+
+    public static class FastDelegate implements JavaDelegate {
+        @Override
+        public void execute(DelegateExecution execution) {
+            fastDone.countDown();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        slowReleased = new CountDownLatch(1);
+        fastDone = new CountDownLatch(FAST_INSTANCES);
+        // 总并发 2，单流程定义并发 1
+        jobExecutor = new VirtualThreadJobExecutor(2, 1, 5);
+        jobExecutor.setWaitTimeInMillis(200);
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("jobs");
+        configuration.setJobExecutor(jobExecutor);
+        configuration.setHistoryTimeToLive("30");
+        processEngine = configuration.buildProcessEngine();
+        processEngine.getRepositoryService().createDeployment()
+                .addModelInstance("slow.bpmn", asyncProcess("slow", SlowDelegate.class))
+                .addModelInstance("fast.bpmn", asyncProcess("fast", FastDelegate.class))
+                .deploy();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        slowReleased.countDown();
+        processEngine.close();
+    }
+
+    /**
+     * 一个流程定义达到并发上限时，它的其余作业推迟到下一轮获取，不占用总并发许可，
+     * 其他流程定义的作业照常执行
+     */
+    @Test
+    public void saturatedDefinitionDoesNotStarveOthers() throws InterruptedException {
+        for (int i = 0; i < SLOW_INSTANCES; i++) {
+            processEngine.getRuntimeService().startProcessInstanceByKey("slow");
+        }
+        for (int i = 0; i < FAST_INSTANCES; i++) {
+            processEngine.getRuntimeService().startProcessInstanceByKey("fast");
+        }
+        jobExecutor.start();
+
+        assertThat(fastDone.await(20, TimeUnit.SECONDS)).isTrue();
+        assertThat(jobExecutor.getMetrics().getThrottledBatches()).isPositive();
+
+        slowReleased.countDown();
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (processEngine.getManagementService().createJobQuery().count() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(processEngine.getManagementService().createJobQuery().count()).isZero();
+        assertThat(jobExecutor.getMetrics().getExecutedJobs()).isEqualTo(SLOW_INSTANCES + FAST_INSTANCES);
+    }
+
+    private static BpmnModelInstance asyncProcess(String key, Class<? extends JavaDelegate> delegate) {
+        return Bpmn.createExecutableProcess(key)
+                .camundaHistoryTimeToLive(30)
+                .startEvent()
+                .serviceTask("work")
+                .camundaAsyncBefore()
+                .camundaClass(delegate.getName())
+                .endEvent()
+                .done();
+    }
+}
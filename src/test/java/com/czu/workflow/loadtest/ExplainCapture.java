@@ -0,0 +1,93 @@
+package com.czu.workflow.loadtest;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.SystemMetaObject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 在 {@link #capture(Supplier)} 期间，对指定的 MyBatis 语句用引擎实际生成的 SQL 和参数执行一次 EXPLAIN，
+ * 得到的是真实查询的执行计划，而不是手写的近似语句。MySQL 使用 explain format=tree，其他数据库使用 explain
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "parameterize", args = {Statement.class}))
+public class ExplainCapture implements Interceptor {
+    private final Set<String> statementIds;
+    private final Map<String, String> plans = new ConcurrentHashMap<>();
+    private volatile boolean capturing;
+
+    /**
+     * @param statementIds 不带命名空间的语句 ID，如 selectTaskByQueryCriteria
+     */
+    public ExplainCapture(Set<String> statementIds) {
+        this.statementIds = statementIds;
+    }
+
+    /**
+     * 执行 action，返回期间每条指定语句第一次执行时的计划（语句 ID -> 计划）
+     */
+    public synchronized Map<String, String> capture(Supplier<?> action) {
+        plans.clear();
+        capturing = true;
+        try {
+            action.get();
+        } finally {
+            capturing = false;
+        }
+        return Map.copyOf(plans);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (capturing) {
+            StatementHandler handler = (StatementHandler) invocation.getTarget();
+            String statementId = statementId(handler);
+            if (statementIds.contains(statementId) && !plans.containsKey(statementId)) {
+                plans.put(statementId, explain(((Statement) invocation.getArgs()[0]).getConnection(), handler));
+            }
+        }
+        return invocation.proceed();
+    }
+
+    private static String statementId(StatementHandler handler) {
+        MappedStatement mappedStatement = (MappedStatement) SystemMetaObject.forObject(handler)
+                .getValue("delegate.mappedStatement");
+        String id = mappedStatement.getId();
+        return id.substring(id.lastIndexOf('.') + 1);
+    }
+
+    private static String explain(Connection connection, StatementHandler handler) throws SQLException {
+        String prefix = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")
+                ? "explain format=tree "
+                : "explain ";
+        try (PreparedStatement statement = connection.prepareStatement(prefix + handler.getBoundSql().getSql())) {
+            handler.getParameterHandler().setParameters(statement);
+            List<String> rows = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int columns = resultSet.getMetaData().getColumnCount();
+                while (resultSet.next()) {
+                    List<String> values = new ArrayList<>(columns);
+                    for (int i = 1; i <= columns; i++) {
+                        values.add(resultSet.getString(i));
+                    }
+                    rows.add(String.join(" | ", values));
+                }
+            }
+            return String.join("\n", rows);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.czu.workflow.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用 JDBC 批量写入独立任务和候选身份链接，生成待办箱查询的压测数据，百万级任务不经过引擎 API。
+ * 分布：40% 无租户，其余平均分到各租户；30% 已分配给随机用户，其余有一个候选组，其中 30% 另有一个候选人；
+ * 创建时间分布在最近 90 天。用户、分组、租户的 ID 为 userN / groupN / tenantN（引擎默认的资源 ID 规则不允许 -）
+ */
+public class InboxDataSeeder {
+    static final String TASK_ID_PREFIX = "bench-";
+
+    private static final String INSERT_TASK = "insert into ACT_RU_TASK (ID_, REV_, NAME_, TASK_DEF_KEY_, PRIORITY_,"
+            + " CREATE_TIME_, LAST_UPDATED_, SUSPENSION_STATE_, TENANT_ID_, ASSIGNEE_) values (?, 1, '压测任务', 'bench', 50, ?, ?, 1, ?, ?)";
+    private static final String INSERT_LINK = "insert into ACT_RU_IDENTITYLINK (ID_, REV_, GROUP_ID_, TYPE_, USER_ID_, TASK_ID_,"
+            + " TENANT_ID_) values (?, 1, ?, 'candidate', ?, ?, ?)";
+    private static final long SPREAD_MILLIS = TimeUnit.DAYS.toMillis(90);
+
+    private final int users;
+    private final int groups;
+    private final int tenants;
+    private final int batchSize;
+
+    public InboxDataSeeder(int users, int groups, int tenants, int batchSize) {
+        this.users = users;
+        this.groups = groups;
+        this.tenants = tenants;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 已写入的压测任务数，据此续写，重复运行不会重复插入
+     */
+    public static long count(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "select count(*) from ACT_RU_TASK where ID_ like '" + TASK_ID_PREFIX + "%'")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * 写入编号 [from, to) 的任务，每批提交一次
+     */
+    public void seed(Connection connection, long from, long to, Random random) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long now = System.currentTimeMillis();
+        try (PreparedStatement task = connection.prepareStatement(INSERT_TASK);
+             PreparedStatement link = connection.prepareStatement(INSERT_LINK)) {
+            for (long i = from; i < to; i++) {
+                String taskId = TASK_ID_PREFIX + i;
+                String tenantId = random.nextInt(10) < 4 ? null : "tenant" + random.nextInt(tenants);
+                boolean assigned = random.nextInt(10) < 3;
+                Timestamp createTime = new Timestamp(now - (long) (random.nextDouble() * SPREAD_MILLIS));
+                task.setString(1, taskId);
+                task.setTimestamp(2, createTime);
+                task.setTimestamp(3, createTime);
+                task.setString(4, tenantId);
+                task.setString(5, assigned ? "user" + random.nextInt(users) : null);
+                task.addBatch();
+                if (!assigned) {
+                    addLink(link, taskId + "-g", "group" + random.nextInt(groups), null, taskId, tenantId);
+                    if (random.nextInt(10) < 3) {
+                        addLink(link, taskId + "-u", null, "user" + random.nextInt(users), taskId, tenantId);
+                    }
+                }
+                if ((i - from + 1) % batchSize == 0 || i == to - 1) {
+                    task.executeBatch();
+                    link.executeBatch();
+                    connection.commit();
+                }
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void addLink(PreparedStatement link, String id, String groupId, String userId, String taskId,
+                                String tenantId) throws SQLException {
+        link.setString(1, id);
+        link.setString(2, groupId);
+        link.setString(3, userId);
+        link.setString(4, taskId);
+        link.setString(5, tenantId);
+        link.addBatch();
+    }
+}
@@ -0,0 +1,169 @@
+package com.czu.workflow.loadtest;
+
+import com.czu.workflow.service.InboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.identity.Group;
+import org.camunda.bpm.engine.identity.Tenant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 待办箱复合索引（db/mysql_inbox_indexes_7.24.0.sql）的压测：写入百万级任务后，按相同的用户序列执行待办箱的数据库查询，
+ * 依次测量索引创建前后的 p50/p95/p99，并输出引擎实际 SQL 的执行计划。数据库中已有该索引时只测量创建后。
+ * 启动方式见 {@link InboxIndexBenchmarkConfiguration}，应连接专用的压测库，写入的数据不会删除
+ */
+@Slf4j
+@Component
+@Profile("index-benchmark")
+public class InboxIndexBenchmark implements ApplicationRunner {
+    static final String MIGRATION = "db/mysql_inbox_indexes_7.24.0.sql";
+    static final String VERSION_PROPERTY = "workflow.inbox-indexes.version";
+    private static final int WARMUP_QUERIES = 100;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private IdentityService identityService;
+
+    @Autowired
+    private ManagementService managementService;
+
+    @Autowired
+    private InboxService inboxService;
+
+    @Autowired
+    private ExplainCapture explainCapture;
+
+    @Autowired
+    private InboxIndexBenchmarkConfiguration.BenchmarkProperties properties;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        seed(properties);
+        prepareIdentities(properties);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        List<String> phases = new ArrayList<>();
+        if (!managementService.getProperties().containsKey(VERSION_PROPERTY)) {
+            measure("before", properties, recorder);
+            phases.add("before");
+            long start = System.nanoTime();
+            try (Connection connection = dataSource.getConnection()) {
+                SqlScript.execute(connection, MIGRATION);
+            }
+            log.info("已执行 {}，耗时 {}s", MIGRATION, String.format("%.1f", (System.nanoTime() - start) / 1_000_000_000.0));
+        } else {
+            log.info("{} 已执行过（{}={}），只测量创建索引后的查询", MIGRATION, VERSION_PROPERTY,
+                    managementService.getProperties().get(VERSION_PROPERTY));
+        }
+        measure("after", properties, recorder);
+        phases.add("after");
+        report(phases, recorder);
+
+        if (properties.isExitOnFinish()) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private void seed(InboxIndexBenchmarkConfiguration.BenchmarkProperties properties) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            long existing = InboxDataSeeder.count(connection);
+            if (existing >= properties.getTasks()) {
+                log.info("压测任务已存在: {}", existing);
+                return;
+            }
+            log.info("写入压测任务: {} -> {}", existing, properties.getTasks());
+            long start = System.nanoTime();
+            new InboxDataSeeder(properties.getUsers(), properties.getGroups(), properties.getTenants(), properties.getBatchSize())
+                    .seed(connection, existing, properties.getTasks(), new Random(properties.getSeed() + existing));
+            log.info("写入完成，耗时 {}s", String.format("%.1f", (System.nanoTime() - start) / 1_000_000_000.0));
+        }
+    }
+
+    /**
+     * 每个用户属于 3 个分组；偶数编号的用户属于一个租户，奇数编号的用户没有租户、只看公共任务
+     */
+    private void prepareIdentities(InboxIndexBenchmarkConfiguration.BenchmarkProperties properties) {
+        for (int i = 0; i < properties.getGroups(); i++) {
+            String groupId = "group" + i;
+            if (identityService.createGroupQuery().groupId(groupId).count() == 0) {
+                Group group = identityService.newGroup(groupId);
+                group.setName(groupId);
+                identityService.saveGroup(group);
+            }
+        }
+        for (int i = 0; i < properties.getTenants(); i++) {
+            String tenantId = "tenant" + i;
+            if (identityService.createTenantQuery().tenantId(tenantId).count() == 0) {
+                Tenant tenant = identityService.newTenant(tenantId);
+                tenant.setName(tenantId);
+                identityService.saveTenant(tenant);
+            }
+        }
+        for (int i = 0; i < properties.getUsers(); i++) {
+            String userId = "user" + i;
+            if (identityService.createUserQuery().userId(userId).count() > 0) {
+                continue;
+            }
+            identityService.saveUser(identityService.newUser(userId));
+            for (int k = 0; k < 3; k++) {
+                identityService.createMembership(userId, "group" + (i * 3 + k) % properties.getGroups());
+            }
+            if (i % 2 == 0) {
+                identityService.createTenantUserMembership("tenant" + (i / 2) % properties.getTenants(), userId);
+            }
+        }
+    }
+
+    private void measure(String phase, InboxIndexBenchmarkConfiguration.BenchmarkProperties properties, LatencyRecorder recorder) {
+        Random random = new Random(properties.getSeed());
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            inboxService.getInbox("user" + random.nextInt(properties.getUsers()), 0, 20);
+        }
+        for (String userId : List.of("user0", "user1")) {
+            Map<String, String> plans = explainCapture.capture(() -> inboxService.getInbox(userId, 0, 20));
+            plans.forEach((statement, plan) -> log.info("[{}] {} 的 {} 执行计划:\n{}", phase, userId, statement, plan));
+        }
+        random = new Random(properties.getSeed());
+        for (int i = 0; i < properties.getQueries(); i++) {
+            String userId = "user" + random.nextInt(properties.getUsers());
+            long start = System.nanoTime();
+            inboxService.getInbox(userId, 0, 20);
+            recorder.record(phase, System.nanoTime() - start);
+        }
+    }
+
+    private void report(List<String> phases, LatencyRecorder recorder) {
+        log.info(String.format("%-8s %8s %10s %10s %10s %10s", "阶段", "查询数", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)"));
+        for (String phase : phases) {
+            LatencyRecorder.Summary summary = recorder.summarize(phase);
+            log.info(String.format("%-8s %8d %10.2f %10.2f %10.2f %10.2f",
+                    phase, summary.count(), summary.p50(), summary.p95(), summary.p99(), summary.max()));
+        }
+        if (phases.size() == 2) {
+            LatencyRecorder.Summary before = recorder.summarize("before");
+            LatencyRecorder.Summary after = recorder.summarize("after");
+            log.info("p50 加速 {}x，p95 加速 {}x",
+                    String.format("%.1f", before.p50() / after.p50()), String.format("%.1f", before.p95() / after.p95()));
+        }
+    }
+}
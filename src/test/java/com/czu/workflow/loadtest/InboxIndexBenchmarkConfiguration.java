@@ -0,0 +1,78 @@
+package com.czu.workflow.loadtest;
+
+import com.czu.workflow.Application;
+import lombok.Data;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEnginePlugin;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.Set;
+
+/**
+ * {@link InboxIndexBenchmark} 所需的 Bean，只在测试类路径中，不进入生产包。
+ * 启动方式：mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.czu.workflow.loadtest.InboxIndexBenchmarkConfiguration
+ */
+@Configuration
+@Profile("index-benchmark")
+public class InboxIndexBenchmarkConfiguration {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setAdditionalProfiles("index-benchmark");
+        application.run(args);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "workflow.index-benchmark")
+    public BenchmarkProperties indexBenchmarkProperties() {
+        return new BenchmarkProperties();
+    }
+
+    @Bean
+    public ExplainCapture explainCapture() {
+        return new ExplainCapture(Set.of("selectTaskByQueryCriteria"));
+    }
+
+    @Bean
+    public ProcessEnginePlugin explainCapturePlugin(ExplainCapture explainCapture) {
+        return new AbstractProcessEnginePlugin() {
+            @Override
+            public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+                processEngineConfiguration.getSqlSessionFactory().getConfiguration().addInterceptor(explainCapture);
+            }
+        };
+    }
+
+    /**
+     * 压测参数，见 application-index-benchmark.yaml
+     */
+    @Data
+    public static class BenchmarkProperties {
+        /**
+         * 压测任务总数，不足时续写
+         */
+        private long tasks = 2_000_000;
+        private int users = 1_000;
+        private int groups = 200;
+        private int tenants = 10;
+        /**
+         * 索引创建前后各执行的待办箱查询次数
+         */
+        private int queries = 2_000;
+        /**
+         * 写入压测数据时每批提交的任务数
+         */
+        private int batchSize = 10_000;
+        /**
+         * 随机数种子，前后两轮查询相同的用户序列
+         */
+        private long seed = 42;
+        private boolean exitOnFinish = true;
+    }
+}
@@ -0,0 +1,119 @@
+package com.czu.workflow.loadtest;
+
+import com.czu.workflow.TestProcessEngines;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.task.TaskQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 在 H2 上执行 db/mysql_inbox_indexes_7.24.0.sql，比较待办箱查询创建索引前后的执行计划。
+ * H2 不会调整 left join 的顺序，也不会在 distinct 查询中用索引排序，只能验证身份链接改走覆盖索引；
+ * 在 MySQL 上的完整效果由 InboxIndexBenchmark 测量
+ */
+public class InboxIndexMigrationTest {
+    private static final String STATEMENT = "selectTaskByQueryCriteria";
+
+    private ExplainCapture explainCapture;
+    private ProcessEngineConfigurationImpl configuration;
+    private ProcessEngine processEngine;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        explainCapture = new ExplainCapture(Set.of(STATEMENT));
+        configuration = TestProcessEngines.configuration("indexes", new AbstractProcessEnginePlugin() {
+            @Override
+            public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+                processEngineConfiguration.getSqlSessionFactory().getConfiguration().addInterceptor(explainCapture);
+            }
+        });
+        processEngine = configuration.buildProcessEngine();
+        try (Connection connection = configuration.getDataSource().getConnection()) {
+            new InboxDataSeeder(100, 20, 5, 5_000).seed(connection, 0, 20_000, new Random(42));
+            analyze(connection);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    @Test
+    public void identityLinksUseCoveringIndex() throws SQLException {
+        List<String> before = inbox("user1", List.of("group3", "group4"), List.of());
+        List<String> beforeTenant = inbox("user2", List.of("group6"), List.of("tenant1"));
+        String planBefore = explain("user1", List.of("group3", "group4"), List.of());
+        assertThat(planBefore).doesNotContain("ACT_IDX_IDENT_LNK_TASK_CAND");
+
+        try (Connection connection = configuration.getDataSource().getConnection()) {
+            SqlScript.execute(connection, InboxIndexBenchmark.MIGRATION);
+            analyze(connection);
+        }
+
+        String planAfter = explain("user1", List.of("group3", "group4"), List.of());
+        assertThat(planAfter).contains("ACT_IDX_IDENT_LNK_TASK_CAND: TASK_ID_ = RES.ID_");
+        assertThat(explain("user2", List.of("group6"), List.of("tenant1")))
+                .contains("ACT_IDX_IDENT_LNK_TASK_CAND: TASK_ID_ = RES.ID_");
+        assertThat(before).hasSize(20);
+        assertThat(inbox("user1", List.of("group3", "group4"), List.of())).isEqualTo(before);
+        assertThat(inbox("user2", List.of("group6"), List.of("tenant1"))).isEqualTo(beforeTenant);
+        assertThat(processEngine.getManagementService().getProperties())
+                .containsEntry(InboxIndexBenchmark.VERSION_PROPERTY, "1");
+    }
+
+    @Test
+    public void scriptSkipsComments() {
+        List<String> statements = SqlScript.statements(InboxIndexBenchmark.MIGRATION);
+        assertThat(statements).hasSize(6);
+        assertThat(statements).allMatch(statement -> statement.startsWith("create index") || statement.startsWith("insert"));
+    }
+
+    /**
+     * 与 InboxServiceImpl 的数据库查询相同，另按 ID 排序使前后结果可比较
+     */
+    private TaskQuery inboxQuery(String userId, List<String> groupIds, List<String> tenantIds) {
+        TaskQuery query = processEngine.getTaskService().createTaskQuery()
+                .or()
+                .taskAssignee(userId)
+                .taskCandidateUser(userId)
+                .taskCandidateGroupIn(groupIds)
+                .endOr();
+        if (tenantIds.isEmpty()) {
+            query.withoutTenantId();
+        } else {
+            query.tenantIdIn(tenantIds.toArray(String[]::new));
+        }
+        return query.orderByTaskCreateTime().desc().orderByTaskId().desc();
+    }
+
+    private List<String> inbox(String userId, List<String> groupIds, List<String> tenantIds) {
+        return inboxQuery(userId, groupIds, tenantIds).listPage(0, 20).stream().map(Task::getId).toList();
+    }
+
+    private String explain(String userId, List<String> groupIds, List<String> tenantIds) {
+        Map<String, String> plans = explainCapture.capture(() -> inboxQuery(userId, groupIds, tenantIds).listPage(0, 20));
+        assertThat(plans).containsKey(STATEMENT);
+        return plans.get(STATEMENT);
+    }
+
+    private static void analyze(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.czu.workflow.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按操作记录耗时和失败次数，压测结束后统计百分位
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Queue<Long>> samples = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> optimisticLockFailures = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> otherFailures = new ConcurrentHashMap<>();
+
+    public void record(String operation, long nanos) {
+        samples.computeIfAbsent(operation, k -> new ConcurrentLinkedQueue<>()).add(nanos);
+    }
+
+    public void optimisticLockFailure(String operation) {
+        optimisticLockFailures.computeIfAbsent(operation, k -> new LongAdder()).increment();
+    }
+
+    public void failure(String operation) {
+        otherFailures.computeIfAbsent(operation, k -> new LongAdder()).increment();
+    }
+
+    public Map<String, Queue<Long>> getSamples() {
+        return samples;
+    }
+
+    public long optimisticLockFailures(String operation) {
+        LongAdder adder = optimisticLockFailures.get(operation);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long failures(String operation) {
+        LongAdder adder = otherFailures.get(operation);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long totalOptimisticLockFailures() {
+        return optimisticLockFailures.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long totalOperations() {
+        return samples.values().stream().mapToLong(Queue::size).sum();
+    }
+
+    /**
+     * 某个操作的耗时统计，单位毫秒
+     */
+    public Summary summarize(String operation) {
+        long[] values = samples.getOrDefault(operation, new ConcurrentLinkedQueue<>())
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        Arrays.sort(values);
+        return new Summary(values.length,
+                percentile(values, 0.50),
+                percentile(values, 0.95),
+                percentile(values, 0.99),
+                values.length == 0 ? 0 : values[values.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    public record Summary(int count, double p50, double p95, double p99, double max) {
+    }
+}
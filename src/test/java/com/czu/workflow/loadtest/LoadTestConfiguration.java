@@ -0,0 +1,50 @@
+package com.czu.workflow.loadtest;
+
+import com.czu.workflow.Application;
+import lombok.Data;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * {@link LoadTestRunner} 所需的 Bean，只在测试类路径中，不进入生产包。
+ * 启动方式：mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.czu.workflow.loadtest.LoadTestConfiguration
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfiguration {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setAdditionalProfiles("loadtest");
+        application.run(args);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "workflow.load-test")
+    public LoadTestProperties loadTestProperties() {
+        return new LoadTestProperties();
+    }
+
+    /**
+     * 压测参数，见 application-loadtest.yaml
+     */
+    @Data
+    public static class LoadTestProperties {
+        /**
+         * 并发模拟用户数，每个用户一个虚拟线程
+         */
+        private int users = 50;
+        /**
+         * 每个用户执行的 发起-查询-拾取-完成 轮数
+         */
+        private int iterationsPerUser = 20;
+        /**
+         * 压测结束后退出应用
+         */
+        private boolean exitOnFinish = true;
+    }
+}
@@ -0,0 +1,202 @@
+package com.czu.workflow.loadtest;
+
+import com.czu.workflow.dto.InboxPage;
+import com.czu.workflow.dto.InboxTask;
+import com.czu.workflow.service.InboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.identity.Group;
+import org.camunda.bpm.engine.identity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 并发压测：N 个模拟用户（每人一个虚拟线程）循环执行 发起 -> 查询待办 -> 拾取 -> 带变量完成，
+ * 覆盖 候选人分配任务.bpmn 与 候选组分配任务.bpmn，结束后输出吞吐量、各操作 p50/p95/p99 及乐观锁失败率
+ * 启动方式见 {@link LoadTestConfiguration}
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class LoadTestRunner implements ApplicationRunner {
+
+    private static final String FLOW_PATH = "static/processResource/flow/";
+    private static final String CANDIDATE_USER_KEY = "Process_1c6zsko";
+    private static final String CANDIDATE_GROUP_KEY = "Process_0cs766a";
+    private static final String GROUP_ID = "jxGroup";
+    /**
+     * 候选人分配任务.bpmn 中写死的候选人
+     */
+    private static final List<String> USERS = List.of("demo", "wowo", "yuanj14");
+    /**
+     * 部门审核节点的候选人 ${user1},${user2},${user3}
+     */
+    private static final Map<String, Object> COMPLETE_VARIABLES = Map.of("user1", "demo", "user2", "wowo", "user3", "yuanj14");
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private IdentityService identityService;
+
+    @Autowired
+    private InboxService inboxService;
+
+    @Autowired
+    private LoadTestConfiguration.LoadTestProperties properties;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        prepare();
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        log.info("压测开始: 用户数={}, 每用户轮数={}", properties.getUsers(), properties.getIterationsPerUser());
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < properties.getUsers(); i++) {
+                String userId = USERS.get(i % USERS.size());
+                executor.submit(() -> simulateUser(userId, properties.getIterationsPerUser(), recorder));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        report(recorder, elapsedNanos);
+
+        if (properties.isExitOnFinish()) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    /**
+     * 部署两个流程（重复部署自动过滤），准备用户和候选组
+     */
+    private void prepare() {
+        for (String flow : List.of("候选人分配任务.bpmn", "候选组分配任务.bpmn")) {
+            repositoryService.createDeployment()
+                    .addClasspathResource(FLOW_PATH + flow)
+                    .name("压测-" + flow)
+                    .enableDuplicateFiltering(false)
+                    .deploy();
+        }
+        if (identityService.createGroupQuery().groupId(GROUP_ID).count() == 0) {
+            Group group = identityService.newGroup(GROUP_ID);
+            group.setName("Activity教学组");
+            identityService.saveGroup(group);
+        }
+        for (String userId : USERS) {
+            if (identityService.createUserQuery().userId(userId).count() == 0) {
+                User user = identityService.newUser(userId);
+                user.setPassword(userId);
+                identityService.saveUser(user);
+            }
+            if (identityService.createUserQuery().userId(userId).memberOfGroup(GROUP_ID).count() == 0) {
+                identityService.createMembership(userId, GROUP_ID);
+            }
+        }
+    }
+
+    private void simulateUser(String userId, int iterations, LatencyRecorder recorder) {
+        for (int i = 0; i < iterations; i++) {
+            try {
+                if (i % 2 == 0) {
+                    timed(recorder, "start", () -> runtimeService.startProcessInstanceByKey(CANDIDATE_USER_KEY));
+                } else {
+                    timed(recorder, "start", () -> runtimeService.startProcessInstanceByKey(CANDIDATE_GROUP_KEY,
+                            Map.of("group1", GROUP_ID)));
+                }
+                InboxPage inbox = timed(recorder, "inbox", () -> inboxService.getInbox(userId, 0, 20));
+                String taskId = claimFirst(userId, inbox, recorder);
+                if (taskId != null) {
+                    timed(recorder, "complete", () -> {
+                        taskService.complete(taskId, COMPLETE_VARIABLES);
+                        return null;
+                    });
+                }
+            } catch (OptimisticLockingException e) {
+                // 已在 timed 中计数
+            } catch (ProcessEngineException e) {
+                log.debug("用户 '{}' 第 {} 轮失败: {}", userId, i, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 依次尝试拾取待办中未分配的任务，被他人抢先时换下一个
+     */
+    private String claimFirst(String userId, InboxPage inbox, LatencyRecorder recorder) {
+        for (InboxTask task : inbox.getTasks()) {
+            if (!task.isClaimable()) {
+                continue;
+            }
+            try {
+                timed(recorder, "claim", () -> {
+                    taskService.claim(task.getId(), userId);
+                    return null;
+                });
+                return task.getId();
+            } catch (ProcessEngineException e) {
+                // 任务已被拾取或已完成，继续尝试下一个
+            }
+        }
+        return null;
+    }
+
+    private <T> T timed(LatencyRecorder recorder, String operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            recorder.record(operation, System.nanoTime() - start);
+            return result;
+        } catch (OptimisticLockingException e) {
+            recorder.optimisticLockFailure(operation);
+            throw e;
+        } catch (RuntimeException e) {
+            recorder.failure(operation);
+            throw e;
+        }
+    }
+
+    private void report(LatencyRecorder recorder, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long succeeded = recorder.totalOperations();
+        long optimisticLockFailures = recorder.totalOptimisticLockFailures();
+        log.info("压测完成: 总耗时={}s, 成功操作数={}, 吞吐量={} ops/s",
+                String.format("%.2f", seconds), succeeded, String.format("%.1f", succeeded / seconds));
+        log.info(String.format("%-10s %8s %10s %10s %10s %10s %8s %8s",
+                "操作", "次数", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)", "乐观锁", "其他失败"));
+        for (String operation : List.of("start", "inbox", "claim", "complete")) {
+            LatencyRecorder.Summary summary = recorder.summarize(operation);
+            log.info(String.format("%-10s %8d %10.2f %10.2f %10.2f %10.2f %8d %8d",
+                    operation, summary.count(), summary.p50(), summary.p95(), summary.p99(), summary.max(),
+                    recorder.optimisticLockFailures(operation), recorder.failures(operation)));
+        }
+        long attempts = succeeded + optimisticLockFailures;
+        log.info("乐观锁失败率: {}% ({}/{})",
+                String.format("%.2f", attempts == 0 ? 0 : optimisticLockFailures * 100.0 / attempts),
+                optimisticLockFailures, attempts);
+    }
+}
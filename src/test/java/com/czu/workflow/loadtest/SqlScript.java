@@ -0,0 +1,46 @@
+package com.czu.workflow.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 执行 classpath 下 db/ 中的迁移脚本：去掉 -- 注释行，按分号拆分语句
+ */
+public final class SqlScript {
+
+    private SqlScript() {
+    }
+
+    public static List<String> statements(String resource) {
+        try (InputStream inputStream = SqlScript.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("找不到 " + resource);
+            }
+            String script = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.trim().startsWith("--"))
+                    .collect(Collectors.joining("\n"));
+            return Arrays.stream(script.split(";"))
+                    .map(String::trim)
+                    .filter(statement -> !statement.isEmpty())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void execute(Connection connection, String resource) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements(resource)) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.czu.workflow.logging;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.plugin.LoggingContextPlugin;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoggingContextPluginTest {
+    private static final List<Map<String, String>> CAPTURED = new ArrayList<>();
+
+    private ProcessEngine processEngine;
+
+    @BeforeEach
+    public void setUp() {
+        CAPTURED.clear();
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("mdc",
+                new LoggingContextPlugin());
+        processEngine = configuration.buildProcessEngine();
+        BpmnModelInstance model = Bpmn.createExecutableProcess("mdc")
+                .startEvent()
+                .userTask("task").camundaTaskListenerClass(TaskListener.EVENTNAME_CREATE, CapturingListener.class)
+                .endEvent()
+                .done();
+        processEngine.getRepositoryService().createDeployment()
+                .addModelInstance("mdc.bpmn", model)
+                .tenantId("tenant-a")
+                .deploy();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    /**
+     * 监听器内的日志上下文带有命令名、流程实例、任务和租户，命令结束后清空
+     */
+    @Test
+    public void fillsMdcDuringListener() {
+        ProcessInstance instance = processEngine.getRuntimeService().startProcessInstanceByKey("mdc");
+        Task task = processEngine.getTaskService().createTaskQuery().singleResult();
+
+        assertThat(CAPTURED).hasSize(1);
+        assertThat(CAPTURED.get(0))
+                .containsEntry(LoggingContext.COMMAND, "StartProcessInstanceCmd")
+                .containsEntry(LoggingContext.PROCESS_INSTANCE_ID, instance.getId())
+                .containsEntry(LoggingContext.TASK_ID, task.getId())
+                .containsEntry(LoggingContext.TENANT_ID, "tenant-a");
+        assertThat(MDC.get(LoggingContext.COMMAND)).isNull();
+        assertThat(MDC.get(LoggingContext.TASK_ID)).isNull();
+    }
+
+    public static class CapturingListener implements TaskListener {
+        @Override
+        public void notify(DelegateTask delegateTask) {
+            CAPTURED.add(MDC.getCopyOfContextMap());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.czu.workflow.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitingTurboFilterTest {
+
+    private RateLimitingTurboFilter filter;
+    private Logger listenerLogger;
+    private Logger otherLogger;
+
+    @BeforeEach
+    public void setUp() {
+        LoggerContext context = new LoggerContext();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+        listenerLogger = context.getLogger("com.czu.workflow.listener.VariablesListener");
+        otherLogger = context.getLogger("com.czu.workflow.controller.InboxController");
+        filter = new RateLimitingTurboFilter();
+        filter.setLoggerPrefixes("com.czu.workflow.listener, com.example");
+        filter.setEventsPerSecond(3);
+    }
+
+    /**
+     * 同一秒内超出上限的 INFO 被丢弃，WARN 和未匹配前缀的 logger 不受影响
+     */
+    @Test
+    public void deniesEventsOverBudget() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(decide(listenerLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+        }
+        assertThat(decide(listenerLogger, Level.DEBUG)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(listenerLogger, Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+        for (int i = 0; i < 10; i++) {
+            assertThat(decide(otherLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    /**
+     * 级别本就不输出的日志不占用配额
+     */
+    @Test
+    public void ignoresDisabledLevels() {
+        listenerLogger.setLevel(Level.INFO);
+        for (int i = 0; i < 10; i++) {
+            assertThat(decide(listenerLogger, Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+        }
+        assertThat(decide(listenerLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "message", null, null);
+    }
+}
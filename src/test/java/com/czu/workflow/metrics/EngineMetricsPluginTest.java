@@ -0,0 +1,90 @@
+package com.czu.workflow.metrics;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.plugin.EngineMetricsPlugin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.task.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EngineMetricsPluginTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessEngine processEngine;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("metrics",
+                new EngineMetricsPlugin(new EngineMetrics(meterRegistry)));
+        processEngine = configuration.buildProcessEngine();
+        TestProcessEngines.deployFlows(processEngine, "任务分配-Assignee.bpmn", "任务分配-值表达式.bpmn");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    /**
+     * 发起、完成任务后，命令计数 / 监听器指标带上流程定义 key，命令耗时只按命令和结果区分
+     */
+    @Test
+    public void recordsCommandsListenersAndFlushes() {
+        processEngine.getRuntimeService().startProcessInstanceByKey("Process_0a0q999",
+                Map.of("user1", "wowo", "user2", 23, "user3", false));
+        Task task = processEngine.getTaskService().createTaskQuery().singleResult();
+        processEngine.getTaskService().complete(task.getId());
+
+        assertThat(meterRegistry.get("workflow.engine.command.definitions")
+                .tags("command", "StartProcessInstanceCmd", "process.definition.key", "Process_0a0q999", "tenant", "none")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("workflow.engine.command.definitions")
+                .tags("command", "CompleteTaskCmd", "outcome", "success", "process.definition.key", "Process_0a0q999")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("workflow.engine.command")
+                .tags("command", "CompleteTaskCmd", "outcome", "success")
+                .timer().getId().getTag("process.definition.key")).isNull();
+        assertThat(meterRegistry.get("workflow.engine.command")
+                .tags("command", "TaskQueryImpl")
+                .timer().count()).isEqualTo(1);
+        // 两个用户任务各触发一次 create 监听器
+        assertThat(meterRegistry.get("workflow.engine.delegate")
+                .tags("type", "TaskListener", "delegate", "VariablesListener", "process.definition.key", "Process_0a0q999")
+                .timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("workflow.engine.flush.operations").summary().totalAmount()).isPositive();
+    }
+
+    /**
+     * 表达式调用按根标识符记录，不使用表达式原文
+     */
+    @Test
+    public void tagsExpressionsByRootIdentifier() {
+        processEngine.getRuntimeService().startProcessInstanceByKey("Process_0a0q6t3", Map.of("user1", "demo", "user2", "wowo"));
+
+        assertThat(meterRegistry.get("workflow.engine.delegate")
+                .tags("type", "ExpressionGet", "delegate", "user1", "process.definition.key", "Process_0a0q6t3")
+                .timer().count()).isEqualTo(1);
+    }
+
+    /**
+     * 命令失败时按异常类型记录结果
+     */
+    @Test
+    public void recordsFailedCommands() {
+        try {
+            processEngine.getTaskService().complete("not-exists");
+        } catch (RuntimeException ignored) {
+        }
+        assertThat(meterRegistry.get("workflow.engine.command")
+                .tags("command", "CompleteTaskCmd", "outcome", "NullValueException")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,186 @@
+package com.czu.workflow.notification;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.TaskNotificationPlugin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.task.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TaskNotificationTest {
+    private static final String CANDIDATE_USERS_KEY = "Process_1c6zsko";
+    private static final String CANDIDATE_GROUPS_KEY = "Process_0cs766a";
+
+    private WorkflowProperties.Notifications properties;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskNotificationBroadcaster broadcaster;
+    private ProcessEngineConfigurationImpl configuration;
+    private ProcessEngine processEngine;
+    private RuntimeService runtimeService;
+    private TaskService taskService;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new WorkflowProperties.Notifications();
+        properties.setQueueCapacity(4);
+        properties.setMaxSubscribers(3);
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new TaskNotificationBroadcaster(properties, meterRegistry);
+        configuration = TestProcessEngines.configuration("notify", new TaskNotificationPlugin(broadcaster));
+        configuration.setHistoryTimeToLive("30");
+        processEngine = configuration.buildProcessEngine();
+        TestProcessEngines.deployFlows(processEngine, "候选人分配任务.bpmn", "候选组分配任务.bpmn");
+        runtimeService = processEngine.getRuntimeService();
+        taskService = processEngine.getTaskService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        broadcaster.close();
+        processEngine.close();
+    }
+
+    /**
+     * 候选人收到创建事件，拾取后处理人和候选人收到分配事件，完成后收到完成事件，下一节点的候选人收到创建事件
+     */
+    @Test
+    public void pushesTaskLifecycle() throws InterruptedException {
+        RecordingSink wowo = subscribe("wowo", List.of(), List.of());
+        RecordingSink lisi = subscribe("lisi", List.of(), List.of());
+        RecordingSink group = subscribe("someone", List.of("g1"), List.of());
+
+        runtimeService.startProcessInstanceByKey(CANDIDATE_USERS_KEY,
+                Map.of("user1", "zhangsan", "user2", "lisi", "user3", "wangwu"));
+        runtimeService.startProcessInstanceByKey(CANDIDATE_GROUPS_KEY, Map.of("group1", "g1"));
+        TaskNotification created = wowo.next();
+        assertThat(created.type()).isEqualTo(TaskNotification.CREATED);
+        assertThat(group.next().type()).isEqualTo(TaskNotification.CREATED);
+
+        taskService.claim(created.taskId(), "wowo");
+        TaskNotification assigned = wowo.next();
+        assertThat(assigned.type()).isEqualTo(TaskNotification.ASSIGNED);
+        assertThat(assigned.assignee()).isEqualTo("wowo");
+
+        taskService.complete(created.taskId());
+        assertThat(wowo.next().type()).isEqualTo(TaskNotification.COMPLETED);
+        TaskNotification next = lisi.next();
+        assertThat(next.type()).isEqualTo(TaskNotification.CREATED);
+        assertThat(next.taskId()).isNotEqualTo(created.taskId());
+
+        assertThat(wowo.received).isEmpty();
+        assertThat(lisi.received).isEmpty();
+        assertThat(group.received).isEmpty();
+    }
+
+    /**
+     * 回滚的事务和其他租户的任务不推送
+     */
+    @Test
+    public void skipsRolledBackAndOtherTenants() throws InterruptedException {
+        RecordingSink tenantUser = subscribe("wowo", List.of(), List.of("t1"));
+        RecordingSink groupUser = subscribe("someone", List.of("g1"), List.of());
+
+        assertThatThrownBy(() -> configuration.getCommandExecutorTxRequired().execute(commandContext -> {
+            runtimeService.startProcessInstanceByKey(CANDIDATE_GROUPS_KEY, Map.of("group1", "g1"));
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+        runtimeService.startProcessInstanceByKey(CANDIDATE_USERS_KEY);
+        runtimeService.startProcessInstanceByKey(CANDIDATE_GROUPS_KEY, Map.of("group1", "g1"));
+
+        // 第二个组任务到达时，回滚的事件若被推送必然已在它之前入队
+        Task task = taskService.createTaskQuery().processDefinitionKey(CANDIDATE_GROUPS_KEY).singleResult();
+        assertThat(groupUser.next().taskId()).isEqualTo(task.getId());
+        assertThat(groupUser.received).isEmpty();
+        assertThat(tenantUser.received).isEmpty();
+        assertThat(meterRegistry.get("workflow.notifications.delivered").counter().count()).isEqualTo(1);
+    }
+
+    /**
+     * 跟不上的订阅在队列满时被断开，订阅数受上限约束
+     */
+    @Test
+    public void disconnectsSlowSubscribers() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(TaskNotification notification) throws IOException {
+                blocked.countDown();
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        };
+        broadcaster.subscribe("wowo", List.of(), List.of(), slow);
+        subscribe("a", List.of(), List.of());
+        subscribe("b", List.of(), List.of());
+        assertThatThrownBy(() -> subscribe("c", List.of(), List.of())).isInstanceOf(IllegalStateException.class);
+
+        broadcaster.publish(List.of(notification("1")));
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 2; i <= properties.getQueueCapacity() + 2; i++) {
+            broadcaster.publish(List.of(notification(String.valueOf(i))));
+        }
+
+        assertThat(slow.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(broadcaster.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("workflow.notifications.dropped").counter().count()).isEqualTo(1);
+        subscribe("c", List.of(), List.of());
+    }
+
+    private RecordingSink subscribe(String userId, List<String> groupIds, List<String> tenantIds) {
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribe(userId, groupIds, tenantIds, sink);
+        return sink;
+    }
+
+    private static TaskNotification notification(String taskId) {
+        return new TaskNotification(TaskNotification.CREATED, taskId, null, null, null, null, null, null,
+                Set.of("wowo"), Set.of());
+    }
+
+    private static class RecordingSink implements TaskNotificationBroadcaster.Sink {
+        final BlockingQueue<TaskNotification> received = new LinkedBlockingQueue<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        TaskNotification next() throws InterruptedException {
+            TaskNotification notification = received.poll(5, TimeUnit.SECONDS);
+            assertThat(notification).isNotNull();
+            return notification;
+        }
+
+        @Override
+        public void send(TaskNotification notification) throws IOException {
+            received.add(notification);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.czu.workflow.pagination;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.dto.InboxTask;
+import com.czu.workflow.dto.KeysetPage;
+import com.czu.workflow.dto.ProcessInstanceItem;
+import com.czu.workflow.plugin.KeysetPaginationPlugin;
+import com.czu.workflow.service.impl.PageServiceImpl;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.task.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KeysetPaginationTest {
+    private static final String PROCESS_KEY = "Process_0a0q999";
+    private static final String RESOURCE = "static/processResource/flow/任务分配-Assignee.bpmn";
+
+    private ProcessEngine processEngine;
+    private PageServiceImpl pageService;
+
+    @BeforeEach
+    public void setUp() {
+        KeysetQueries keysetQueries = new KeysetQueries();
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("keyset",
+                new KeysetPaginationPlugin(keysetQueries));
+        processEngine = configuration.buildProcessEngine();
+        pageService = new PageServiceImpl();
+        ReflectionTestUtils.setField(pageService, "keysetQueries", keysetQueries);
+
+        processEngine.getRepositoryService().createDeployment().addClasspathResource(RESOURCE).deploy();
+        processEngine.getRepositoryService().createDeployment().addClasspathResource(RESOURCE).tenantId("t1").deploy();
+
+        // 前 12 个任务创建时间相同，翻页边界落在相同时间内时依靠 ID 区分
+        RuntimeService runtimeService = processEngine.getRuntimeService();
+        Date start = new Date(System.currentTimeMillis() / 1000 * 1000);
+        ClockUtil.setCurrentTime(start);
+        for (int i = 0; i < 12; i++) {
+            runtimeService.createProcessInstanceByKey(PROCESS_KEY).processDefinitionWithoutTenantId().execute();
+        }
+        ClockUtil.setCurrentTime(new Date(start.getTime() + 1000));
+        for (int i = 0; i < 13; i++) {
+            runtimeService.createProcessInstanceByKey(PROCESS_KEY).processDefinitionWithoutTenantId().execute();
+        }
+        for (int i = 0; i < 5; i++) {
+            runtimeService.createProcessInstanceByKey(PROCESS_KEY).processDefinitionTenantId("t1").execute();
+        }
+        ClockUtil.reset();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ClockUtil.reset();
+        processEngine.getIdentityService().clearAuthentication();
+        processEngine.close();
+    }
+
+    /**
+     * 逐页读取的结果与一次性按 (创建时间, ID) 倒序排序的结果一致，不重复、不遗漏
+     */
+    @Test
+    public void pagesThroughTasksInKeyOrder() {
+        List<InboxTask> pages = readAll(next -> pageService.getTasks("demo", null, next, 7));
+
+        List<String> expected = processEngine.getTaskService().createTaskQuery().list().stream()
+                .sorted(Comparator.comparing(Task::getCreateTime).thenComparing(Task::getId).reversed())
+                .map(Task::getId)
+                .toList();
+        assertThat(expected).hasSize(30);
+        assertThat(pages).extracting(InboxTask::getId).containsExactlyElementsOf(expected);
+    }
+
+    /**
+     * 设置 Authentication 后与引擎查询一样按租户过滤
+     */
+    @Test
+    public void appliesTenantCheck() {
+        processEngine.getIdentityService().setAuthentication("demo", null, null);
+        assertThat(readAll(next -> pageService.getTasks(null, PROCESS_KEY, next, 10))).hasSize(25)
+                .allMatch(task -> task.getTenantId() == null);
+
+        processEngine.getIdentityService().setAuthentication("demo", null, List.of("t1"));
+        assertThat(readAll(next -> pageService.getTasks(null, PROCESS_KEY, next, 10))).hasSize(30);
+    }
+
+    @Test
+    public void pagesThroughProcessInstancesAndHistoricTasks() {
+        Task task = processEngine.getTaskService().createTaskQuery().listPage(0, 1).get(0);
+        processEngine.getRuntimeService().deleteProcessInstance(task.getProcessInstanceId(), "test");
+
+        List<ProcessInstanceItem> running = readAll(next -> pageService.getProcessInstances(PROCESS_KEY, false, next, 4));
+        assertThat(running).hasSize(29).allMatch(processInstance -> processInstance.getEndTime() == null);
+        assertThat(readAll(next -> pageService.getProcessInstances(null, true, next, 4)))
+                .extracting(ProcessInstanceItem::getId).containsExactly(task.getProcessInstanceId());
+
+        assertThat(readAll(next -> pageService.getHistoricTasks("demo", null, null, next, 8))).hasSize(30);
+        assertThat(readAll(next -> pageService.getHistoricTasks("demo", null, true, next, 8))).hasSize(1);
+    }
+
+    @Test
+    public void rejectsForeignOrMalformedTokens() {
+        String processInstanceToken = pageService.getProcessInstances(null, null, null, 1).getNext();
+        assertThat(processInstanceToken).isNotNull();
+
+        assertThatThrownBy(() -> pageService.getTasks(null, null, processInstanceToken, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pageService.getTasks(null, null, "not-a-token!", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static <T> List<T> readAll(Function<String, KeysetPage<T>> query) {
+        List<T> items = new ArrayList<>();
+        String next = null;
+        do {
+            KeysetPage<T> page = query.apply(next);
+            assertThat(page.getItems().size()).isLessThanOrEqualTo(page.getLimit());
+            items.addAll(page.getItems());
+            next = page.getNext();
+        } while (next != null);
+        return items;
+    }
+}
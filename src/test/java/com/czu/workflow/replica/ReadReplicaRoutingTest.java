@@ -0,0 +1,142 @@
+package com.czu.workflow.replica;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.ReadReplicaPlugin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.task.Task;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 两个内存 H2 分别作为主库和副本，副本不做复制、只建表，查询结果的差异说明了查询落在哪个库上
+ */
+public class ReadReplicaRoutingTest {
+    private static final String PROCESS_KEY = "Process_0a0q6t3";
+
+    private JdbcDataSource replica;
+    private ReplicaLagMonitor monitor;
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessEngineConfigurationImpl configuration;
+    private ProcessEngine processEngine;
+
+    @BeforeEach
+    public void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        JdbcDataSource primary = h2("replica-primary-" + suffix);
+        replica = h2("replica-replica-" + suffix);
+        // 用同版本引擎在副本上建表
+        ProcessEngineConfiguration.createStandaloneInMemProcessEngineConfiguration()
+                .setDataSource(replica)
+                .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_TRUE)
+                .setJobExecutorActivate(false)
+                .buildProcessEngine()
+                .close();
+
+        WorkflowProperties.ReadReplica properties = new WorkflowProperties.ReadReplica();
+        properties.setQueries(Map.of("task", Duration.ofSeconds(5), "historic-detail", Duration.ofMinutes(10)));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica);
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(dataSource, properties, meterRegistry);
+
+        configuration = TestProcessEngines.configuration("replica", new ReadReplicaPlugin(
+                new ReplicaRoutingInterceptor(properties.getQueries(), monitor, meterRegistry)));
+        processEngine = configuration
+                .setDataSource(dataSource)
+                .buildProcessEngine();
+        TestProcessEngines.deployFlows(processEngine, "任务分配-值表达式.bpmn");
+        processEngine.getRuntimeService().startProcessInstanceByKey(PROCESS_KEY, Map.of("user1", "demo", "user2", "wowo"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    /**
+     * 副本延迟在容忍度内时任务查询读副本；拾取、完成等写命令和嵌套在命令中的查询仍走主库
+     */
+    @Test
+    public void routesQueriesToReplicaWithinTolerance() throws Exception {
+        TaskService taskService = processEngine.getTaskService();
+        monitor.refresh();
+        assertThat(monitor.lag()).isNull();
+        assertThat(taskService.createTaskQuery().count()).isEqualTo(1);
+
+        writeReplicaHeartbeat(System.currentTimeMillis());
+        monitor.refresh();
+        assertThat(taskService.createTaskQuery().count()).isZero();
+        long nested = configuration.getCommandExecutorTxRequired()
+                .execute(commandContext -> taskService.createTaskQuery().count());
+        assertThat(nested).isEqualTo(1);
+
+        Task task = configuration.getCommandExecutorTxRequired()
+                .execute(commandContext -> taskService.createTaskQuery().singleResult());
+        taskService.complete(task.getId());
+        HistoryService historyService = processEngine.getHistoryService();
+        assertThat(historyService.createHistoricTaskInstanceQuery().finished().count()).isEqualTo(1);
+
+        assertThat(meterRegistry.get("workflow.replica.queries").tags("query", "task", "target", "primary").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("workflow.replica.queries").tags("query", "task", "target", "replica").counter().count())
+                .isEqualTo(1);
+    }
+
+    /**
+     * 副本延迟超过某类查询的容忍度时该类查询改走主库，容忍度更大的查询仍读副本
+     */
+    @Test
+    public void fallsBackToPrimaryPerQueryType() throws Exception {
+        writeReplicaHeartbeat(System.currentTimeMillis() - Duration.ofMinutes(1).toMillis());
+        monitor.refresh();
+        assertThat(monitor.lag()).isGreaterThanOrEqualTo(Duration.ofMinutes(1));
+
+        assertThat(processEngine.getTaskService().createTaskQuery().count()).isEqualTo(1);
+        assertThat(processEngine.getHistoryService().createHistoricDetailQuery().count()).isZero();
+        assertThat(processEngine.getHistoryService().createHistoricVariableInstanceQuery().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("workflow.replica.lag").gauge().value()).isGreaterThanOrEqualTo(60);
+    }
+
+    /**
+     * 心跳写入主库的 ACT_GE_PROPERTY，副本复制后即可据此估算延迟
+     */
+    @Test
+    public void writesHeartbeatToPrimary() {
+        monitor.heartbeat();
+        monitor.heartbeat();
+        assertThat(processEngine.getManagementService().getProperties())
+                .containsKey(ReplicaLagMonitor.HEARTBEAT_PROPERTY);
+    }
+
+    private void writeReplicaHeartbeat(long timestamp) throws Exception {
+        try (Connection connection = replica.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "merge into ACT_GE_PROPERTY (NAME_, VALUE_, REV_) key (NAME_) values (?, ?, 1)")) {
+            statement.setString(1, ReplicaLagMonitor.HEARTBEAT_PROPERTY);
+            statement.setString(2, Long.toString(timestamp));
+            statement.executeUpdate();
+        }
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
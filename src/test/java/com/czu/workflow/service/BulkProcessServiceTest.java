@@ -0,0 +1,131 @@
+package com.czu.workflow.service;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.dto.BulkItemResult;
+import com.czu.workflow.dto.BulkResult;
+import com.czu.workflow.dto.BulkStartRow;
+import com.czu.workflow.service.impl.BulkProcessServiceImpl;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class BulkProcessServiceTest {
+    private static final String PROCESS_KEY = "bulk";
+    private static final String TENANT = "t1";
+
+    private final ChunkCounter chunkCounter = new ChunkCounter();
+    private ProcessEngine processEngine;
+    private RepositoryService repositoryService;
+    private BulkProcessServiceImpl bulkProcessService;
+
+    @BeforeEach
+    public void setUp() {
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("bulk");
+        configuration.setCustomPreCommandInterceptorsTxRequired(List.of(chunkCounter));
+        processEngine = configuration.buildProcessEngine();
+        BpmnModelInstance model = Bpmn.createExecutableProcess(PROCESS_KEY)
+                .camundaHistoryTimeToLive(30)
+                .startEvent()
+                .userTask("approve")
+                .endEvent()
+                .done();
+        // 无租户的定义部署两个版本，租户 t1 一个版本
+        for (String tenantId : new String[]{null, null, TENANT}) {
+            processEngine.getRepositoryService().createDeployment()
+                    .addModelInstance("bulk.bpmn", model)
+                    .tenantId(tenantId)
+                    .deploy();
+        }
+
+        repositoryService = spy(processEngine.getRepositoryService());
+        bulkProcessService = new BulkProcessServiceImpl();
+        ReflectionTestUtils.setField(bulkProcessService, "runtimeService", processEngine.getRuntimeService());
+        ReflectionTestUtils.setField(bulkProcessService, "repositoryService", repositoryService);
+        ReflectionTestUtils.setField(bulkProcessService, "processEngineConfiguration", configuration);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    /**
+     * 每个租户只查询一次最新定义；每块一个命令提交，块中一行失败时该块回滚后逐条重试，只有这一行失败
+     */
+    @Test
+    public void startsChunksWithLatestDefinitionPerTenant() {
+        List<BulkStartRow> rows = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            // 不可序列化的对象变量在 Java 序列化关闭时无法保存
+            Object amount = i == 5 ? new Object() : i * 100;
+            rows.add(row("B" + i, i % 2 == 0 ? TENANT : null, amount));
+        }
+
+        BulkResult result = bulkProcessService.startAll(PROCESS_KEY, rows.iterator(), 3);
+
+        assertThat(result.getTotal()).isEqualTo(7);
+        assertThat(result.getSucceeded()).isEqualTo(6);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getChunksRetried()).isEqualTo(1);
+        assertThat(result.getItems()).extracting(BulkItemResult::getId, BulkItemResult::isSuccess)
+                .containsExactly(tuple("B5", false));
+        assertThat(result.getThroughputPerSecond()).isPositive();
+
+        verify(repositoryService, times(2)).createProcessDefinitionQuery();
+        assertThat(chunkCounter.chunks.get()).isEqualTo(3);
+
+        RuntimeService runtimeService = processEngine.getRuntimeService();
+        ProcessDefinition latest = processEngine.getRepositoryService().createProcessDefinitionQuery()
+                .processDefinitionKey(PROCESS_KEY).withoutTenantId().latestVersion().singleResult();
+        assertThat(latest.getVersion()).isEqualTo(2);
+        // 回滚的块重试后不会重复启动
+        assertThat(runtimeService.createProcessInstanceQuery().count()).isEqualTo(6);
+        assertThat(runtimeService.createProcessInstanceQuery().processDefinitionId(latest.getId()).count()).isEqualTo(3);
+        assertThat(runtimeService.createProcessInstanceQuery().tenantIdIn(TENANT).count()).isEqualTo(3);
+        assertThat(runtimeService.createProcessInstanceQuery().processInstanceBusinessKey("B5").count()).isZero();
+    }
+
+    private static BulkStartRow row(String businessKey, String tenantId, Object amount) {
+        BulkStartRow row = new BulkStartRow();
+        row.setBusinessKey(businessKey);
+        row.setTenantId(tenantId);
+        row.setVariables(Map.of("amount", amount));
+        return row;
+    }
+
+    /**
+     * 统计 BulkProcessServiceImpl 提交的块命令数
+     */
+    private static class ChunkCounter extends CommandInterceptor {
+        private final AtomicInteger chunks = new AtomicInteger();
+
+        @Override
+        public <T> T execute(Command<T> command) {
+            if (command.getClass().getName().startsWith(BulkProcessServiceImpl.class.getName())) {
+                chunks.incrementAndGet();
+            }
+            return next.execute(command);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.czu.workflow.sqlprofile;
+
+import com.czu.workflow.TestProcessEngines;
+import com.czu.workflow.config.WorkflowProperties;
+import com.czu.workflow.plugin.SqlProfilerPlugin;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlProfilerTest {
+
+    private ProcessEngine processEngine;
+
+    private SqlProfiler buildEngine(double sampleRate) {
+        WorkflowProperties.SqlProfiler properties = new WorkflowProperties.SqlProfiler();
+        properties.setSampleRate(sampleRate);
+        SqlProfiler profiler = new SqlProfiler(properties);
+        ProcessEngineConfigurationImpl configuration = TestProcessEngines.configuration("sqlprofile",
+                new SqlProfilerPlugin(profiler));
+        processEngine = configuration.buildProcessEngine();
+        return profiler;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEngine.close();
+    }
+
+    /**
+     * 请求内逐个分组查询成员（CandidateTest 的写法）被识别为同一单元内的循环查询
+     */
+    @Test
+    public void flagsRepeatedSelectsAcrossCommandsInOneUnit() {
+        SqlProfiler profiler = buildEngine(1.0);
+        List<String> groups = List.of("g1", "g2", "g3", "g4");
+        groups.forEach(groupId -> processEngine.getIdentityService()
+                .saveGroup(processEngine.getIdentityService().newGroup(groupId)));
+        profiler.reset();
+
+        profiler.enter(() -> "GET /groups");
+        try {
+            groups.forEach(groupId -> processEngine.getIdentityService().createUserQuery().memberOfGroup(groupId).list());
+            processEngine.getIdentityService().createGroupQuery().groupId("g1").singleResult();
+        } finally {
+            profiler.exit(null);
+        }
+
+        SqlProfileReport.UnitReport unit = profiler.report().units().stream()
+                .filter(report -> report.name().equals("GET /groups"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(unit.samples()).isEqualTo(1);
+        SqlProfileReport.StatementReport userQuery = unit.statements().get(0);
+        assertThat(userQuery.statementId()).endsWith("selectUserByQueryCriteria");
+        assertThat(userQuery.maxPerUnit()).isEqualTo(4);
+        assertThat(userQuery.repeatedUnits()).isEqualTo(1);
+        assertThat(unit.statements()).anySatisfy(statement -> {
+            assertThat(statement.statementId()).endsWith("selectGroupByQueryCriteria");
+            assertThat(statement.repeatedUnits()).isZero();
+        });
+    }
+
+    /**
+     * 不在请求内时每个最外层命令单独成为单元，写操作记录批次
+     */
+    @Test
+    public void profilesOutermostCommands() {
+        SqlProfiler profiler = buildEngine(1.0);
+        processEngine.getIdentityService().saveUser(processEngine.getIdentityService().newUser("demo"));
+
+        assertThat(profiler.report().units()).anySatisfy(unit -> {
+            assertThat(unit.name()).isEqualTo("command SaveUserCmd");
+            assertThat(unit.statements()).extracting(SqlProfileReport.StatementReport::statementId)
+                    .contains(SqlProfilerInterceptor.BATCH_FLUSH);
+        });
+    }
+
+    @Test
+    public void skipsUnsampledUnits() {
+        SqlProfiler profiler = buildEngine(0.0);
+        processEngine.getIdentityService().createUserQuery().list();
+
+        assertThat(profiler.report().units()).isEmpty();
+    }
+}